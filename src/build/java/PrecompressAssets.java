@@ -0,0 +1,59 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build step (process-resources, see pom.xml): writes a maximally compressed {@code .gz} next to each
+ * {@code .css} / {@code .js} file under the given directories of {@code target/classes}, for
+ * {@code StaticAssetConfig} to serve as-is to clients that accept gzip. Skips files whose {@code .gz} is
+ * already up to date or would not be smaller. Run with the single-file source launcher, so it needs
+ * nothing but the JDK:
+ * <pre>java src/build/java/PrecompressAssets.java target/classes/static/css target/classes/static/js</pre>
+ */
+public class PrecompressAssets {
+
+    public static void main(String[] args) throws IOException {
+        int written = 0;
+        for (var dir : args) {
+            var root = Path.of(dir);
+            if (!Files.isDirectory(root)) continue;
+            try (var files = Files.walk(root)) {
+                written += (int) files.filter(PrecompressAssets::isAsset).filter(PrecompressAssets::compress).count();
+            }
+        }
+        System.out.println("Precompressed " + written + " static asset(s)");
+    }
+
+    private static boolean isAsset(Path file) {
+        var name = file.getFileName().toString();
+        return Files.isRegularFile(file) && (name.endsWith(".css") || name.endsWith(".js"));
+    }
+
+    private static boolean compress(Path file) {
+        var gz = file.resolveSibling(file.getFileName() + ".gz");
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (Files.exists(gz) && Files.getLastModifiedTime(gz).equals(modified)) return false;
+            var bytes = Files.readAllBytes(file);
+            var out = new ByteArrayOutputStream(bytes.length);
+            try (var gzip = new GZIPOutputStream(out) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+                gzip.write(bytes);
+            }
+            if (out.size() >= bytes.length) {
+                Files.deleteIfExists(gz);
+                return false;
+            }
+            Files.write(gz, out.toByteArray());
+            // Same timestamp as the original: marks it up to date, and keeps Last-Modified identical for both
+            Files.setLastModifiedTime(gz, modified);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.ordertaking.benchmark;
+
+import com.example.ordertaking.OrderTakingApplication;
+import com.example.ordertaking.dto.OrderHistoryPage;
+import com.example.ordertaking.service.OrderHistoryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * One 50-order page of a customer's history, for a customer with {@code orders} orders (four lines
+ * each) next to 1,000 customers with ten. The newest page, a page 90% of the way back and the JSON
+ * endpoint should cost about the same at every size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class OrderHistoryBenchmark {
+
+    private static final LocalDate LAST_DAY = LocalDate.of(2025, 12, 31);
+    private static final int PAGE = 50;
+    private static final int OTHER_CUSTOMERS = 1_000;
+
+    @Param({"100", "10000", "100000"})
+    public int orders;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private OrderHistoryService historyService;
+    private long customerId;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        try {
+            seed();
+        } catch (Exception | Error e) {
+            stop();
+            throw e;
+        }
+    }
+
+    private void seed() throws Exception {
+        context = new SpringApplicationBuilder(OrderTakingApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:historybench;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--app.session.signing-key=bench-signing-key-0123456789abcdef");
+        var jdbc = context.getBean(JdbcTemplate.class);
+        long customerBase = jdbc.queryForObject("select coalesce(max(id), 0) from customers", Long.class);
+        long vegetableBase = jdbc.queryForObject("select coalesce(max(id), 0) from vegetables", Long.class);
+        long orderBase = jdbc.queryForObject("select coalesce(max(id), 0) from orders", Long.class);
+        jdbc.update("insert into customers (id, first_name, last_name, email, address, created_at) " +
+                "select ? + x, 'History', 'Customer' || x, 'history' || x || '@example.com', 'Street ' || x, current_timestamp " +
+                "from system_range(1, ?)", customerBase, OTHER_CUSTOMERS + 1);
+        jdbc.update("insert into vegetables (id, name) select ? + x, 'History vegetable ' || x from system_range(1, 4)",
+                vegetableBase);
+        customerId = customerBase + 1;
+        int otherOrders = OTHER_CUSTOMERS * 10;
+        // The measured customer orders a few times a day going back from LAST_DAY; the others are interleaved
+        jdbc.update("insert into orders (id, customer_id, order_date) " +
+                "select ? + x, ?, dateadd('DAY', -x / 3, cast(? as date)) from system_range(1, ?)",
+                orderBase, customerId, LAST_DAY, orders);
+        jdbc.update("insert into orders (id, customer_id, order_date) " +
+                "select ? + x, ? + 1 + mod(x, ?), dateadd('DAY', -mod(x, 3650), cast(? as date)) from system_range(1, ?)",
+                orderBase + orders, customerId, OTHER_CUSTOMERS, LAST_DAY, otherOrders);
+        jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) " +
+                "select (? + o.x) * 10 + v.x, ? + o.x, ? + v.x, v.x from system_range(1, ?) o cross join system_range(1, 4) v",
+                orderBase, orderBase, vegetableBase, orders + otherOrders);
+
+        var deep = jdbc.queryForMap("select order_date, id from orders where customer_id = ? " +
+                "order by order_date desc, id desc offset ? rows fetch next 1 row only", customerId, orders * 9 / 10 - PAGE);
+        deepCursor = deep.get("ORDER_DATE") + "_" + deep.get("ID");
+        historyService = context.getBean(OrderHistoryService.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .defaultRequest(get("/").with(user("bench").roles("ADMIN")))
+                .build();
+
+        // Fail fast rather than measure short pages
+        if (deepPage().getOrders().size() != PAGE) {
+            throw new IllegalStateException("Order history data not seeded");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public OrderHistoryPage newestPage() {
+        return historyService.page(customerId, null, null, PAGE);
+    }
+
+    @Benchmark
+    public OrderHistoryPage deepPage() {
+        return historyService.page(customerId, deepCursor, null, PAGE);
+    }
+
+    @Benchmark
+    public int apiPage() throws Exception {
+        return mockMvc.perform(get("/api/customers/{id}/orders", customerId).param("after", deepCursor))
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+}
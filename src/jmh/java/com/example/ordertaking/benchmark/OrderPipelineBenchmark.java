@@ -0,0 +1,142 @@
+package com.example.ordertaking.benchmark;
+
+import com.example.ordertaking.OrderTakingApplication;
+import com.example.ordertaking.repository.OrderItemRepository;
+import com.example.ordertaking.repository.OrderRepository;
+import com.example.ordertaking.service.DailyRollupService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * End-to-end benchmarks for the order pipeline against an embedded H2 database seeded by
+ * {@link BenchmarkDataGenerator}. Requests go through the security filter chain and DispatcherServlet
+ * (controllers, services, Thymeleaf) via MockMvc as an already authenticated user, so password hashing
+ * is not part of the numbers. Each benchmark reports throughput and a latency distribution (p50/p99/...)
+ * in target/jmh-result.json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class OrderPipelineBenchmark {
+
+    @Param({"100", "1000"})
+    public int ordersPerDay;
+
+    @Param("30")
+    public int days;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private OrderRepository orderRepository;
+    private OrderItemRepository orderItemRepository;
+    private DailyRollupService rollupService;
+    private BenchmarkDataGenerator.Dataset dataset;
+    private final Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        try {
+            seed();
+        } catch (Exception | Error e) {
+            stop();
+            throw e;
+        }
+    }
+
+    private void seed() throws Exception {
+        context = new SpringApplicationBuilder(OrderTakingApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.thymeleaf.cache=true",
+                "--logging.level.root=WARN",
+                "--app.session.signing-key=bench-signing-key-0123456789abcdef");
+        dataset = new BenchmarkDataGenerator(context.getBean(JdbcTemplate.class))
+                .generate(2_000, 50, days, ordersPerDay, 5);
+        rollupService = context.getBean(DailyRollupService.class);
+        rollupService.rebuildAll();
+        orderRepository = context.getBean(OrderRepository.class);
+        orderItemRepository = context.getBean(OrderItemRepository.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .defaultRequest(get("/").with(user("bench").roles("ADMIN")))
+                .build();
+
+        // Fail fast rather than measure error pages.
+        int created = createOrder().getResponse().getStatus();
+        if (created != 302 || renderFinalOrders().isEmpty()) {
+            throw new IllegalStateException("Order pipeline not healthy, createOrder returned " + created);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public MvcResult createOrder() throws Exception {
+        long[] customers = dataset.getCustomerIds();
+        long[] vegetables = dataset.getVegetableIds();
+        var request = post("/orders")
+                .param("customerId", String.valueOf(customers[random.nextInt(customers.length)]))
+                .param("orderDate", randomDay().toString())
+                .with(csrf());
+        for (int i = 0; i < 3; i++) {
+            request.param("vegetableIds", String.valueOf(vegetables[random.nextInt(vegetables.length)]))
+                   .param("quantities", String.valueOf(1 + random.nextInt(20)));
+        }
+        return mockMvc.perform(request).andReturn();
+    }
+
+    @Benchmark
+    public List<?> summarizeByDateLive() {
+        return orderItemRepository.summarizeByDate(randomDay());
+    }
+
+    @Benchmark
+    public List<?> summarizeByDateRollup() {
+        return rollupService.summarizeByDate(randomDay());
+    }
+
+    @Benchmark
+    public List<?> findByOrderDate() {
+        return orderRepository.findByOrderDate(randomDay());
+    }
+
+    @Benchmark
+    public String renderFinalOrders() throws Exception {
+        return mockMvc.perform(get("/orders/final").param("date", randomDay().toString()))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private LocalDate randomDay() {
+        return BenchmarkDataGenerator.FIRST_DAY.plusDays(random.nextInt(dataset.getDays()));
+    }
+}
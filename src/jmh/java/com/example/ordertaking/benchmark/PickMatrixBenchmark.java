@@ -0,0 +1,117 @@
+package com.example.ordertaking.benchmark;
+
+import com.example.ordertaking.OrderTakingApplication;
+import com.example.ordertaking.service.PickMatrix;
+import com.example.ordertaking.service.PickMatrixService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Pick matrix of one delivery date with {@code customers} × {@code vegetables} columns, a quarter of
+ * the cells filled. Measures the single-pass build on its own and the HTML and CSV responses end to end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class PickMatrixBenchmark {
+
+    private static final LocalDate DAY = BenchmarkDataGenerator.FIRST_DAY;
+
+    @Param("5000")
+    public int customers;
+
+    @Param("200")
+    public int vegetables;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private PickMatrixService pickMatrixService;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        try {
+            seed();
+        } catch (Exception | Error e) {
+            stop();
+            throw e;
+        }
+    }
+
+    private void seed() throws Exception {
+        context = new SpringApplicationBuilder(OrderTakingApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:pickbench;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.thymeleaf.cache=true",
+                "--logging.level.root=WARN",
+                "--app.session.signing-key=bench-signing-key-0123456789abcdef");
+        var jdbc = context.getBean(JdbcTemplate.class);
+        long customerBase = jdbc.queryForObject("select coalesce(max(id), 0) from customers", Long.class);
+        long vegetableBase = jdbc.queryForObject("select coalesce(max(id), 0) from vegetables", Long.class);
+        long orderBase = jdbc.queryForObject("select coalesce(max(id), 0) from orders", Long.class);
+        jdbc.update("insert into customers (id, first_name, last_name, email, address, created_at) " +
+                "select ? + x, 'Pick', 'Customer' || x, 'pick' || x || '@example.com', 'Street ' || mod(x, 1000), current_timestamp " +
+                "from system_range(1, ?)", customerBase, customers);
+        jdbc.update("insert into vegetables (id, name) select ? + x, 'Pick vegetable ' || x from system_range(1, ?)",
+                vegetableBase, vegetables);
+        jdbc.update("insert into orders (id, customer_id, order_date) select ? + x, ? + x, ? from system_range(1, ?)",
+                orderBase, customerBase, DAY, customers);
+        jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) " +
+                "select (? + c.x) * 1000 + v.x, ? + c.x, ? + v.x, mod(c.x * v.x, 9) + 1 " +
+                "from system_range(1, ?) c cross join system_range(1, ?) v where mod(c.x + v.x, 4) = 0",
+                orderBase, orderBase, vegetableBase, customers, vegetables);
+        pickMatrixService = context.getBean(PickMatrixService.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .defaultRequest(get("/").with(user("bench").roles("ADMIN")))
+                .build();
+
+        // Fail fast rather than measure an empty grid
+        if (build().getRowCount() < customers) {
+            throw new IllegalStateException("Pick matrix data not seeded");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public PickMatrix build() {
+        return pickMatrixService.build(DAY);
+    }
+
+    @Benchmark
+    public int renderHtml() throws Exception {
+        return mockMvc.perform(get("/orders/pick-matrix").param("date", DAY.toString()))
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+
+    @Benchmark
+    public int renderCsv() throws Exception {
+        return mockMvc.perform(get("/orders/pick-matrix/csv").param("date", DAY.toString()))
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.ordertaking.config;
+
+import com.example.ordertaking.dto.BulkheadStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for one class of requests: at most {@code maxConcurrent} run at a time, up to
+ * {@code maxQueue} more wait (first come, first served) for at most {@code maxWait}, and everything
+ * beyond that is turned away at once, so an overloaded class sheds load instead of holding request
+ * threads and connections. A bulkhead given a {@code priority} bulkhead also admits nobody new while
+ * that one has requests waiting: reports and listings step aside for queued order writes.
+ * <p>
+ * Limits can be changed while running ({@link BulkheadEndpoint}); exported as {@code bulkhead.*} metrics.
+ */
+public class Bulkhead implements MeterBinder {
+
+    private final String name;
+    private final Bulkhead priority;
+    private final Duration retryAfter;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final LongAdder queueFull = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder yielded = new LongAdder();
+
+    // Written under the lock; volatile for the metrics, status and other bulkheads' priority check
+    private volatile int maxConcurrent;
+    private volatile int maxQueue;
+    private volatile Duration maxWait;
+    private volatile int active;
+    private volatile int waiting;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, Duration maxWait, Duration retryAfter, Bulkhead priority) {
+        this.name = name;
+        this.retryAfter = retryAfter;
+        this.priority = priority;
+        configure(maxConcurrent, maxQueue, maxWait);
+    }
+
+    /**
+     * Takes a slot, waiting in the queue if all are busy. False if the request was turned away: queue
+     * full, waited {@code maxWait}, or yielding to the priority bulkhead. {@link #release()} after a true.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (priority != null && priority.waiting > 0) {
+            yielded.increment();
+            return false;
+        }
+        lock.lock();
+        try {
+            // Nobody overtakes requests already waiting
+            if (active < maxConcurrent && waiting == 0) {
+                active++;
+                return true;
+            }
+            if (waiting >= maxQueue) {
+                queueFull.increment();
+                return false;
+            }
+            waiting++;
+            try {
+                long nanos = maxWait.toNanos();
+                while (active >= maxConcurrent) {
+                    if (nanos <= 0) {
+                        timedOut.increment();
+                        return false;
+                    }
+                    nanos = released.awaitNanos(nanos);
+                }
+                active++;
+                return true;
+            } finally {
+                waiting--;
+                // A slot this waiter gave up on (timeout, interrupt) goes to the next one
+                if (active < maxConcurrent && waiting > 0) released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            active--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** New limits apply to the next admission; running requests are not interrupted when lowered. */
+    public void configure(int maxConcurrent, int maxQueue, Duration maxWait) {
+        if (maxConcurrent < 1 || maxQueue < 0 || maxWait.isNegative()) {
+            throw new IllegalArgumentException("Bulkhead " + name + " needs maxConcurrent >= 1, maxQueue >= 0 and maxWait >= 0");
+        }
+        lock.lock();
+        try {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.maxWait = maxWait;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** What a turned-away client is told to wait before trying again. */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public BulkheadStatus status() {
+        return new BulkheadStatus(maxConcurrent, maxQueue, maxWait, active, waiting,
+                queueFull.sum(), timedOut.sum(), yielded.sum());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bulkhead.active", this, b -> b.active).tag("bulkhead", name)
+                .description("Requests running").register(registry);
+        Gauge.builder("bulkhead.queued", this, b -> b.waiting).tag("bulkhead", name)
+                .description("Requests waiting for a slot").register(registry);
+        Gauge.builder("bulkhead.max.concurrent", this, b -> b.maxConcurrent).tag("bulkhead", name).register(registry);
+        Gauge.builder("bulkhead.max.queue", this, b -> b.maxQueue).tag("bulkhead", name).register(registry);
+        Gauge.builder("bulkhead.max.wait", this, b -> b.maxWait.toMillis()).tag("bulkhead", name)
+                .baseUnit("milliseconds").register(registry);
+        rejected(registry, "queue-full", queueFull);
+        rejected(registry, "timeout", timedOut);
+        rejected(registry, "yield", yielded);
+    }
+
+    private void rejected(MeterRegistry registry, String reason, LongAdder count) {
+        FunctionCounter.builder("bulkhead.rejected", count, LongAdder::sum)
+                .tags("bulkhead", name, "reason", reason)
+                .description("Requests answered 503 without being run")
+                .register(registry);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ordertaking.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Separate {@link Bulkhead}s for order writes, reports and listings ({@code app.bulkhead.*}), so a few
+ * large final-order reports during the cutoff rush cannot take every request thread and pooled
+ * connection while orders are being placed. Writes get the most slots and the longest queue, and the
+ * other two admit nobody new while writes are queuing. Defaults assume the Hikari default pool of 10;
+ * keep reports + listings below the pool size. Off with {@code app.bulkhead.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.bulkhead", name = "enabled", matchIfMissing = true)
+public class BulkheadConfig {
+
+    @Bean
+    public Bulkhead writesBulkhead(@Value("${app.bulkhead.writes.max-concurrent:8}") int maxConcurrent,
+                                   @Value("${app.bulkhead.writes.max-queue:100}") int maxQueue,
+                                   @Value("${app.bulkhead.writes.max-wait:5s}") Duration maxWait,
+                                   @Value("${app.bulkhead.writes.retry-after:1s}") Duration retryAfter) {
+        return new Bulkhead("writes", maxConcurrent, maxQueue, maxWait, retryAfter, null);
+    }
+
+    @Bean
+    public Bulkhead reportsBulkhead(@Qualifier("writesBulkhead") Bulkhead writes,
+                                    @Value("${app.bulkhead.reports.max-concurrent:3}") int maxConcurrent,
+                                    @Value("${app.bulkhead.reports.max-queue:6}") int maxQueue,
+                                    @Value("${app.bulkhead.reports.max-wait:2s}") Duration maxWait,
+                                    @Value("${app.bulkhead.reports.retry-after:5s}") Duration retryAfter) {
+        return new Bulkhead("reports", maxConcurrent, maxQueue, maxWait, retryAfter, writes);
+    }
+
+    @Bean
+    public Bulkhead listingsBulkhead(@Qualifier("writesBulkhead") Bulkhead writes,
+                                     @Value("${app.bulkhead.listings.max-concurrent:5}") int maxConcurrent,
+                                     @Value("${app.bulkhead.listings.max-queue:20}") int maxQueue,
+                                     @Value("${app.bulkhead.listings.max-wait:1s}") Duration maxWait,
+                                     @Value("${app.bulkhead.listings.retry-after:2s}") Duration retryAfter) {
+        return new Bulkhead("listings", maxConcurrent, maxQueue, maxWait, retryAfter, writes);
+    }
+
+    @Bean
+    public BulkheadFilter bulkheadFilter(@Qualifier("writesBulkhead") Bulkhead writes,
+                                         @Qualifier("reportsBulkhead") Bulkhead reports,
+                                         @Qualifier("listingsBulkhead") Bulkhead listings) {
+        Map<RequestMatcher, Bulkhead> routes = new LinkedHashMap<>();
+        // Placing and deleting orders, from the form and POST /api/orders; not the bulk ingest
+        routes.put(any("POST", "/orders", "/orders/*/delete", "/api/orders"), writes);
+        routes.put(any("GET", "/orders/final", "/orders/export", "/orders/pick-matrix/**", "/analytics/**"), reports);
+        routes.put(any("GET", "/customers/**", "/vegetables/**", "/api/customers/*/orders"), listings);
+        return new BulkheadFilter(routes);
+    }
+
+    @Bean
+    public BulkheadEndpoint bulkheadEndpoint(List<Bulkhead> bulkheads) {
+        return new BulkheadEndpoint(bulkheads);
+    }
+
+    private static RequestMatcher any(String method, String... patterns) {
+        return new OrRequestMatcher(List.of(patterns).stream()
+                .map(pattern -> (RequestMatcher) new AntPathRequestMatcher(pattern, method))
+                .toList());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ordertaking.config;
+
+import com.example.ordertaking.dto.BulkheadStatus;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/bulkheads}: limits, load and rejections per {@link Bulkhead}. Limits are changed at
+ * runtime, per instance and until the next restart, by posting JSON to {@code /actuator/bulkheads/{name}},
+ * e.g. {@code {"maxConcurrent": 2, "maxWait": "500ms"}}; fields left out keep their value.
+ */
+@Endpoint(id = "bulkheads")
+public class BulkheadEndpoint {
+
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+    public BulkheadEndpoint(List<Bulkhead> bulkheads) {
+        bulkheads.forEach(b -> this.bulkheads.put(b.getName(), b));
+    }
+
+    @ReadOperation
+    public Map<String, BulkheadStatus> bulkheads() {
+        Map<String, BulkheadStatus> status = new TreeMap<>();
+        bulkheads.forEach((name, bulkhead) -> status.put(name, bulkhead.status()));
+        return status;
+    }
+
+    @ReadOperation
+    public BulkheadStatus bulkhead(@Selector String name) {
+        var bulkhead = bulkheads.get(name);
+        return bulkhead == null ? null : bulkhead.status();
+    }
+
+    @WriteOperation
+    public BulkheadStatus configure(@Selector String name, @Nullable Integer maxConcurrent,
+                                    @Nullable Integer maxQueue, @Nullable Duration maxWait) {
+        var bulkhead = bulkheads.get(name);
+        if (bulkhead == null) return null;
+        var current = bulkhead.status();
+        try {
+            bulkhead.configure(maxConcurrent != null ? maxConcurrent : current.getMaxConcurrent(),
+                    maxQueue != null ? maxQueue : current.getMaxQueue(),
+                    maxWait != null ? maxWait : current.getMaxWait());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return bulkhead.status();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.ordertaking.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs each classified request inside its {@link Bulkhead}; the first matching route decides. A
+ * request turned away gets a short {@code 503} with {@code Retry-After} straight from here: no handler,
+ * no view, no database. Unclassified requests (login, order form, static files, the live stream,
+ * actuator) pass through. Registered after Spring Security, so unauthenticated requests never take a slot.
+ */
+class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Map<RequestMatcher, Bulkhead> routes;
+
+    BulkheadFilter(Map<RequestMatcher, Bulkhead> routes) {
+        this.routes = new LinkedHashMap<>(routes);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var bulkhead = route(request);
+        if (bulkhead == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(response, bulkhead);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private Bulkhead route(HttpServletRequest request) {
+        for (var route : routes.entrySet()) {
+            if (route.getKey().matches(request)) return route.getValue();
+        }
+        return null;
+    }
+
+    private static void reject(HttpServletResponse response, Bulkhead bulkhead) throws IOException {
+        long seconds = Math.max(1, bulkhead.getRetryAfter().toSeconds());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Too busy for " + bulkhead.getName() + " right now, please retry in " + seconds + " s\n");
+    }
+}
@@ -1,46 +1,58 @@
 package com.example.ordertaking.config;
 
-import com.example.ordertaking.entity.Customer;
-import com.example.ordertaking.entity.Vegetable;
-import com.example.ordertaking.repository.CustomerRepository;
-import com.example.ordertaking.repository.VegetableRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Demo customers and vegetables for an empty database, with {@code app.seed-demo-data} (on by default,
+ * off in the {@code prod} profile). Each table is probed for a single row and filled with one JDBC batch.
+ */
 @Configuration
 public class DataLoader implements CommandLineRunner {
 
-    private final CustomerRepository customerRepository;
-    private final VegetableRepository vegetableRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
 
-    public DataLoader(CustomerRepository customerRepository, VegetableRepository vegetableRepository) {
-        this.customerRepository = customerRepository;
-        this.vegetableRepository = vegetableRepository;
+    public DataLoader(JdbcTemplate jdbcTemplate,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${app.seed-demo-data:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
     }
 
     @Override
-    public void run(String... args) throws Exception {
-        if (customerRepository.count() == 0) {
-            Customer c1 = new Customer();
-            c1.setFirstName("John");
-            c1.setLastName("Doe");
-            c1.setEmail("john.doe@example.com");
-            c1.setAddress("123 Main St, City");
-            customerRepository.save(c1);
-
-            Customer c2 = new Customer();
-            c2.setFirstName("Jane");
-            c2.setLastName("Smith");
-            c2.setEmail("jane.smith@example.com");
-            c2.setAddress("456 Market Rd, Town");
-            customerRepository.save(c2);
-        }
+    public void run(String... args) {
+        if (!enabled) return;
+        // Check-then-insert must see the primary, not a replica that may be behind or empty
+        ReadRouting.onPrimary(() -> tx.executeWithoutResult(status -> seed()));
+    }
 
-        if (vegetableRepository.count() == 0) {
-            vegetableRepository.save(new Vegetable("Tomato"));
-            vegetableRepository.save(new Vegetable("Potato"));
-            vegetableRepository.save(new Vegetable("Onion"));
-            vegetableRepository.save(new Vegetable("Cucumber"));
+    private void seed() {
+        if (isEmpty("customers")) {
+            var created = Timestamp.from(Instant.now());
+            jdbcTemplate.batchUpdate(
+                    "insert into customers (first_name, last_name, email, address, created_at) values (?, ?, ?, ?, ?)",
+                    List.of(new Object[]{"John", "Doe", "john.doe@example.com", "123 Main St, City", created},
+                            new Object[]{"Jane", "Smith", "jane.smith@example.com", "456 Market Rd, Town", created}));
         }
+        if (isEmpty("vegetables")) {
+            jdbcTemplate.batchUpdate("insert into vegetables (name) values (?)",
+                    List.of(new Object[]{"Tomato"}, new Object[]{"Potato"}, new Object[]{"Onion"}, new Object[]{"Cucumber"}));
+        }
+    }
+
+    /** One index probe rather than {@code count(*)}, which reads the whole table on InnoDB. */
+    private boolean isEmpty(String table) {
+        return jdbcTemplate.queryForList("select 1 from " + table + " limit 1", Integer.class).isEmpty();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.example.ordertaking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Hot-path instrumentation, scraped from {@code /actuator/prometheus}:
+ * <ul>
+ *   <li>{@code http.server.requests} is tagged with the {@code handler} (e.g. {@code OrderController.finalOrders}),</li>
+ *   <li>{@code view.render} times template rendering per view, separately from the handler,</li>
+ *   <li>{@code repository.statements} counts JDBC statements per repository method, next to Spring Data's
+ *       {@code spring.data.repository.invocations} timer,</li>
+ *   <li>Hibernate session statistics are bound by Boot as {@code hibernate.*}.</li>
+ * </ul>
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry registry;
+
+    public MetricsConfig(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Bean
+    public static StatementMetricsPostProcessor statementMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new StatementMetricsPostProcessor(registry);
+    }
+
+    @Bean
+    public WebMvcTagsContributor handlerTagContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Throwable exception) {
+                return Tags.of("handler", handlerName(handler));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.of("handler", handlerName(handler));
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new ViewRenderTimingInterceptor(registry));
+    }
+
+    static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            var method = (HandlerMethod) handler;
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.ordertaking.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override of read/write routing. With a replica configured (see
+ * {@link ReadWriteRoutingConfig}), read-only transactions go to the replica unless the current thread
+ * is pinned to the primary, e.g. because its user has just written and must read that write back.
+ * Without a replica everything runs on the one datasource and this has no effect.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> primaryForced = ThreadLocal.withInitial(() -> false);
+
+    private ReadRouting() {}
+
+    /** Runs {@code work} with every transaction it starts on the primary. */
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean previous = forcePrimary(true);
+        try {
+            return work.get();
+        } finally {
+            forcePrimary(previous);
+        }
+    }
+
+    public static void onPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static boolean isPrimaryForced() {
+        return primaryForced.get();
+    }
+
+    /** Sets the override and returns the previous value, to be restored by the caller. */
+    static boolean forcePrimary(boolean force) {
+        boolean previous = primaryForced.get();
+        if (force) {
+            primaryForced.set(true);
+        } else {
+            primaryForced.remove();
+        }
+        return previous;
+    }
+}
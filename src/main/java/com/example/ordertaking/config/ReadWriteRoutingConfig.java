@@ -0,0 +1,81 @@
+package com.example.ordertaking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Read/write splitting, active once {@code app.datasource.replica.url} is set. The primary pool is
+ * configured by {@code spring.datasource.*} as before, the replica pool by {@code app.datasource.replica.*}
+ * (same keys, including {@code hikari.*}). The application, Flyway included, sees one routing
+ * datasource: read-only transactions (repository finders, {@code @Transactional(readOnly = true)}
+ * services) go to the replica, everything else to the primary.
+ * <p>
+ * After a write request the browser is pinned to the primary for {@code read-your-writes}, see
+ * {@link ReadYourWritesFilter}. The replica is expected to be a replicated copy of the primary;
+ * its schema is not migrated here.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(@Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        var pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        var pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("replica");
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${app.datasource.replica.retry-after:30s}") Duration retryAfter) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, retryAfter));
+    }
+
+    @Bean
+    public MeterBinder readRoutingMetrics(DataSource dataSource) throws SQLException {
+        return dataSource.unwrap(ReadWriteRoutingDataSource.class)::bindTo;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${app.datasource.replica.read-your-writes:5s}") Duration window) {
+        return new ReadYourWritesFilter(window);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.ordertaking.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything
+ * else. Must sit behind a {@code LazyConnectionDataSourceProxy}: the transaction's read-only flag is
+ * only visible once the first statement runs, not when the transaction manager begins.
+ * <p>
+ * If the replica cannot hand out a connection, the read falls back to the primary and the replica is
+ * skipped for {@code retryAfter}.
+ * <p>
+ * The read counters are registered once, on a composite that the application's registry joins through
+ * {@link #bindTo}; the registry cannot be injected, since it depends on the datasource (pool metrics).
+ */
+class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryAfterNanos;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+    private final Counter fallbackReads;
+    private final CompositeMeterRegistry meters = new CompositeMeterRegistry();
+    private volatile long replicaDownUntil;
+    private volatile boolean replicaDown;
+
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration retryAfter) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.primaryReads = readCounter("primary");
+        this.replicaReads = readCounter("replica");
+        this.fallbackReads = readCounter("fallback");
+    }
+
+    void bindTo(MeterRegistry registry) {
+        meters.add(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(username, password);
+    }
+
+    private Connection connect(String username, String password) throws SQLException {
+        if (!readOnly()) {
+            return open(primary, username, password);
+        }
+        if (ReadRouting.isPrimaryForced() || (replicaDown && System.nanoTime() - replicaDownUntil < 0)) {
+            primaryReads.increment();
+            return open(primary, username, password);
+        }
+        try {
+            var connection = open(replica, username, password);
+            if (replicaDown) {
+                replicaDown = false;
+                log.info("Read replica is back; routing read-only transactions to it again");
+            }
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException e) {
+            if (!replicaDown) {
+                log.warn("Read replica unavailable, reading from the primary for {} s: {}",
+                        retryAfterNanos / 1_000_000_000, e.getMessage());
+            }
+            replicaDownUntil = System.nanoTime() + retryAfterNanos;
+            replicaDown = true;
+            fallbackReads.increment();
+            return open(primary, username, password);
+        }
+    }
+
+    private static boolean readOnly() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static Connection open(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+    private Counter readCounter(String target) {
+        return Counter.builder("datasource.routing.reads")
+                .description("Read-only transactions by the datasource that served them")
+                .tag("target", target)
+                .register(meters);
+    }
+}
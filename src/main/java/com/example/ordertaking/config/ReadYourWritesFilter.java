@@ -0,0 +1,54 @@
+package com.example.ordertaking.config;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Keeps a client's reads on the primary for a while after it wrote, so the page it is redirected to
+ * (e.g. the confirmation of the order it just placed) never comes from a replica that is still
+ * behind. A write request sets a short-lived cookie; requests carrying it, and the write request
+ * itself, run with {@link ReadRouting} pinned to the primary.
+ */
+class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "read-primary";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final int windowSeconds;
+
+    ReadYourWritesFilter(Duration window) {
+        this.windowSeconds = (int) Math.max(1, window.toSeconds());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            var cookie = new Cookie(COOKIE, "1");
+            cookie.setMaxAge(windowSeconds);
+            cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        if (!write && WebUtils.getCookie(request, COOKIE) == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean previous = ReadRouting.forcePrimary(true);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.forcePrimary(previous);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ordertaking.config;
+
+import com.example.ordertaking.repository.OrderRepository;
+import com.example.ordertaking.service.DailyRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup maintenance at startup:
+ * <ul>
+ *   <li>{@code --rollup.rebuild} recomputes the whole rollup from order_items,</li>
+ *   <li>{@code --rollup.rebuild=2025-01-01:2025-01-31} recomputes an inclusive range,</li>
+ *   <li>{@code --rollup.verify[=2025-01-01]} logs differences against the live aggregate (default today).</li>
+ * </ul>
+ * An empty rollup next to existing orders (e.g. after upgrading a database) is backfilled automatically.
+ */
+@Configuration
+public class RollupMaintenanceRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupMaintenanceRunner.class);
+
+    private final DailyRollupService rollupService;
+    private final OrderRepository orderRepository;
+
+    public RollupMaintenanceRunner(DailyRollupService rollupService, OrderRepository orderRepository) {
+        this.rollupService = rollupService;
+        this.orderRepository = orderRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("rollup.rebuild")) {
+            var values = args.getOptionValues("rollup.rebuild");
+            if (values.isEmpty() || values.get(0).isBlank()) {
+                log.info("Rebuilt daily rollup: {} rows", rollupService.rebuildAll());
+            } else {
+                var range = values.get(0).split(":");
+                var from = LocalDate.parse(range[0]);
+                var to = range.length > 1 ? LocalDate.parse(range[1]) : from;
+                log.info("Rebuilt daily rollup {}..{}: {} rows", from, to, rollupService.rebuild(from, to));
+            }
+        } else if (ReadRouting.onPrimary(() -> rollupService.isEmpty() && orderRepository.count() > 0)) {
+            log.info("Backfilled empty daily rollup: {} rows", rollupService.rebuildAll());
+        }
+
+        if (args.containsOption("rollup.verify")) {
+            var values = args.getOptionValues("rollup.verify");
+            var date = values.isEmpty() || values.get(0).isBlank() ? LocalDate.now() : LocalDate.parse(values.get(0));
+            var discrepancies = rollupService.verify(date);
+            if (discrepancies.isEmpty()) {
+                log.info("Daily rollup for {} matches order_items", date);
+            } else {
+                discrepancies.forEach(d -> log.warn("Daily rollup mismatch: {}", d));
+            }
+        }
+    }
+}
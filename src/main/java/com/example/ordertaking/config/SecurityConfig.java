@@ -1,32 +1,67 @@
 package com.example.ordertaking.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Form login for the UI, HTTP Basic for {@code /api/**}. With {@code app.session.mode=stateless} (the
+ * default) the login and the CSRF token live in cookies, see {@link SignedCookieSecurityContextRepository},
+ * so replicas need no sticky sessions; {@code container} keeps both in the HTTP session. Stateless mode
+ * refuses to start without a signing key of at least 32 bytes, except under the dev profile.
+ */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
+    private static final int MIN_SIGNING_KEY_BYTES = 32;
+
+    private final Environment environment;
+
     @Value("${app.admin.username}")
     private String adminUsername;
 
     @Value("${app.admin.password}")
     private String adminPassword;
 
+    @Value("${app.session.mode:stateless}")
+    private String sessionMode;
+
+    @Value("${app.session.signing-key:}")
+    private String signingKey;
+
+    @Value("${server.servlet.session.timeout:30m}")
+    private Duration sessionTimeout;
+
+    public SecurityConfig(Environment environment) {
+        this.environment = environment;
+    }
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http
             .authorizeRequests()
                 .antMatchers("/", "/index.html", "/css/**", "/js/**", "/images/**", "/webjars/**", "/login").permitAll()
+                // Probes and the Prometheus scraper do not log in
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
                 .anyRequest().authenticated()
                 .and()
             .formLogin()
@@ -37,9 +72,44 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             .logout()
                 .logoutUrl("/logout")
                 .logoutSuccessUrl("/login?logout")
+                .deleteCookies(SignedCookieSecurityContextRepository.COOKIE)
                 .permitAll()
                 .and()
-            .csrf();
+            // Machine clients of /api/** and operators tuning the bulkheads authenticate per request
+            // and carry no CSRF token
+            .httpBasic()
+                .and()
+            .csrf()
+                .ignoringAntMatchers("/api/**")
+                .ignoringRequestMatchers(EndpointRequest.to("bulkheads"));
+
+        if ("stateless".equals(sessionMode)) {
+            http
+                .sessionManagement()
+                    .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                    .and()
+                .securityContext()
+                    .securityContextRepository(signedCookieRepository(signingKey, sessionTimeout,
+                            environment.acceptsProfiles(Profiles.of("dev"))))
+                    .and()
+                .csrf()
+                    .csrfTokenRepository(new CookieCsrfTokenRepository());
+        } else if (!"container".equals(sessionMode)) {
+            throw new IllegalStateException("app.session.mode must be stateless or container, was " + sessionMode);
+        }
+    }
+
+    /**
+     * The login cookie repository. Outside the dev profile a missing or short key fails startup: without
+     * one every replica would sign with a random key of its own, and logins would only work on the
+     * replica that issued them.
+     */
+    static SignedCookieSecurityContextRepository signedCookieRepository(String signingKey, Duration timeout, boolean dev) {
+        if (!dev && signingKey.getBytes(StandardCharsets.UTF_8).length < MIN_SIGNING_KEY_BYTES) {
+            throw new IllegalStateException("app.session.mode=stateless needs an app.session.signing-key of at least "
+                    + MIN_SIGNING_KEY_BYTES + " bytes, the same on every replica (e.g. openssl rand -base64 32)");
+        }
+        return new SignedCookieSecurityContextRepository(signingKey, timeout);
     }
 
     @Bean
@@ -52,7 +122,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.credential-cache.ttl:2m}") Duration ttl,
+                                           @Value("${app.security.credential-cache.max-entries:10000}") int maxEntries) {
+        return new VerifiedCredentialCache(new BCryptPasswordEncoder(), ttl, maxEntries);
     }
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.example.ordertaking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SaveContextOnUpdateOrErrorResponseWrapper;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.util.WebUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the login in a signed cookie instead of the HTTP session, so any replica can serve any request
+ * and a restart logs nobody out. The token holds user name, authorities and expiry, signed with
+ * HMAC-SHA256; every replica needs the same signing key. It is re-issued (sliding expiry) once less
+ * than half of {@code timeout} remains, and cleared when the request ends unauthenticated (logout).
+ * <p>
+ * Tokens cannot be revoked before they expire; a password change takes effect at the next login.
+ * HTTP Basic clients authenticate per request and are never issued a cookie.
+ */
+public class SignedCookieSecurityContextRepository implements SecurityContextRepository {
+
+    public static final String COOKIE = "auth";
+
+    private static final Logger log = LoggerFactory.getLogger(SignedCookieSecurityContextRepository.class);
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long timeoutSeconds;
+
+    public SignedCookieSecurityContextRepository(String signingKey, Duration timeout) {
+        byte[] secret;
+        if (signingKey == null || signingKey.isBlank()) {
+            log.warn("No app.session.signing-key set; using a random key, so logins will not survive a restart or work across replicas");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = signingKey.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+        this.timeoutSeconds = timeout.toSeconds();
+    }
+
+    @Override
+    public SecurityContext loadContext(HttpRequestResponseHolder holder) {
+        var request = holder.getRequest();
+        var token = read(request);
+        var context = SecurityContextHolder.createEmptyContext();
+        if (token != null) {
+            context.setAuthentication(token.authentication);
+        }
+        holder.setResponse(new SaveOnCommit(holder.getResponse(), request, token));
+        return context;
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        var wrapper = WebUtils.getNativeResponse(response, SaveOnCommit.class);
+        if (wrapper != null && !wrapper.isContextSaved()) {
+            wrapper.saveContext(context);
+        }
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return read(request) != null;
+    }
+
+    /** Signed token for {@code authentication}, valid for the configured timeout from {@code nowSeconds}. */
+    String issue(Authentication authentication, long nowSeconds) {
+        var authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        var payload = ENCODER.encodeToString(authentication.getName().getBytes(StandardCharsets.UTF_8))
+                + "." + (nowSeconds + timeoutSeconds) + "." + authorities;
+        return ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    private Token read(HttpServletRequest request) {
+        var cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) return null;
+        try {
+            var parts = cookie.getValue().split("\\.");
+            if (parts.length != 2) return null;
+            var payload = new String(DECODER.decode(parts[0]), StandardCharsets.UTF_8);
+            if (!MessageDigest.isEqual(sign(payload), DECODER.decode(parts[1]))) return null;
+            var fields = payload.split("\\.", 3);
+            long expiresAt = Long.parseLong(fields[1]);
+            if (expiresAt <= System.currentTimeMillis() / 1000) return null;
+            var name = new String(DECODER.decode(fields[0]), StandardCharsets.UTF_8);
+            var authentication = UsernamePasswordAuthenticationToken.authenticated(
+                    name, null, AuthorityUtils.commaSeparatedStringToAuthorityList(fields[2]));
+            return new Token(authentication, expiresAt);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            var mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Token {
+        final Authentication authentication;
+        final long expiresAt;
+
+        Token(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /** Writes the cookie before the response commits (e.g. the redirect after login). */
+    private final class SaveOnCommit extends SaveContextOnUpdateOrErrorResponseWrapper {
+        private final HttpServletRequest request;
+        private final Token loaded;
+
+        SaveOnCommit(HttpServletResponse response, HttpServletRequest request, Token loaded) {
+            super(response, true);
+            this.request = request;
+            this.loaded = loaded;
+        }
+
+        @Override
+        protected void saveContext(SecurityContext context) {
+            var authentication = context.getAuthentication();
+            if (authentication == null || !authentication.isAuthenticated()
+                    || authentication instanceof AnonymousAuthenticationToken) {
+                if (loaded != null) {
+                    write("", 0);
+                }
+                return;
+            }
+            if (request.getHeader(HttpHeaders.AUTHORIZATION) != null) {
+                return;
+            }
+            long now = System.currentTimeMillis() / 1000;
+            if (loaded != null && loaded.authentication.getName().equals(authentication.getName())
+                    && loaded.expiresAt - now > timeoutSeconds / 2) {
+                return;
+            }
+            write(issue(authentication, now), timeoutSeconds);
+        }
+
+        private void write(String value, long maxAgeSeconds) {
+            var cookie = ResponseCookie.from(COOKIE, value)
+                    .path(request.getContextPath().isEmpty() ? "/" : request.getContextPath())
+                    .maxAge(maxAgeSeconds)
+                    .httpOnly(true)
+                    .secure(request.isSecure())
+                    .sameSite("Lax")
+                    .build();
+            ((HttpServletResponse) getResponse()).addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+    }
+}
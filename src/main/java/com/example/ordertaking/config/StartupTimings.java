@@ -0,0 +1,104 @@
+package com.example.ordertaking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ConfigurableBootstrapContext;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringApplicationRunListener;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.metrics.StartupStep;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * With {@code app.startup.report=true}, logs where startup time went once the application is ready:
+ * JVM launch up to {@code main}, environment, context refresh (Flyway, Hibernate, the web server and
+ * the beans that took longest to create, not counting their dependencies) and the runners, which
+ * include the warm-up. The refresh is recorded by a {@link BufferingApplicationStartup}, which also
+ * backs {@code /actuator/startup}.
+ * <p>
+ * A run listener rather than a bean, so it sees the phases before the context exists; registered in
+ * {@code META-INF/spring.factories}.
+ */
+public class StartupTimings implements SpringApplicationRunListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimings.class);
+    private static final int SLOWEST_BEANS = 8;
+
+    private final SpringApplication application;
+    private final long jvmMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+    private final long startingAt = System.nanoTime();
+    private long environmentAt;
+    private long contextLoadedAt;
+    private long startedAt;
+    private BufferingApplicationStartup startup;
+
+    public StartupTimings(SpringApplication application, String[] args) {
+        this.application = application;
+    }
+
+    @Override
+    public void environmentPrepared(ConfigurableBootstrapContext bootstrapContext, ConfigurableEnvironment environment) {
+        environmentAt = System.nanoTime();
+        if (environment.getProperty("app.startup.report", Boolean.class, false)) {
+            // Taken up by the context, which is created next
+            startup = new BufferingApplicationStartup(environment.getProperty("app.startup.buffer-size", Integer.class, 10_000));
+            application.setApplicationStartup(startup);
+        }
+    }
+
+    @Override
+    public void contextLoaded(ConfigurableApplicationContext context) {
+        contextLoadedAt = System.nanoTime();
+    }
+
+    @Override
+    public void started(ConfigurableApplicationContext context, Duration timeTaken) {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void ready(ConfigurableApplicationContext context, Duration timeTaken) {
+        if (startup == null) return;
+        long readyAt = System.nanoTime();
+        log.info("Startup took {} ms: JVM to main {} ms, environment {} ms, context setup {} ms, refresh {} ms, runners and warm-up {} ms",
+                jvmMillis + millis(startingAt, readyAt), jvmMillis, millis(startingAt, environmentAt),
+                millis(environmentAt, contextLoadedAt), millis(contextLoadedAt, startedAt), millis(startedAt, readyAt));
+        log.info("Slowest beans (own time): {}", slowestBeans(startup.getBufferedTimeline()));
+    }
+
+    /** Bean creation steps by time spent in the step itself, without nested steps (its dependencies). */
+    private static String slowestBeans(StartupTimeline timeline) {
+        Map<Long, Long> nestedNanos = new HashMap<>();
+        for (var event : timeline.getEvents()) {
+            var parent = event.getStartupStep().getParentId();
+            if (parent != null) nestedNanos.merge(parent, event.getDuration().toNanos(), Long::sum);
+        }
+        return timeline.getEvents().stream()
+                .filter(e -> e.getStartupStep().getName().equals("spring.beans.instantiate"))
+                .map(e -> Map.entry(beanName(e.getStartupStep()),
+                        e.getDuration().toNanos() - nestedNanos.getOrDefault(e.getStartupStep().getId(), 0L)))
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(SLOWEST_BEANS)
+                .map(e -> e.getKey() + " " + e.getValue() / 1_000_000 + " ms")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String beanName(StartupStep step) {
+        for (var tag : step.getTags()) {
+            if (tag.getKey().equals("beanName")) return tag.getValue();
+        }
+        return step.getName();
+    }
+
+    private static long millis(long from, long to) {
+        return (to - from) / 1_000_000;
+    }
+}
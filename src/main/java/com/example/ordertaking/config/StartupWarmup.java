@@ -0,0 +1,156 @@
+package com.example.ordertaking.config;
+
+import com.example.ordertaking.repository.OrderItemRepository;
+import com.example.ordertaking.repository.OrderRepository;
+import com.example.ordertaking.service.DailyRollupService;
+import com.example.ordertaking.service.VegetableCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Warms the hot paths of a new instance before it reports ready ({@code app.startup.warmup.enabled},
+ * on in the {@code prod} profile). Runners finish before Spring Boot switches the readiness state to
+ * accepting traffic, so {@code /actuator/health/readiness} stays down until this returns.
+ * <p>
+ * First the report and order-entry queries and the vegetable catalog, then, logged in as the admin
+ * user over loopback HTTP, the pages users open most: the security filters, lazily created beans,
+ * template parsing and the JIT all get their first calls here instead of from the morning's first
+ * users. Each round renders the final orders report of an earlier date, so the page cache does not
+ * short-circuit it. Stops after {@code iterations} rounds or {@code max-duration}; a failure is logged
+ * and never holds up startup.
+ */
+@Configuration
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+    private final ApplicationContext context;
+    private final VegetableCatalog catalog;
+    private final DailyRollupService rollupService;
+    private final OrderRepository orderRepo;
+    private final OrderItemRepository orderItemRepo;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+    private final String contextPath;
+    private final String username;
+    private final String password;
+
+    public StartupWarmup(ApplicationContext context,
+                         VegetableCatalog catalog,
+                         DailyRollupService rollupService,
+                         OrderRepository orderRepo,
+                         OrderItemRepository orderItemRepo,
+                         @Value("${app.startup.warmup.enabled:false}") boolean enabled,
+                         @Value("${app.startup.warmup.iterations:10}") int iterations,
+                         @Value("${app.startup.warmup.max-duration:30s}") Duration maxDuration,
+                         @Value("${server.servlet.context-path:}") String contextPath,
+                         @Value("${app.admin.username}") String username,
+                         @Value("${app.admin.password}") String password) {
+        this.context = context;
+        this.catalog = catalog;
+        this.rollupService = rollupService;
+        this.orderRepo = orderRepo;
+        this.orderItemRepo = orderItemRepo;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        this.contextPath = contextPath;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        var today = LocalDate.now();
+        int rounds = 0;
+        try {
+            for (; rounds < iterations && System.nanoTime() < deadline; rounds++) {
+                catalog.findAll();
+                rollupService.summarizeByDate(today);
+                orderItemRepo.summarizeByDate(today);
+                orderRepo.findByOrderDate(today);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Startup warm-up queries failed", e);
+        }
+        long queriesDone = System.nanoTime();
+        int pages = 0;
+        try {
+            pages = warmPages(today, deadline);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Startup warm-up requests failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Startup warm-up: {} query rounds in {} ms, {} page requests in {} ms", rounds,
+                (queriesDone - start) / 1_000_000, pages, (System.nanoTime() - queriesDone) / 1_000_000);
+    }
+
+    private int warmPages(LocalDate today, long deadline) throws IOException, InterruptedException {
+        // No embedded server when deployed as a WAR; the container's first requests warm it instead
+        if (!(context instanceof WebServerApplicationContext web) || web.getWebServer() == null) return 0;
+        var base = "http://localhost:" + web.getWebServer().getPort() + contextPath;
+        var client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+
+        var loginPage = send(client, HttpRequest.newBuilder(URI.create(base + "/login")));
+        var csrf = CSRF.matcher(loginPage.body());
+        if (!csrf.find()) throw new IllegalStateException("No CSRF token on the login page");
+        var login = send(client, HttpRequest.newBuilder(URI.create(base + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=" + encode(username)
+                        + "&password=" + encode(password) + "&_csrf=" + encode(csrf.group(1)))));
+        if (login.headers().firstValue("Location").orElse("").contains("error")) {
+            throw new IllegalStateException("Warm-up login as " + username + " was rejected");
+        }
+
+        int requests = 2;
+        for (int round = 0; round < iterations && System.nanoTime() < deadline; round++) {
+            for (var path : List.of("/orders/new", "/orders/final?date=" + today.minusDays(round), "/customers",
+                    "/vegetables", "/css/styles.css")) {
+                var response = send(client, HttpRequest.newBuilder(URI.create(base + path)));
+                requests++;
+                if (response.statusCode() != 200 && round == 0) {
+                    log.warn("Startup warm-up: {} answered {}", path, response.statusCode());
+                }
+            }
+        }
+        return requests;
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.header("Accept", "text/html").timeout(Duration.ofSeconds(10)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
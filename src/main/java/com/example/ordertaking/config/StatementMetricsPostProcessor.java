@@ -0,0 +1,100 @@
+package com.example.ordertaking.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Counts JDBC statement executions per thread by wrapping the {@link DataSource}, and records how many
+ * ran inside each Spring Data repository call as the {@code repository.statements} summary (tags
+ * {@code repository}, {@code method}). A batch counts once. Lazy loads triggered after the repository
+ * method returned, e.g. while rendering, are not attributed to it.
+ */
+public class StatementMetricsPostProcessor implements BeanPostProcessor {
+
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public StatementMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, info) ->
+                            proxyFactory.addAdvice(countStatements(info.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // Wrappers of another DataSource bean (e.g. the read/write routing proxy) would count twice
+        if (bean instanceof DataSource && !(bean instanceof DelegatingDataSource)) {
+            return proxy(DataSource.class, bean);
+        }
+        return bean;
+    }
+
+    private MethodInterceptor countStatements(String repository) {
+        return invocation -> {
+            long[] count = STATEMENTS.get();
+            long before = count[0];
+            try {
+                return invocation.proceed();
+            } finally {
+                DistributionSummary.builder("repository.statements")
+                        .description("JDBC statements executed per repository method call")
+                        .tag("repository", repository)
+                        .tag("method", invocation.getMethod().getName())
+                        .register(registry.getObject())
+                        .record(count[0] - before);
+            }
+        };
+    }
+
+    private <T> T proxy(Class<T> type, Object target) {
+        InvocationHandler handler = (p, method, args) -> {
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                STATEMENTS.get()[0]++;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection && type == DataSource.class) {
+                return proxy(Connection.class, result);
+            }
+            if (result instanceof Statement && type == Connection.class) {
+                return proxy(statementType(result), result);
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S extends Statement> Class<S> statementType(Object statement) {
+        if (statement instanceof CallableStatement) return (Class<S>) CallableStatement.class;
+        if (statement instanceof PreparedStatement) return (Class<S>) PreparedStatement.class;
+        return (Class<S>) Statement.class;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.ordertaking.config;
+
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.CachingResourceResolver;
+import org.springframework.web.servlet.resource.ContentVersionStrategy;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Serves one directory of {@code static/} (CSS or JS) under content-hashed URLs, e.g.
+ * {@code /css/styles-5d41402abc4b2a76b9719d911017c592.css}, which templates get from {@code @{/css/styles.css}}
+ * through {@link org.springframework.web.servlet.resource.ResourceUrlEncodingFilter}. A hashed URL never
+ * changes content, so it is cached for a year without revalidation ({@code immutable}); the plain URL is
+ * still served but revalidated on every use. Hashes and resolved files are computed once and cached.
+ * <p>
+ * Clients that accept gzip get the {@code .gz} written at build time ({@code PrecompressAssets}), never
+ * compressed per request. Files of at least {@code sendfileThreshold} on disk are handed to Tomcat's
+ * sendfile, so the kernel copies them to the socket; smaller ones (and files inside a jar) are written
+ * from the stream, as a sendfile call costs more than it saves for a few kilobytes.
+ */
+public class StaticAssetHandler extends ResourceHttpRequestHandler {
+
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    static final String REVALIDATE = "no-cache";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ContentVersionStrategy contentVersion = new ContentVersionStrategy();
+
+    public StaticAssetHandler(String location, DataSize sendfileThreshold) {
+        setLocationValues(List.of(location));
+        setResourceResolvers(List.of(
+                new CachingResourceResolver(new ConcurrentMapCache("static-assets")),
+                new EncodedResourceResolver(),
+                new VersionResourceResolver().addVersionStrategy(contentVersion, "/**"),
+                new PathResourceResolver()));
+        setResourceHttpMessageConverter(new SendfileResourceConverter(sendfileThreshold.toBytes()));
+    }
+
+    @Override
+    public void handleRequest(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        var path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        // Resolved from the cache; a hash that no longer matches the file 404s and must not be cached
+        boolean fingerprinted = path != null && contentVersion.extractVersion(path) != null && getResource(request) != null;
+        response.setHeader(HttpHeaders.CACHE_CONTROL, fingerprinted ? IMMUTABLE : REVALIDATE);
+        super.handleRequest(request, response);
+    }
+
+    /** Leaves the body to Tomcat (sendfile) when the connector supports it and the file is big enough. */
+    static class SendfileResourceConverter extends ResourceHttpMessageConverter {
+
+        private final long threshold;
+
+        SendfileResourceConverter(long threshold) {
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void writeContent(Resource resource, HttpOutputMessage outputMessage) throws IOException {
+            var attributes = RequestContextHolder.getRequestAttributes();
+            if (outputMessage instanceof ServletServerHttpResponse && attributes instanceof ServletRequestAttributes
+                    && resource.isFile() && resource.contentLength() >= threshold) {
+                var request = ((ServletRequestAttributes) attributes).getRequest();
+                if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                    // Content-Length is already set; Tomcat sends the file once the response is committed
+                    request.setAttribute(SENDFILE_FILENAME, resource.getFile().getAbsolutePath());
+                    request.setAttribute(SENDFILE_START, 0L);
+                    request.setAttribute(SENDFILE_END, resource.contentLength());
+                    return;
+                }
+            }
+            super.writeContent(resource, outputMessage);
+        }
+    }
+}
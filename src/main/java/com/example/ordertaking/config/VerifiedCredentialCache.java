@@ -0,0 +1,100 @@
+package com.example.ordertaking.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link PasswordEncoder} that remembers successful password checks for a short time, so a burst of
+ * logins (shift change) or HTTP Basic API calls pays the BCrypt cost once per user and TTL instead of
+ * on every request. Only matches are remembered; a wrong password always goes to the delegate.
+ * <p>
+ * Entries are keyed by an HMAC (per-process random key) of the stored hash and the raw password, so
+ * no password is kept, and a password change (new stored hash) never hits an old entry.
+ */
+public class VerifiedCredentialCache implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final long ttlNanos;
+    private final SecretKeySpec key;
+    private final LinkedHashMap<String, Long> verified;
+
+    private long hits;
+    private long misses;
+
+    public VerifiedCredentialCache(PasswordEncoder delegate, Duration ttl, int maxEntries) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        var secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null || ttlNanos <= 0) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        var fingerprint = fingerprint(rawPassword, encodedPassword);
+        long now = System.nanoTime();
+        synchronized (this) {
+            var expiresAt = verified.get(fingerprint);
+            if (expiresAt != null && now - expiresAt < 0) {
+                hits++;
+                return true;
+            }
+            misses++;
+        }
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        if (matches) {
+            synchronized (this) {
+                verified.put(fingerprint, now + ttlNanos);
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    private String fingerprint(CharSequence rawPassword, String encodedPassword) {
+        try {
+            var mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(rawPassword.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.ordertaking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Times view rendering as {@code view.render}: {@code postHandle} runs after the handler returns and
+ * {@code afterCompletion} after the view has been rendered, so the gap is template time (including
+ * any lazy loads the template triggers). Redirects and {@code @ResponseBody} handlers are not timed.
+ */
+class ViewRenderTimingInterceptor implements HandlerInterceptor {
+
+    private static final String SAMPLE = ViewRenderTimingInterceptor.class.getName() + ".sample";
+    private static final String VIEW = ViewRenderTimingInterceptor.class.getName() + ".view";
+
+    private final MeterRegistry registry;
+
+    ViewRenderTimingInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView mav) {
+        if (mav == null || mav.getViewName() == null || mav.getViewName().startsWith("redirect:")) {
+            return;
+        }
+        request.setAttribute(VIEW, mav.getViewName());
+        request.setAttribute(SAMPLE, Timer.start(registry));
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        var sample = (Timer.Sample) request.getAttribute(SAMPLE);
+        if (sample == null) {
+            return;
+        }
+        sample.stop(Timer.builder("view.render")
+                .description("Template rendering time")
+                .tag("view", (String) request.getAttribute(VIEW))
+                .tag("exception", ex == null ? "none" : ex.getClass().getSimpleName())
+                .register(registry));
+    }
+}
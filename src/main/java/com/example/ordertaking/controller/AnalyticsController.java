@@ -0,0 +1,46 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.service.AnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@Controller
+@RequestMapping("/analytics")
+public class AnalyticsController {
+    static final int MAX_RANGE_DAYS = 3 * 366;
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping
+    public String report(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                         @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                         @RequestParam(value = "granularity", defaultValue = "WEEK") AnalyticsService.Granularity granularity,
+                         @RequestParam(value = "customers", defaultValue = "50") int customerLimit,
+                         Model model) {
+        if (to == null) to = LocalDate.now();
+        if (from == null) from = to.minusDays(27);
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range must be ascending and at most " + MAX_RANGE_DAYS + " days");
+        }
+        model.addAttribute("from", from);
+        model.addAttribute("to", to);
+        model.addAttribute("granularity", granularity);
+        model.addAttribute("granularities", AnalyticsService.Granularity.values());
+        model.addAttribute("report", analyticsService.report(from, to, granularity, Math.max(1, customerLimit)));
+        model.addAttribute("tab", "analytics");
+        return "analytics/report";
+    }
+}
@@ -1,29 +1,92 @@
 package com.example.ordertaking.controller;
 
+import com.example.ordertaking.dto.CustomerOption;
 import com.example.ordertaking.entity.Customer;
 import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.service.OrderPageCache;
 import javax.validation.Valid;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Controller
 @RequestMapping("/customers")
 public class CustomerController {
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    static final int MAX_SEARCH_RESULTS = 20;
+
     private final CustomerRepository customerRepo;
+    private final OrderPageCache pageCache;
 
-    public CustomerController(CustomerRepository customerRepo) {
+    public CustomerController(CustomerRepository customerRepo, OrderPageCache pageCache) {
         this.customerRepo = customerRepo;
+        this.pageCache = pageCache;
     }
 
+    /** Keyset-paginated by id: {@code after} pages forward from an id, {@code before} pages back. */
     @GetMapping
-    public String list(Model model) {
-        model.addAttribute("customers", customerRepo.findAll());
+    public String list(@RequestParam(value = "after", required = false) Long after,
+                       @RequestParam(value = "before", required = false) Long before,
+                       @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                       Model model) {
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        var limit = Pageable.ofSize(size + 1);
+        List<Customer> page;
+        boolean hasNext;
+        boolean hasPrevious;
+        if (before != null) {
+            page = new ArrayList<>(customerRepo.findByIdLessThanOrderByIdDesc(before, limit));
+            hasPrevious = page.size() > size;
+            hasNext = true;
+            if (hasPrevious) page.remove(size);
+            Collections.reverse(page);
+        } else {
+            page = new ArrayList<>(customerRepo.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, limit));
+            hasNext = page.size() > size;
+            hasPrevious = after != null && after > 0;
+            if (hasNext) page.remove(size);
+        }
+        model.addAttribute("customers", page);
+        model.addAttribute("size", size);
+        model.addAttribute("nextAfter", hasNext && !page.isEmpty() ? page.get(page.size() - 1).getId() : null);
+        model.addAttribute("prevBefore", hasPrevious && !page.isEmpty() ? page.get(0).getId() : null);
         model.addAttribute("tab", "customers");
         return "customers/list";
     }
 
+    /** Typeahead: customers whose first name, last name or email starts with {@code q}. */
+    @GetMapping(value = "/search", produces = "application/json")
+    @ResponseBody
+    public List<CustomerOption> search(@RequestParam("q") String q,
+                                       @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        var prefix = q.trim();
+        if (prefix.isEmpty()) return List.of();
+        limit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        var pattern = prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        var page = Pageable.ofSize(limit);
+
+        Map<Long, CustomerOption> merged = new LinkedHashMap<>();
+        customerRepo.searchByLastName(pattern, page).forEach(c -> merged.putIfAbsent(c.getId(), c));
+        customerRepo.searchByFirstName(pattern, page).forEach(c -> merged.putIfAbsent(c.getId(), c));
+        customerRepo.searchByEmail(pattern, page).forEach(c -> merged.putIfAbsent(c.getId(), c));
+        return merged.values().stream()
+                .sorted(Comparator.comparing(CustomerOption::getLastName, String.CASE_INSENSITIVE_ORDER)
+                        .thenComparing(CustomerOption::getFirstName, String.CASE_INSENSITIVE_ORDER)
+                        .thenComparing(CustomerOption::getId))
+                .limit(limit)
+                .toList();
+    }
+
     @GetMapping("/new")
     public String createForm(Model model) {
         model.addAttribute("customer", new Customer());
@@ -64,12 +127,14 @@ public class CustomerController {
         }
         customer.setId(id);
         customerRepo.save(customer);
+        pageCache.invalidateAll();
         return "redirect:/customers";
     }
 
     @PostMapping("/{id}/delete")
     public String delete(@PathVariable Long id) {
         customerRepo.deleteById(id);
+        pageCache.invalidateAll();
         return "redirect:/customers";
     }
 }
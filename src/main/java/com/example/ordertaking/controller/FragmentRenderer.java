@@ -0,0 +1,40 @@
+package com.example.ordertaking.controller;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.util.Map;
+
+/**
+ * Renders a template to a string outside the view pipeline, for page fragments that are cached and
+ * inlined with {@code th:utext}. Link URLs are not session-encoded, so the output can be shared between
+ * users; such templates must not contain forms, since CSRF tokens are per session.
+ */
+@Component
+class FragmentRenderer {
+
+    private final ITemplateEngine templateEngine;
+    private final ServletContext servletContext;
+
+    FragmentRenderer(ITemplateEngine templateEngine, ServletContext servletContext) {
+        this.templateEngine = templateEngine;
+        this.servletContext = servletContext;
+    }
+
+    String render(String template, Map<String, Object> variables, HttpServletRequest request, HttpServletResponse response) {
+        var unencoded = new HttpServletResponseWrapper(response) {
+            @Override
+            public String encodeURL(String url) {
+                return url;
+            }
+        };
+        var context = new WebContext(request, unencoded, servletContext, RequestContextUtils.getLocale(request), variables);
+        return templateEngine.process(template, context);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.ordertaking.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
+
+/** Today's per-vegetable totals, updated in the browser as orders commit (see {@link LiveTotalsBroadcaster}). */
+@Controller
+@RequestMapping("/orders/live")
+public class LiveOrderController {
+
+    private final LiveTotalsBroadcaster broadcaster;
+
+    public LiveOrderController(LiveTotalsBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @GetMapping
+    public String live(Model model) {
+        model.addAttribute("date", LocalDate.now());
+        model.addAttribute("tab", "finalorders");
+        return "orders/live";
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter stream(HttpServletResponse response) {
+        // Reverse proxies (nginx) would otherwise hold events back until their buffer fills
+        response.setHeader("X-Accel-Buffering", "no");
+        return broadcaster.subscribe();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.dto.LiveTotalsUpdate;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.service.LiveOrderTotals;
+import com.example.ordertaking.service.VegetableCatalog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Pushes today's {@link LiveOrderTotals} to the open live dashboards over Server-Sent Events. Every
+ * {@code interval} one thread compares the totals with what it sent last and, if anything changed,
+ * serializes a single {@code delta} event and writes it to all subscribers; the cost per commit and per
+ * dashboard is a string write, not a query. New subscribers get a {@code snapshot} on the next tick,
+ * taken after that tick's delta so the two line up. At midnight everyone gets a snapshot of the new day.
+ * <p>
+ * A comment line goes out after {@code heartbeat} of silence so proxies keep the connection open and
+ * closed clients are noticed. Streams end after {@code timeout}; browsers reconnect on their own.
+ */
+@Component
+class LiveTotalsBroadcaster implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveTotalsBroadcaster.class);
+
+    private final LiveOrderTotals liveTotals;
+    private final VegetableCatalog catalog;
+    private final ObjectMapper objectMapper;
+    private final long intervalMillis;
+    private final long heartbeatNanos;
+    private final long timeoutMillis;
+
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final Queue<SseEmitter> joining = new ConcurrentLinkedQueue<>();
+
+    // Only touched by the broadcast thread
+    private LocalDate day;
+    private Map<Long, Long> sent = Map.of();
+    private long lastSentAt = System.nanoTime();
+
+    private ScheduledExecutorService executor;
+
+    LiveTotalsBroadcaster(LiveOrderTotals liveTotals,
+                          VegetableCatalog catalog,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.live-totals.interval:1s}") Duration interval,
+                          @Value("${app.live-totals.heartbeat:15s}") Duration heartbeat,
+                          @Value("${app.live-totals.timeout:30m}") Duration timeout) {
+        this.liveTotals = liveTotals;
+        this.catalog = catalog;
+        this.objectMapper = objectMapper;
+        this.intervalMillis = interval.toMillis();
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.timeoutMillis = timeout.toMillis();
+        meterRegistry.gauge("orders.live.subscribers", subscribers, List::size);
+    }
+
+    SseEmitter subscribe() {
+        var emitter = new SseEmitter(timeoutMillis);
+        Runnable remove = () -> {
+            subscribers.remove(emitter);
+            joining.remove(emitter);
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        joining.add(emitter);
+        return emitter;
+    }
+
+    void tick() {
+        try {
+            if (subscribers.isEmpty() && joining.isEmpty()) {
+                // Nobody watching: next subscriber starts from a fresh snapshot
+                day = null;
+                return;
+            }
+            var today = LocalDate.now();
+            var current = liveTotals.totals(today);
+            if (!today.equals(day)) {
+                day = today;
+                sent = current;
+                send(subscribers, "snapshot", snapshot());
+            } else if (!current.equals(sent)) {
+                var changed = new HashSet<>(current.keySet());
+                changed.addAll(sent.keySet());
+                changed.removeIf(id -> current.getOrDefault(id, 0L).equals(sent.getOrDefault(id, 0L)));
+                var previous = sent;
+                sent = current;
+                send(subscribers, "delta", update(changed, id -> current.getOrDefault(id, 0L) - previous.getOrDefault(id, 0L)));
+            } else if (System.nanoTime() - lastSentAt >= heartbeatNanos) {
+                for (var emitter : subscribers) {
+                    write(emitter, SseEmitter.event().comment("heartbeat"));
+                }
+                lastSentAt = System.nanoTime();
+            }
+            if (!joining.isEmpty()) {
+                List<SseEmitter> joined = new ArrayList<>();
+                for (SseEmitter emitter; (emitter = joining.poll()) != null; ) {
+                    joined.add(emitter);
+                }
+                send(joined, "snapshot", snapshot());
+                subscribers.addAll(joined);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Live totals broadcast failed", e);
+        }
+    }
+
+    private String snapshot() {
+        return update(sent.keySet(), id -> 0L);
+    }
+
+    private String update(Set<Long> vegetableIds, ToLongFunction<Long> delta) {
+        Map<Long, Vegetable> vegetables = catalog.findAllById(vegetableIds);
+        List<LiveTotalsUpdate.Line> lines = new ArrayList<>();
+        for (var id : vegetableIds) {
+            var vegetable = vegetables.get(id);
+            lines.add(new LiveTotalsUpdate.Line(id, vegetable == null ? "#" + id : vegetable.getName(),
+                    sent.getOrDefault(id, 0L), delta.applyAsLong(id)));
+        }
+        lines.sort(Comparator.comparing(LiveTotalsUpdate.Line::getVegetableName));
+        try {
+            return objectMapper.writeValueAsString(new LiveTotalsUpdate(day, lines));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Serialized once by the caller; each subscriber only gets the bytes written. */
+    private void send(List<SseEmitter> emitters, String name, String json) {
+        for (var emitter : emitters) {
+            write(emitter, SseEmitter.event().name(name).data(json));
+        }
+        lastSentAt = System.nanoTime();
+    }
+
+    private void write(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the stream already ended)
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "live-totals-broadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdownNow();
+        executor = null;
+        subscribers.forEach(SseEmitter::complete);
+        joining.forEach(SseEmitter::complete);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
@@ -1,74 +1,124 @@
 package com.example.ordertaking.controller;
 
+import com.example.ordertaking.config.ReadRouting;
+import com.example.ordertaking.dto.BulkOrderRecord;
+import com.example.ordertaking.dto.OrderSubmission;
+import com.example.ordertaking.dto.SubmissionStatus;
 import com.example.ordertaking.dto.VegetableSummary;
 import com.example.ordertaking.entity.OrderHeader;
-import com.example.ordertaking.entity.OrderItem;
 import com.example.ordertaking.repository.CustomerRepository;
-import com.example.ordertaking.repository.OrderItemRepository;
 import com.example.ordertaking.repository.OrderRepository;
-import com.example.ordertaking.repository.VegetableRepository;
+import com.example.ordertaking.service.DailyRollupService;
+import com.example.ordertaking.service.OrderPageCache;
+import com.example.ordertaking.service.OrderService;
+import com.example.ordertaking.service.OrderSubmissionService;
+import com.example.ordertaking.service.VegetableCatalog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @Controller
 @RequestMapping("/orders")
 public class OrderController {
 
     private final CustomerRepository customerRepo;
-    private final VegetableRepository vegetableRepo;
+    private final VegetableCatalog catalog;
     private final OrderRepository orderRepo;
-    private final OrderItemRepository orderItemRepo;
+    private final OrderService orderService;
+    private final DailyRollupService rollupService;
+    private final OrderPageCache pageCache;
+    private final FragmentRenderer renderer;
+    private final OrderSubmissionService submissionService;
+    private final boolean writeBehind;
+    private final Duration replicaLag;
 
     public OrderController(CustomerRepository customerRepo,
-                           VegetableRepository vegetableRepo,
+                           VegetableCatalog catalog,
                            OrderRepository orderRepo,
-                           OrderItemRepository orderItemRepo) {
+                           OrderService orderService,
+                           DailyRollupService rollupService,
+                           OrderPageCache pageCache,
+                           FragmentRenderer renderer,
+                           OrderSubmissionService submissionService,
+                           @Value("${app.order-queue.web-form:false}") boolean writeBehind,
+                           @Value("${app.datasource.replica.url:}") String replicaUrl,
+                           @Value("${app.datasource.replica.read-your-writes:5s}") Duration readYourWrites) {
         this.customerRepo = customerRepo;
-        this.vegetableRepo = vegetableRepo;
+        this.catalog = catalog;
         this.orderRepo = orderRepo;
-        this.orderItemRepo = orderItemRepo;
+        this.orderService = orderService;
+        this.rollupService = rollupService;
+        this.pageCache = pageCache;
+        this.renderer = renderer;
+        this.submissionService = submissionService;
+        this.writeBehind = writeBehind;
+        // Without a replica every read sees the latest commit
+        this.replicaLag = replicaUrl.isEmpty() ? Duration.ZERO : readYourWrites;
     }
 
     @GetMapping("/new")
     public String newOrder(Model model) {
-        model.addAttribute("customers", customerRepo.findAll());
-        model.addAttribute("vegetables", vegetableRepo.findAll());
+        model.addAttribute("vegetables", catalog.findAll());
         model.addAttribute("today", LocalDate.now());
+        // Posted back with the form, so a double click or resubmit places the order once
+        model.addAttribute("submissionKey", UUID.randomUUID().toString());
         model.addAttribute("tab", "ordertaking");
         return "orders/new";
     }
 
+    /**
+     * Places the order in the request thread, or with {@code app.order-queue.web-form} hands it to
+     * {@link OrderSubmissionService} and redirects to its status page. Either way a repeated
+     * {@code submissionKey} leads to the order placed first.
+     */
     @PostMapping
     public String createOrder(
             @RequestParam("customerId") Long customerId,
             @RequestParam("orderDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate orderDate,
             @RequestParam("vegetableIds") List<Long> vegetableIds,
             @RequestParam("quantities") List<Integer> quantities,
+            @RequestParam(value = "submissionKey", required = false) String submissionKey,
             Model model
     ) {
         if (vegetableIds == null || quantities == null || vegetableIds.isEmpty() || quantities.isEmpty() || vegetableIds.size() != quantities.size()) {
             model.addAttribute("error", "Please add at least one vegetable with quantity.");
             return "redirect:/orders/new";
         }
+        if (writeBehind && submissionKey != null) {
+            return submit(submissionKey, customerId, orderDate, vegetableIds, quantities);
+        }
+        if (submissionKey != null) {
+            var existing = orderRepo.findIdBySubmissionKey(submissionKey);
+            if (existing.isPresent()) {
+                return "redirect:/orders/" + existing.get();
+            }
+        }
 
         var customer = customerRepo.findById(customerId).orElseThrow();
         var order = new OrderHeader(customer, orderDate);
-
-        List<OrderItem> items = new ArrayList<>();
-        for (int i = 0; i < vegetableIds.size(); i++) {
-            var vegId = vegetableIds.get(i);
-            var qty = quantities.get(i);
-            if (qty == null || qty <= 0) continue;
-            var veg = vegetableRepo.findById(vegId).orElseThrow();
-            var item = new OrderItem(veg, qty, order);
-            items.add(item);
-            order.addItem(item);
+        try {
+            orderService.buildItems(vegetableIds, quantities).forEach(order::addItem);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
         }
 
         if (order.getItems().isEmpty()) {
@@ -76,32 +126,140 @@ public class OrderController {
             return "redirect:/orders/new";
         }
 
-        orderRepo.save(order);
+        order.setSubmissionKey(submissionKey);
+        try {
+            orderService.placeOrder(order);
+        } catch (IllegalArgumentException e) {
+            // Date already archived
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (DataIntegrityViolationException e) {
+            // The same form was posted concurrently and the other request stored it first
+            var existing = submissionKey == null ? null : orderRepo.findIdBySubmissionKey(submissionKey).orElse(null);
+            if (existing == null) throw e;
+            return "redirect:/orders/" + existing;
+        }
         return "redirect:/orders/" + order.getId();
     }
 
+    /** Progress of a write-behind order: redirects to the order once it is stored, otherwise refreshes. */
+    @GetMapping("/submissions/{key}")
+    public String submission(@PathVariable String key, Model model) {
+        var status = submissionService.status(key)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (status.getState() == SubmissionStatus.State.PERSISTED) {
+            return "redirect:/orders/" + status.getOrderId();
+        }
+        model.addAttribute("status", status);
+        model.addAttribute("tab", "ordertaking");
+        return "orders/pending";
+    }
+
+    private String submit(String key, Long customerId, LocalDate orderDate, List<Long> vegetableIds, List<Integer> quantities) {
+        List<BulkOrderRecord.Line> lines = new ArrayList<>();
+        for (int i = 0; i < vegetableIds.size(); i++) {
+            var qty = quantities.get(i);
+            if (qty != null && qty > 0) lines.add(new BulkOrderRecord.Line(vegetableIds.get(i), qty));
+        }
+        try {
+            submissionService.submit(new OrderSubmission(key, customerId, orderDate, lines));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+        return "redirect:/orders/submissions/" + key;
+    }
+
+    /** Order details come from {@link OrderPageCache}; validators are only sent for cached renders. */
     @GetMapping("/{id}")
-    public String orderDetails(@PathVariable Long id, Model model) {
-        var order = orderRepo.findById(id).orElseThrow();
-        model.addAttribute("order", order);
+    public String orderDetails(@PathVariable Long id, Model model, WebRequest webRequest,
+                               HttpServletRequest request, HttpServletResponse response) {
+        String key = "order:" + id;
+        var cached = pageCache.get(key);
+        String details;
+        LocalDate date;
+        if (cached != null) {
+            details = cached.getHtml();
+            date = cached.getVersion().getDate();
+        } else {
+            // The version of the order's date is read before the order, so a write racing the load
+            // leaves the render uncached. Not on the replica yet, or its date changed within the
+            // replica's lag: read the primary
+            Supplier<Optional<LocalDate>> dateOf = () -> orderRepo.findOrderDateById(id);
+            var orderDate = dateOf.get().or(() -> ReadRouting.onPrimary(dateOf)).orElseThrow();
+            var version = pageCache.versionOf(orderDate);
+            Supplier<Optional<OrderHeader>> load = () -> orderRepo.findById(id);
+            var order = (changedRecently(version) ? ReadRouting.onPrimary(load) : load.get()).orElseThrow();
+            date = order.getOrderDate();
+            details = renderer.render("orders/confirm-details", Map.of("order", order), request, response);
+            // Moved to another date meanwhile: that date's version does not cover this render
+            cached = date.equals(orderDate) ? pageCache.put(key, version, details) : null;
+        }
+        if (cached != null && notModified(webRequest, response, cached.getVersion())) {
+            return null;
+        }
+        model.addAttribute("orderId", id);
+        model.addAttribute("orderDate", date);
+        model.addAttribute("detailsHtml", details);
         model.addAttribute("tab", "ordertaking");
         return "orders/confirm";
     }
 
+    @PostMapping("/{id}/delete")
+    public String deleteOrder(@PathVariable Long id) {
+        var date = orderService.deleteOrder(id);
+        return "redirect:/orders/final?date=" + date;
+    }
+
+    /**
+     * The report part of the page is cached per date in {@link OrderPageCache}; a client holding the
+     * current version gets a 304 before anything is loaded.
+     */
     @GetMapping("/final")
     public String finalOrders(
             @RequestParam(value = "date", required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
-            Model model
+            Model model, WebRequest webRequest,
+            HttpServletRequest request, HttpServletResponse response
     ) {
         if (date == null) {
             date = LocalDate.now();
         }
-        List<VegetableSummary> summary = orderItemRepo.summarizeByDate(date);
+        var version = pageCache.versionOf(date);
+        if (notModified(webRequest, response, version)) {
+            return null;
+        }
+        String key = "final:" + date;
+        var cached = pageCache.get(key);
+        String report;
+        if (cached != null) {
+            report = cached.getHtml();
+        } else {
+            var day = date;
+            Supplier<Map<String, Object>> load = () -> {
+                List<VegetableSummary> summary = rollupService.summarizeByDate(day);
+                var orders = orderRepo.findWithItemsByOrderDate(day);
+                return Map.of("date", day, "summary", summary, "orders", orders);
+            };
+            // A render is cached under the current version, so it must not come from a lagging replica
+            var variables = changedRecently(version) ? ReadRouting.onPrimary(load) : load.get();
+            report = renderer.render("orders/final-report", variables, request, response);
+            pageCache.put(key, version, report);
+        }
         model.addAttribute("date", date);
-        model.addAttribute("summary", summary);
-        model.addAttribute("orders", orderRepo.findByOrderDate(date));
+        model.addAttribute("reportHtml", report);
         model.addAttribute("tab", "finalorders");
         return "orders/final";
     }
+
+    private boolean changedRecently(OrderPageCache.Version version) {
+        return System.currentTimeMillis() - version.getLastModified() < replicaLag.toMillis();
+    }
+
+    /** Sets the validators of {@code version} and answers 304 if the client already has it. */
+    private static boolean notModified(WebRequest webRequest, HttpServletResponse response, OrderPageCache.Version version) {
+        // Pages embed per-session CSRF tokens: browser-private, revalidated on every view
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        return webRequest.checkNotModified(version.getEtag(), version.getLastModified());
+    }
 }
\ No newline at end of file
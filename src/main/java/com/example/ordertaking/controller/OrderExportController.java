@@ -0,0 +1,52 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.service.OrderExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+@Controller
+@RequestMapping("/orders")
+public class OrderExportController {
+
+    private final OrderExportService exportService;
+
+    public OrderExportController(OrderExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /** CSV of every order line in [from, to], gzip-encoded when the client accepts it. */
+    @GetMapping("/export")
+    public void export(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                       @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                       HttpServletResponse response) throws IOException {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders-" + from + "-to-" + to + ".csv\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        OutputStream body = response.getOutputStream();
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = new GZIPOutputStream(body, 64 * 1024);
+        }
+        try (var out = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), 64 * 1024)) {
+            exportService.exportCsv(from, to, out);
+        }
+    }
+}
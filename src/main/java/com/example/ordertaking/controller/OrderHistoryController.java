@@ -0,0 +1,63 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.dto.OrderHistoryPage;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.service.OrderHistoryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A customer's past orders, newest first, with line counts and totals: a page for the UI and the same
+ * data as JSON under {@code /api}. Both page with the {@code after} / {@code before} cursors.
+ */
+@Controller
+public class OrderHistoryController {
+
+    private final OrderHistoryService historyService;
+    private final CustomerRepository customerRepo;
+
+    public OrderHistoryController(OrderHistoryService historyService, CustomerRepository customerRepo) {
+        this.historyService = historyService;
+        this.customerRepo = customerRepo;
+    }
+
+    @GetMapping("/customers/{id}/orders")
+    public String history(@PathVariable long id,
+                          @RequestParam(value = "after", required = false) String after,
+                          @RequestParam(value = "before", required = false) String before,
+                          @RequestParam(value = "size", defaultValue = "" + OrderHistoryService.DEFAULT_PAGE_SIZE) int size,
+                          Model model) {
+        var customer = customerRepo.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        model.addAttribute("customer", customer);
+        model.addAttribute("history", page(id, after, before, size));
+        model.addAttribute("size", Math.max(1, Math.min(size, OrderHistoryService.MAX_PAGE_SIZE)));
+        model.addAttribute("tab", "customers");
+        return "customers/orders";
+    }
+
+    @GetMapping(value = "/api/customers/{id}/orders", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OrderHistoryPage> historyJson(@PathVariable long id,
+                                                        @RequestParam(value = "after", required = false) String after,
+                                                        @RequestParam(value = "before", required = false) String before,
+                                                        @RequestParam(value = "size", defaultValue = "" + OrderHistoryService.DEFAULT_PAGE_SIZE) int size) {
+        if (!customerRepo.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(page(id, after, before, size));
+    }
+
+    private OrderHistoryPage page(long id, String after, String before, int size) {
+        try {
+            return historyService.page(id, after, before, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
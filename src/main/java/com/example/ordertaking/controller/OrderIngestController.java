@@ -0,0 +1,60 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.service.BulkOrderIngestService;
+import com.example.ordertaking.service.BulkOrderReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bulk order ingest for wholesale partners. The request body is read incrementally and the per-record
+ * report is written back as NDJSON while later chunks are still being processed, ending with a
+ * summary line.
+ */
+@Controller
+@RequestMapping("/api/orders")
+public class OrderIngestController {
+
+    private final BulkOrderIngestService ingestService;
+    private final ObjectMapper objectMapper;
+
+    public OrderIngestController(BulkOrderIngestService ingestService, ObjectMapper objectMapper) {
+        this.ingestService = ingestService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public void bulk(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        var format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? BulkOrderReader.Format.NDJSON
+                : BulkOrderReader.Format.CSV;
+        var in = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        var out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        var summary = ingestService.ingest(in, format, result -> {
+            try {
+                out.write(objectMapper.writeValueAsString(result));
+                out.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.write(objectMapper.writeValueAsString(summary));
+        out.newLine();
+        out.flush();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.dto.OrderSubmission;
+import com.example.ordertaking.dto.SubmissionStatus;
+import com.example.ordertaking.service.OrderSubmissionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Write-behind order entry for API clients. {@code POST /api/orders} answers 202 with a status URL as
+ * soon as the order is journaled; the {@code Idempotency-Key} header (or {@code key} in the body) makes
+ * retries safe. A full queue answers 503 with {@code Retry-After}.
+ */
+@Controller
+@RequestMapping("/api/orders")
+public class OrderSubmissionController {
+
+    private final OrderSubmissionService submissionService;
+
+    public OrderSubmissionController(OrderSubmissionService submissionService) {
+        this.submissionService = submissionService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SubmissionStatus> submit(@RequestHeader(value = "Idempotency-Key", required = false) String key,
+                                                   @RequestBody OrderSubmission submission) {
+        if (key != null) {
+            submission.setKey(key);
+        }
+        SubmissionStatus status;
+        try {
+            status = submissionService.submit(submission);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        var location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/submissions/{key}").buildAndExpand(status.getKey()).toUri();
+        var response = status.getState() == SubmissionStatus.State.QUEUED
+                ? ResponseEntity.accepted()
+                : ResponseEntity.ok();
+        return response.location(location).body(status);
+    }
+
+    @GetMapping(value = "/submissions/{key}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SubmissionStatus> status(@PathVariable String key) {
+        return ResponseEntity.of(submissionService.status(key));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.service.PickMatrixService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/** Packing grid of a delivery date: customers (grouped by address) down, vegetables across. */
+@Controller
+@RequestMapping("/orders/pick-matrix")
+public class PickMatrixController {
+
+    private final PickMatrixService pickMatrixService;
+
+    public PickMatrixController(PickMatrixService pickMatrixService) {
+        this.pickMatrixService = pickMatrixService;
+    }
+
+    @GetMapping
+    public String pickMatrix(@RequestParam(value = "date", required = false)
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                             Model model) {
+        if (date == null) {
+            date = LocalDate.now();
+        }
+        model.addAttribute("date", date);
+        var matrix = pickMatrixService.build(date);
+        model.addAttribute("matrix", matrix);
+        model.addAttribute("tableHtml", PickMatrixTable.render(matrix));
+        model.addAttribute("tab", "finalorders");
+        return "orders/pick-matrix";
+    }
+
+    @GetMapping("/csv")
+    public void csv(@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                    HttpServletResponse response) throws IOException {
+        var matrix = pickMatrixService.build(date);
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pick-matrix-" + date + ".csv\"");
+        try (var out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024)) {
+            pickMatrixService.writeCsv(matrix, out);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.service.PickMatrix;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * The pick matrix as an HTML table. Written by hand rather than with {@code th:each}: a 5,000 × 200
+ * grid is a million cells, and per-cell template evaluation took seconds where this takes
+ * milliseconds. Only names and addresses come from users; they are escaped.
+ */
+final class PickMatrixTable {
+
+    private PickMatrixTable() {
+    }
+
+    static String render(PickMatrix matrix) {
+        var columns = matrix.getColumns();
+        var html = new StringBuilder(64 + matrix.getRowCount() * (columns.size() * 10 + 64));
+        html.append("<table>\n<thead>\n<tr><th>Customer</th>");
+        for (var column : columns) {
+            html.append("<th>").append(HtmlUtils.htmlEscape(column.getVegetableName())).append("</th>");
+        }
+        html.append("<th>Total</th></tr>\n</thead>\n<tbody>\n");
+        for (var row : matrix.getRows()) {
+            if (row.isFirstAtAddress()) {
+                html.append("<tr class=\"pick-address\"><th colspan=\"").append(columns.size() + 2).append("\">")
+                        .append(HtmlUtils.htmlEscape(row.getAddress())).append("</th></tr>\n");
+            }
+            html.append("<tr><td>").append(HtmlUtils.htmlEscape(row.getCustomerName())).append("</td>");
+            for (int q : row.getCells()) {
+                html.append("<td>");
+                if (q != 0) html.append(q);
+                html.append("</td>");
+            }
+            html.append("<td>").append(row.getTotal()).append("</td></tr>\n");
+        }
+        html.append("</tbody>\n<tfoot>\n<tr><th>Total</th>");
+        for (var column : columns) {
+            html.append("<th>").append(column.getTotal()).append("</th>");
+        }
+        html.append("<th>").append(matrix.getTotal()).append("</th></tr>\n</tfoot>\n</table>\n");
+        return html.toString();
+    }
+}
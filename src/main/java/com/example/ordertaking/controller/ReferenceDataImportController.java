@@ -0,0 +1,77 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.dto.BulkImportResult;
+import com.example.ordertaking.dto.BulkImportSummary;
+import com.example.ordertaking.service.BulkImportReader;
+import com.example.ordertaking.service.ReferenceDataImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import of customers and vegetables, e.g. when onboarding a region. Like the order ingest, the
+ * request body is read incrementally and rejected rows are written back as NDJSON while the import
+ * runs, ending with a summary line.
+ */
+@Controller
+@RequestMapping("/api")
+public class ReferenceDataImportController {
+
+    private final ReferenceDataImportService importService;
+    private final ObjectMapper objectMapper;
+
+    public ReferenceDataImportController(ReferenceDataImportService importService, ObjectMapper objectMapper) {
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(value = "/customers/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public void customers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        stream(request, response, importService::importCustomers);
+    }
+
+    @PostMapping(value = "/vegetables/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public void vegetables(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        stream(request, response, importService::importVegetables);
+    }
+
+    private void stream(HttpServletRequest request, HttpServletResponse response, Import importer) throws IOException {
+        var format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? BulkImportReader.Format.NDJSON
+                : BulkImportReader.Format.CSV;
+        var in = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        var out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        var summary = importer.run(in, format, result -> {
+            try {
+                out.write(objectMapper.writeValueAsString(result));
+                out.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.write(objectMapper.writeValueAsString(summary));
+        out.newLine();
+        out.flush();
+    }
+
+    @FunctionalInterface
+    private interface Import {
+        BulkImportSummary run(BufferedReader in, BulkImportReader.Format format, Consumer<BulkImportResult> sink);
+    }
+}
@@ -2,6 +2,8 @@ package com.example.ordertaking.controller;
 
 import com.example.ordertaking.entity.Vegetable;
 import com.example.ordertaking.repository.VegetableRepository;
+import com.example.ordertaking.service.OrderPageCache;
+import com.example.ordertaking.service.VegetableCatalog;
 import javax.validation.Valid;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -12,9 +14,13 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/vegetables")
 public class VegetableController {
     private final VegetableRepository vegetableRepo;
+    private final VegetableCatalog catalog;
+    private final OrderPageCache pageCache;
 
-    public VegetableController(VegetableRepository vegetableRepo) {
+    public VegetableController(VegetableRepository vegetableRepo, VegetableCatalog catalog, OrderPageCache pageCache) {
         this.vegetableRepo = vegetableRepo;
+        this.catalog = catalog;
+        this.pageCache = pageCache;
     }
 
     @GetMapping
@@ -41,6 +47,7 @@ public class VegetableController {
             return "vegetables/form";
         }
         vegetableRepo.save(vegetable);
+        catalog.invalidate();
         return "redirect:/vegetables";
     }
 
@@ -65,12 +72,16 @@ public class VegetableController {
         }
         vegetable.setId(id);
         vegetableRepo.save(vegetable);
+        catalog.invalidate();
+        pageCache.invalidateAll();
         return "redirect:/vegetables";
     }
 
     @PostMapping("/{id}/delete")
     public String delete(@PathVariable Long id) {
         vegetableRepo.deleteById(id);
+        catalog.invalidate();
+        pageCache.invalidateAll();
         return "redirect:/vegetables";
     }
 }
@@ -0,0 +1,44 @@
+package com.example.ordertaking.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Totals per period for a set of rows (vegetables or customers); {@code totals[i]} belongs to {@code periods[i]}. */
+public class AnalyticsReport {
+    private final List<LocalDate> periods;
+    private final List<Row> vegetables;
+    private final List<Row> customers;
+
+    public AnalyticsReport(List<LocalDate> periods, List<Row> vegetables, List<Row> customers) {
+        this.periods = periods;
+        this.vegetables = vegetables;
+        this.customers = customers;
+    }
+
+    public List<LocalDate> getPeriods() {return periods;}
+    public List<Row> getVegetables() {return vegetables;}
+    public List<Row> getCustomers() {return customers;}
+
+    public static class Row {
+        private final Long id;
+        private final String label;
+        private final long[] totals;
+        private long total;
+
+        public Row(Long id, String label, int periods) {
+            this.id = id;
+            this.label = label;
+            this.totals = new long[periods];
+        }
+
+        public void add(int period, long quantity) {
+            totals[period] += quantity;
+            total += quantity;
+        }
+
+        public Long getId() {return id;}
+        public String getLabel() {return label;}
+        public long[] getTotals() {return totals;}
+        public long getTotal() {return total;}
+    }
+}
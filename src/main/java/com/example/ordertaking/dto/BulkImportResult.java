@@ -0,0 +1,31 @@
+package com.example.ordertaking.dto;
+
+/** A row of a customer or vegetable import that was not stored; stored rows are only counted. */
+public class BulkImportResult {
+    public enum Status { REJECTED, FAILED }
+
+    private final long lineNumber;
+    private final String key;
+    private final Status status;
+    private final String error;
+
+    private BulkImportResult(long lineNumber, String key, Status status, String error) {
+        this.lineNumber = lineNumber;
+        this.key = key;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BulkImportResult rejected(long lineNumber, String key, String error) {
+        return new BulkImportResult(lineNumber, key, Status.REJECTED, error);
+    }
+
+    public static BulkImportResult failed(long lineNumber, String key, String error) {
+        return new BulkImportResult(lineNumber, key, Status.FAILED, error);
+    }
+
+    public long getLineNumber() {return lineNumber;}
+    public String getKey() {return key;}
+    public Status getStatus() {return status;}
+    public String getError() {return error;}
+}
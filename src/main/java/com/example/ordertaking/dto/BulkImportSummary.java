@@ -0,0 +1,26 @@
+package com.example.ordertaking.dto;
+
+public class BulkImportSummary {
+    private long created;
+    private long rejected;
+    private long failed;
+    private long elapsedMillis;
+
+    public void created(int rows) {
+        created += rows;
+    }
+
+    public void count(BulkImportResult result) {
+        if (result.getStatus() == BulkImportResult.Status.REJECTED) {
+            rejected++;
+        } else {
+            failed++;
+        }
+    }
+
+    public long getCreated() {return created;}
+    public long getRejected() {return rejected;}
+    public long getFailed() {return failed;}
+    public long getElapsedMillis() {return elapsedMillis;}
+    public void setElapsedMillis(long elapsedMillis) {this.elapsedMillis = elapsedMillis;}
+}
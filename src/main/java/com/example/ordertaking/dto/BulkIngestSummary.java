@@ -0,0 +1,30 @@
+package com.example.ordertaking.dto;
+
+public class BulkIngestSummary {
+    private long created;
+    private long rejected;
+    private long failed;
+    private long orderLines;
+    private long elapsedMillis;
+
+    public void count(BulkOrderResult result, int lines) {
+        switch (result.getStatus()) {
+            case CREATED:
+                created++;
+                orderLines += lines;
+                break;
+            case REJECTED:
+                rejected++;
+                break;
+            default:
+                failed++;
+        }
+    }
+
+    public long getCreated() {return created;}
+    public long getRejected() {return rejected;}
+    public long getFailed() {return failed;}
+    public long getOrderLines() {return orderLines;}
+    public long getElapsedMillis() {return elapsedMillis;}
+    public void setElapsedMillis(long elapsedMillis) {this.elapsedMillis = elapsedMillis;}
+}
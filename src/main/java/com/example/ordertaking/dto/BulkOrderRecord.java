@@ -0,0 +1,54 @@
+package com.example.ordertaking.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/** One order in a bulk ingest payload. {@code error} is set when the source text could not be parsed. */
+public class BulkOrderRecord {
+    private long lineNumber;
+    private String ref;
+    private Long customerId;
+    private LocalDate orderDate;
+    private List<Line> items = new ArrayList<>();
+    private String error;
+
+    public BulkOrderRecord() {}
+
+    public static BulkOrderRecord unparseable(long lineNumber, String error) {
+        var record = new BulkOrderRecord();
+        record.lineNumber = lineNumber;
+        record.error = error;
+        return record;
+    }
+
+    public long getLineNumber() {return lineNumber;}
+    public void setLineNumber(long lineNumber) {this.lineNumber = lineNumber;}
+    public String getRef() {return ref;}
+    public void setRef(String ref) {this.ref = ref;}
+    public Long getCustomerId() {return customerId;}
+    public void setCustomerId(Long customerId) {this.customerId = customerId;}
+    public LocalDate getOrderDate() {return orderDate;}
+    public void setOrderDate(LocalDate orderDate) {this.orderDate = orderDate;}
+    public List<Line> getItems() {return items;}
+    public void setItems(List<Line> items) {this.items = items;}
+    public String getError() {return error;}
+    public void setError(String error) {this.error = error;}
+
+    public static class Line {
+        private Long vegetableId;
+        private Integer quantity;
+
+        public Line() {}
+
+        public Line(Long vegetableId, Integer quantity) {
+            this.vegetableId = vegetableId;
+            this.quantity = quantity;
+        }
+
+        public Long getVegetableId() {return vegetableId;}
+        public void setVegetableId(Long vegetableId) {this.vegetableId = vegetableId;}
+        public Integer getQuantity() {return quantity;}
+        public void setQuantity(Integer quantity) {this.quantity = quantity;}
+    }
+}
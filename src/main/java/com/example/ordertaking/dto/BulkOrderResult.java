@@ -0,0 +1,37 @@
+package com.example.ordertaking.dto;
+
+public class BulkOrderResult {
+    public enum Status { CREATED, REJECTED, FAILED }
+
+    private final long lineNumber;
+    private final String ref;
+    private final Status status;
+    private final Long orderId;
+    private final String error;
+
+    private BulkOrderResult(long lineNumber, String ref, Status status, Long orderId, String error) {
+        this.lineNumber = lineNumber;
+        this.ref = ref;
+        this.status = status;
+        this.orderId = orderId;
+        this.error = error;
+    }
+
+    public static BulkOrderResult created(BulkOrderRecord record, Long orderId) {
+        return new BulkOrderResult(record.getLineNumber(), record.getRef(), Status.CREATED, orderId, null);
+    }
+
+    public static BulkOrderResult rejected(BulkOrderRecord record, String error) {
+        return new BulkOrderResult(record.getLineNumber(), record.getRef(), Status.REJECTED, null, error);
+    }
+
+    public static BulkOrderResult failed(BulkOrderRecord record, String error) {
+        return new BulkOrderResult(record.getLineNumber(), record.getRef(), Status.FAILED, null, error);
+    }
+
+    public long getLineNumber() {return lineNumber;}
+    public String getRef() {return ref;}
+    public Status getStatus() {return status;}
+    public Long getOrderId() {return orderId;}
+    public String getError() {return error;}
+}
@@ -0,0 +1,40 @@
+package com.example.ordertaking.dto;
+
+import java.time.Duration;
+
+/** Limits, current load and rejections so far of one bulkhead ({@code /actuator/bulkheads}). */
+public class BulkheadStatus {
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final int active;
+    private final int queued;
+    private final long rejectedQueueFull;
+    private final long rejectedTimeout;
+    private final long rejectedYield;
+
+    public BulkheadStatus(int maxConcurrent, int maxQueue, Duration maxWait, int active, int queued,
+                          long rejectedQueueFull, long rejectedTimeout, long rejectedYield) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.active = active;
+        this.queued = queued;
+        this.rejectedQueueFull = rejectedQueueFull;
+        this.rejectedTimeout = rejectedTimeout;
+        this.rejectedYield = rejectedYield;
+    }
+
+    public int getMaxConcurrent() {return maxConcurrent;}
+    public int getMaxQueue() {return maxQueue;}
+    public Duration getMaxWait() {return maxWait;}
+    public int getActive() {return active;}
+    public int getQueued() {return queued;}
+    public long getRejectedQueueFull() {return rejectedQueueFull;}
+    public long getRejectedTimeout() {return rejectedTimeout;}
+    public long getRejectedYield() {return rejectedYield;}
+
+    public long getRejected() {
+        return rejectedQueueFull + rejectedTimeout + rejectedYield;
+    }
+}
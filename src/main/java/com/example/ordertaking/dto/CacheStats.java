@@ -0,0 +1,34 @@
+package com.example.ordertaking.dto;
+
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+    private final int size;
+
+    public CacheStats(long hits, long misses, long evictions, long invalidations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+
+    public long getHits() {return hits;}
+    public long getMisses() {return misses;}
+    public long getEvictions() {return evictions;}
+    public long getInvalidations() {return invalidations;}
+    public int getSize() {return size;}
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                + ", invalidations=" + invalidations + ", size=" + size;
+    }
+}
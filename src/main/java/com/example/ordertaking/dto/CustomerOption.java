@@ -0,0 +1,21 @@
+package com.example.ordertaking.dto;
+
+public class CustomerOption {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+
+    public CustomerOption(Long id, String firstName, String lastName, String email) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+    }
+
+    public Long getId() {return id;}
+    public String getFirstName() {return firstName;}
+    public String getLastName() {return lastName;}
+    public String getEmail() {return email;}
+    public String getLabel() {return firstName + " " + lastName + " (" + email + ")";}
+}
@@ -0,0 +1,23 @@
+package com.example.ordertaking.dto;
+
+import java.time.LocalDate;
+
+/** One pre-aggregated daily total for a vegetable or customer. */
+public class DailyBucket {
+    private final LocalDate date;
+    private final Long key;
+    private final String label;
+    private final Long quantity;
+
+    public DailyBucket(LocalDate date, Long key, String label, Long quantity) {
+        this.date = date;
+        this.key = key;
+        this.label = label;
+        this.quantity = quantity;
+    }
+
+    public LocalDate getDate() {return date;}
+    public Long getKey() {return key;}
+    public String getLabel() {return label;}
+    public Long getQuantity() {return quantity;}
+}
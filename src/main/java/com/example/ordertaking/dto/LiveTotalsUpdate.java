@@ -0,0 +1,40 @@
+package com.example.ordertaking.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Payload of the live final orders stream: every total of {@code date} in a snapshot, only the changed
+ * ones in a delta. {@code delta} is the change since the previous event (zero in a snapshot).
+ */
+public class LiveTotalsUpdate {
+    private final LocalDate date;
+    private final List<Line> totals;
+
+    public LiveTotalsUpdate(LocalDate date, List<Line> totals) {
+        this.date = date;
+        this.totals = totals;
+    }
+
+    public LocalDate getDate() {return date;}
+    public List<Line> getTotals() {return totals;}
+
+    public static class Line {
+        private final Long vegetableId;
+        private final String vegetableName;
+        private final long totalQuantity;
+        private final long delta;
+
+        public Line(Long vegetableId, String vegetableName, long totalQuantity, long delta) {
+            this.vegetableId = vegetableId;
+            this.vegetableName = vegetableName;
+            this.totalQuantity = totalQuantity;
+            this.delta = delta;
+        }
+
+        public Long getVegetableId() {return vegetableId;}
+        public String getVegetableName() {return vegetableName;}
+        public long getTotalQuantity() {return totalQuantity;}
+        public long getDelta() {return delta;}
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ordertaking.dto;
+
+import java.time.LocalDate;
+
+/** One order line with its order and customer columns, as written by the CSV export. */
+public class OrderExportRow {
+    private final Long orderId;
+    private final LocalDate orderDate;
+    private final Long customerId;
+    private final String customerName;
+    private final String customerEmail;
+    private final Long itemId;
+    private final String vegetableName;
+    private final Integer quantity;
+
+    public OrderExportRow(Long orderId, LocalDate orderDate, Long customerId, String firstName, String lastName,
+                          String customerEmail, Long itemId, String vegetableName, Integer quantity) {
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+        this.customerId = customerId;
+        this.customerName = firstName + " " + lastName;
+        this.customerEmail = customerEmail;
+        this.itemId = itemId;
+        this.vegetableName = vegetableName;
+        this.quantity = quantity;
+    }
+
+    public Long getOrderId() {return orderId;}
+    public LocalDate getOrderDate() {return orderDate;}
+    public Long getCustomerId() {return customerId;}
+    public String getCustomerName() {return customerName;}
+    public String getCustomerEmail() {return customerEmail;}
+    public Long getItemId() {return itemId;}
+    public String getVegetableName() {return vegetableName;}
+    public Integer getQuantity() {return quantity;}
+}
@@ -0,0 +1,23 @@
+package com.example.ordertaking.dto;
+
+import java.time.LocalDate;
+
+/** One order in a customer's history, with its line count and total quantity. */
+public class OrderHistoryEntry {
+    private final Long orderId;
+    private final LocalDate orderDate;
+    private final Long lineCount;
+    private final Long totalQuantity;
+
+    public OrderHistoryEntry(Long orderId, LocalDate orderDate, Long lineCount, Long totalQuantity) {
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+        this.lineCount = lineCount;
+        this.totalQuantity = totalQuantity;
+    }
+
+    public Long getOrderId() {return orderId;}
+    public LocalDate getOrderDate() {return orderDate;}
+    public Long getLineCount() {return lineCount;}
+    public Long getTotalQuantity() {return totalQuantity;}
+}
@@ -0,0 +1,32 @@
+package com.example.ordertaking.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One page of a customer's order history, newest first. {@code next} and {@code previous} are opaque
+ * cursors for the {@code after} / {@code before} parameters, null at either end. Orders dated before
+ * {@code archivedBefore} are archived and not listed.
+ */
+public class OrderHistoryPage {
+    private final long customerId;
+    private final List<OrderHistoryEntry> orders;
+    private final String next;
+    private final String previous;
+    private final LocalDate archivedBefore;
+
+    public OrderHistoryPage(long customerId, List<OrderHistoryEntry> orders, String next, String previous,
+                            LocalDate archivedBefore) {
+        this.customerId = customerId;
+        this.orders = orders;
+        this.next = next;
+        this.previous = previous;
+        this.archivedBefore = archivedBefore;
+    }
+
+    public long getCustomerId() {return customerId;}
+    public List<OrderHistoryEntry> getOrders() {return orders;}
+    public String getNext() {return next;}
+    public String getPrevious() {return previous;}
+    public LocalDate getArchivedBefore() {return archivedBefore;}
+}
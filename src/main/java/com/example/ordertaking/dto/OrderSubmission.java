@@ -0,0 +1,34 @@
+package com.example.ordertaking.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An order accepted for write-behind persistence, keyed by the client's idempotency key. Also the
+ * record format of the submission journal.
+ */
+public class OrderSubmission {
+    private String key;
+    private Long customerId;
+    private LocalDate orderDate;
+    private List<BulkOrderRecord.Line> items = new ArrayList<>();
+
+    public OrderSubmission() {}
+
+    public OrderSubmission(String key, Long customerId, LocalDate orderDate, List<BulkOrderRecord.Line> items) {
+        this.key = key;
+        this.customerId = customerId;
+        this.orderDate = orderDate;
+        this.items = items;
+    }
+
+    public String getKey() {return key;}
+    public void setKey(String key) {this.key = key;}
+    public Long getCustomerId() {return customerId;}
+    public void setCustomerId(Long customerId) {this.customerId = customerId;}
+    public LocalDate getOrderDate() {return orderDate;}
+    public void setOrderDate(LocalDate orderDate) {this.orderDate = orderDate;}
+    public List<BulkOrderRecord.Line> getItems() {return items;}
+    public void setItems(List<BulkOrderRecord.Line> items) {this.items = items;}
+}
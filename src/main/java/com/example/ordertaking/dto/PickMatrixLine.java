@@ -0,0 +1,28 @@
+package com.example.ordertaking.dto;
+
+/** One order line with just the columns the pick matrix needs. */
+public class PickMatrixLine {
+    private final long customerId;
+    private final String customerName;
+    private final String address;
+    private final long vegetableId;
+    private final String vegetableName;
+    private final int quantity;
+
+    public PickMatrixLine(Long customerId, String firstName, String lastName, String address,
+                          Long vegetableId, String vegetableName, Integer quantity) {
+        this.customerId = customerId;
+        this.customerName = firstName + " " + lastName;
+        this.address = address;
+        this.vegetableId = vegetableId;
+        this.vegetableName = vegetableName;
+        this.quantity = quantity;
+    }
+
+    public long getCustomerId() {return customerId;}
+    public String getCustomerName() {return customerName;}
+    public String getAddress() {return address;}
+    public long getVegetableId() {return vegetableId;}
+    public String getVegetableName() {return vegetableName;}
+    public int getQuantity() {return quantity;}
+}
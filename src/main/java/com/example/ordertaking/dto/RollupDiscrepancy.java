@@ -0,0 +1,27 @@
+package com.example.ordertaking.dto;
+
+import java.time.LocalDate;
+
+public class RollupDiscrepancy {
+    private LocalDate date;
+    private String vegetableName;
+    private Long expectedQuantity;
+    private Long rollupQuantity;
+
+    public RollupDiscrepancy(LocalDate date, String vegetableName, Long expectedQuantity, Long rollupQuantity) {
+        this.date = date;
+        this.vegetableName = vegetableName;
+        this.expectedQuantity = expectedQuantity;
+        this.rollupQuantity = rollupQuantity;
+    }
+
+    public LocalDate getDate() {return date;}
+    public String getVegetableName() {return vegetableName;}
+    public Long getExpectedQuantity() {return expectedQuantity;}
+    public Long getRollupQuantity() {return rollupQuantity;}
+
+    @Override
+    public String toString() {
+        return date + " " + vegetableName + ": expected " + expectedQuantity + ", rollup " + rollupQuantity;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ordertaking.dto;
+
+/** Where an accepted order submission is: still queued, stored as {@code orderId}, or failed for good. */
+public class SubmissionStatus {
+    public enum State { QUEUED, PERSISTED, FAILED }
+
+    private final String key;
+    private final State state;
+    private final Long orderId;
+    private final String error;
+
+    private SubmissionStatus(String key, State state, Long orderId, String error) {
+        this.key = key;
+        this.state = state;
+        this.orderId = orderId;
+        this.error = error;
+    }
+
+    public static SubmissionStatus queued(String key) {
+        return new SubmissionStatus(key, State.QUEUED, null, null);
+    }
+
+    public static SubmissionStatus persisted(String key, Long orderId) {
+        return new SubmissionStatus(key, State.PERSISTED, orderId, null);
+    }
+
+    public static SubmissionStatus failed(String key, String error) {
+        return new SubmissionStatus(key, State.FAILED, null, error);
+    }
+
+    public String getKey() {return key;}
+    public State getState() {return state;}
+    public Long getOrderId() {return orderId;}
+    public String getError() {return error;}
+}
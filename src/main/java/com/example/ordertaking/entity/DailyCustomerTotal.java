@@ -0,0 +1,33 @@
+package com.example.ordertaking.entity;
+
+import javax.persistence.*;
+
+/** Daily per-customer bucket (quantity and order count), maintained alongside {@link DailyVegetableTotal}. */
+@Entity
+@Table(name = "daily_customer_totals")
+public class DailyCustomerTotal {
+    @EmbeddedId
+    private DailyCustomerTotalId id;
+
+    @MapsId("customerId")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Customer customer;
+
+    @Column(nullable = false)
+    private Long totalQuantity;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    public DailyCustomerTotal() {}
+
+    // Getters/setters
+    public DailyCustomerTotalId getId() {return id;}
+    public void setId(DailyCustomerTotalId id) {this.id = id;}
+    public Customer getCustomer() {return customer;}
+    public void setCustomer(Customer customer) {this.customer = customer;}
+    public Long getTotalQuantity() {return totalQuantity;}
+    public void setTotalQuantity(Long totalQuantity) {this.totalQuantity = totalQuantity;}
+    public Long getOrderCount() {return orderCount;}
+    public void setOrderCount(Long orderCount) {this.orderCount = orderCount;}
+}
@@ -0,0 +1,39 @@
+package com.example.ordertaking.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class DailyCustomerTotalId implements Serializable {
+    @Column(nullable = false)
+    private LocalDate orderDate;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    public DailyCustomerTotalId() {}
+
+    public DailyCustomerTotalId(LocalDate orderDate, Long customerId) {
+        this.orderDate = orderDate;
+        this.customerId = customerId;
+    }
+
+    public LocalDate getOrderDate() {return orderDate;}
+    public Long getCustomerId() {return customerId;}
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DailyCustomerTotalId)) return false;
+        DailyCustomerTotalId that = (DailyCustomerTotalId) o;
+        return Objects.equals(orderDate, that.orderDate) && Objects.equals(customerId, that.customerId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderDate, customerId);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.ordertaking.entity;
+
+import javax.persistence.*;
+
+/**
+ * Materialized (order_date, vegetable_id) -> total_quantity rollup of order_items.
+ * Maintained by {@link com.example.ordertaking.service.DailyRollupService} in the same
+ * transaction as every order write, so the final orders summary is a primary-key range read.
+ */
+@Entity
+@Table(name = "daily_vegetable_totals")
+public class DailyVegetableTotal {
+    @EmbeddedId
+    private DailyVegetableTotalId id;
+
+    @MapsId("vegetableId")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Vegetable vegetable;
+
+    @Column(nullable = false)
+    private Long totalQuantity;
+
+    public DailyVegetableTotal() {}
+
+    public DailyVegetableTotal(DailyVegetableTotalId id, Vegetable vegetable, Long totalQuantity) {
+        this.id = id;
+        this.vegetable = vegetable;
+        this.totalQuantity = totalQuantity;
+    }
+
+    // Getters/setters
+    public DailyVegetableTotalId getId() {return id;}
+    public void setId(DailyVegetableTotalId id) {this.id = id;}
+    public Vegetable getVegetable() {return vegetable;}
+    public void setVegetable(Vegetable vegetable) {this.vegetable = vegetable;}
+    public Long getTotalQuantity() {return totalQuantity;}
+    public void setTotalQuantity(Long totalQuantity) {this.totalQuantity = totalQuantity;}
+}
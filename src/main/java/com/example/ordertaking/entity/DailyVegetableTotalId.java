@@ -0,0 +1,39 @@
+package com.example.ordertaking.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class DailyVegetableTotalId implements Serializable {
+    @Column(nullable = false)
+    private LocalDate orderDate;
+
+    @Column(nullable = false)
+    private Long vegetableId;
+
+    public DailyVegetableTotalId() {}
+
+    public DailyVegetableTotalId(LocalDate orderDate, Long vegetableId) {
+        this.orderDate = orderDate;
+        this.vegetableId = vegetableId;
+    }
+
+    public LocalDate getOrderDate() {return orderDate;}
+    public Long getVegetableId() {return vegetableId;}
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DailyVegetableTotalId)) return false;
+        DailyVegetableTotalId that = (DailyVegetableTotalId) o;
+        return Objects.equals(orderDate, that.orderDate) && Objects.equals(vegetableId, that.vegetableId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderDate, vegetableId);
+    }
+}
@@ -11,7 +11,9 @@ import java.util.List;
 @Entity
 @Table(name = "orders")
 public class OrderHeader {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (table-emulated on MySQL) so Hibernate can batch inserts; IDENTITY cannot.
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -26,6 +28,10 @@ public class OrderHeader {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
+    // Idempotency key of orders taken through OrderSubmissionService; unique in the database
+    @Column(length = 64, unique = true)
+    private String submissionKey;
+
     public OrderHeader() {}
 
     public OrderHeader(Customer customer, LocalDate orderDate) {
@@ -47,4 +53,6 @@ public class OrderHeader {
     public void setOrderDate(LocalDate orderDate) {this.orderDate = orderDate;}
     public List<OrderItem> getItems() {return items;}
     public void setItems(List<OrderItem> items) {this.items = items;}
+    public String getSubmissionKey() {return submissionKey;}
+    public void setSubmissionKey(String submissionKey) {this.submissionKey = submissionKey;}
 }
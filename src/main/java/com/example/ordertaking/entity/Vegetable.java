@@ -1,9 +1,13 @@
 package com.example.ordertaking.entity;
 
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vegetables")
 @Table(name = "vegetables")
 public class Vegetable {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
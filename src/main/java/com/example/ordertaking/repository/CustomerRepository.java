@@ -1,8 +1,52 @@
 package com.example.ordertaking.repository;
 
+import com.example.ordertaking.dto.CustomerOption;
 import com.example.ordertaking.entity.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    @Query("select c.id from Customer c where c.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Query("select c.email from Customer c")
+    List<String> findAllEmails();
+
+    // Keyset pagination by primary key; pass a Pageable only to limit the page size.
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long id, Pageable limit);
+    List<Customer> findByIdLessThanOrderByIdDesc(Long id, Pageable limit);
+
+    // Prefix searches, one per indexed column, so each is an index range scan. Results go to the
+    // customer-search query cache region, which Hibernate invalidates on any write to customers.
+    @Query("select new com.example.ordertaking.dto.CustomerOption(c.id, c.firstName, c.lastName, c.email) " +
+           "from Customer c where c.firstName like :pattern escape '!' order by c.firstName asc, c.id asc")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "customer-search")
+    })
+    List<CustomerOption> searchByFirstName(String pattern, Pageable limit);
+
+    @Query("select new com.example.ordertaking.dto.CustomerOption(c.id, c.firstName, c.lastName, c.email) " +
+           "from Customer c where c.lastName like :pattern escape '!' order by c.lastName asc, c.id asc")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "customer-search")
+    })
+    List<CustomerOption> searchByLastName(String pattern, Pageable limit);
+
+    @Query("select new com.example.ordertaking.dto.CustomerOption(c.id, c.firstName, c.lastName, c.email) " +
+           "from Customer c where c.email like :pattern escape '!' order by c.email asc")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "customer-search")
+    })
+    List<CustomerOption> searchByEmail(String pattern, Pageable limit);
+}
@@ -0,0 +1,40 @@
+package com.example.ordertaking.repository;
+
+import com.example.ordertaking.dto.DailyBucket;
+import com.example.ordertaking.entity.DailyCustomerTotal;
+import com.example.ordertaking.entity.DailyCustomerTotalId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyCustomerTotalRepository extends JpaRepository<DailyCustomerTotal, DailyCustomerTotalId> {
+    @Query("select new com.example.ordertaking.dto.DailyBucket(t.id.orderDate, c.id, concat(c.firstName, ' ', c.lastName), t.totalQuantity) " +
+           "from DailyCustomerTotal t " +
+           "join t.customer c " +
+           "where t.id.orderDate between :from and :to and t.totalQuantity > 0")
+    List<DailyBucket> findBuckets(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("delete from DailyCustomerTotal t where t.id.orderDate between :from and :to")
+    int deleteByOrderDateBetween(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = "insert into daily_customer_totals (order_date, customer_id, total_quantity, order_count) " +
+                   "select o.order_date, o.customer_id, sum(oi.quantity), count(distinct o.id) " +
+                   "from order_items oi join orders o on o.id = oi.order_id " +
+                   "group by o.order_date, o.customer_id",
+           nativeQuery = true)
+    int backfillAll();
+
+    @Modifying
+    @Query(value = "insert into daily_customer_totals (order_date, customer_id, total_quantity, order_count) " +
+                   "select o.order_date, o.customer_id, sum(oi.quantity), count(distinct o.id) " +
+                   "from order_items oi join orders o on o.id = oi.order_id " +
+                   "where o.order_date between :from and :to " +
+                   "group by o.order_date, o.customer_id",
+           nativeQuery = true)
+    int backfillBetween(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,48 @@
+package com.example.ordertaking.repository;
+
+import com.example.ordertaking.dto.DailyBucket;
+import com.example.ordertaking.dto.VegetableSummary;
+import com.example.ordertaking.entity.DailyVegetableTotal;
+import com.example.ordertaking.entity.DailyVegetableTotalId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyVegetableTotalRepository extends JpaRepository<DailyVegetableTotal, DailyVegetableTotalId> {
+    @Query("select new com.example.ordertaking.dto.VegetableSummary(v.name, t.totalQuantity) " +
+           "from DailyVegetableTotal t " +
+           "join t.vegetable v " +
+           "where t.id.orderDate = :date and t.totalQuantity > 0 " +
+           "order by v.name asc")
+    List<VegetableSummary> summarizeByDate(LocalDate date);
+
+    @Query("select new com.example.ordertaking.dto.DailyBucket(t.id.orderDate, v.id, v.name, t.totalQuantity) " +
+           "from DailyVegetableTotal t " +
+           "join t.vegetable v " +
+           "where t.id.orderDate between :from and :to and t.totalQuantity > 0")
+    List<DailyBucket> findBuckets(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("delete from DailyVegetableTotal t where t.id.orderDate between :from and :to")
+    int deleteByOrderDateBetween(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = "insert into daily_vegetable_totals (order_date, vegetable_id, total_quantity) " +
+                   "select o.order_date, oi.vegetable_id, sum(oi.quantity) " +
+                   "from order_items oi join orders o on o.id = oi.order_id " +
+                   "group by o.order_date, oi.vegetable_id",
+           nativeQuery = true)
+    int backfillAll();
+
+    @Modifying
+    @Query(value = "insert into daily_vegetable_totals (order_date, vegetable_id, total_quantity) " +
+                   "select o.order_date, oi.vegetable_id, sum(oi.quantity) " +
+                   "from order_items oi join orders o on o.id = oi.order_id " +
+                   "where o.order_date between :from and :to " +
+                   "group by o.order_date, oi.vegetable_id",
+           nativeQuery = true)
+    int backfillBetween(LocalDate from, LocalDate to);
+}
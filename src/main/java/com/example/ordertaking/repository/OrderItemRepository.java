@@ -1,12 +1,17 @@
 package com.example.ordertaking.repository;
 
+import com.example.ordertaking.dto.OrderExportRow;
+import com.example.ordertaking.dto.PickMatrixLine;
 import com.example.ordertaking.dto.VegetableSummary;
 import com.example.ordertaking.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     @Query("select new com.example.ordertaking.dto.VegetableSummary(v.name, sum(oi.quantity)) " +
@@ -17,4 +22,40 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
            "group by v.name " +
            "order by v.name asc")
     List<VegetableSummary> summarizeByDate(LocalDate date);
-}
\ No newline at end of file
+
+    /**
+     * Forward-only cursor over every order line in an inclusive date range, as flat rows so nothing
+     * accumulates in the persistence context. Must be consumed and closed inside a transaction.
+     */
+    @Query("select new com.example.ordertaking.dto.OrderExportRow(" +
+           "o.id, o.orderDate, c.id, c.firstName, c.lastName, c.email, oi.id, v.name, oi.quantity) " +
+           "from OrderItem oi " +
+           "join oi.order o " +
+           "join o.customer c " +
+           "join oi.vegetable v " +
+           "where o.orderDate between :from and :to " +
+           "order by o.orderDate asc, o.id asc, oi.id asc")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<OrderExportRow> streamExportRows(LocalDate from, LocalDate to);
+
+    /**
+     * Forward-only cursor over one day's order lines, sorted by address and then customer so each
+     * customer's lines are contiguous. Must be consumed and closed inside a transaction.
+     */
+    @Query("select new com.example.ordertaking.dto.PickMatrixLine(" +
+           "c.id, c.firstName, c.lastName, c.address, v.id, v.name, oi.quantity) " +
+           "from OrderItem oi " +
+           "join oi.order o " +
+           "join o.customer c " +
+           "join oi.vegetable v " +
+           "where o.orderDate = :date " +
+           "order by c.address asc, c.lastName asc, c.firstName asc, c.id asc")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<PickMatrixLine> streamPickMatrixLines(LocalDate date);
+}
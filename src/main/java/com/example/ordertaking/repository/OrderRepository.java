@@ -1,11 +1,66 @@
 package com.example.ordertaking.repository;
 
+import com.example.ordertaking.dto.OrderHistoryEntry;
 import com.example.ordertaking.entity.OrderHeader;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<OrderHeader, Long> {
+    // Line counts and totals come from correlated subqueries, evaluated only for the rows of the page
+    String HISTORY_SELECT = "select new com.example.ordertaking.dto.OrderHistoryEntry(o.id, o.orderDate, " +
+            "(select count(i) from OrderItem i where i.order = o), " +
+            "(select coalesce(sum(i.quantity), 0L) from OrderItem i where i.order = o)) " +
+            "from OrderHeader o where o.customer.id = :customerId ";
+
     List<OrderHeader> findByOrderDate(LocalDate date);
-}
\ No newline at end of file
+
+    /**
+     * Loads the day's orders with customer, items and item vegetables in a single statement,
+     * for views that walk the whole graph (e.g. orders/final.html).
+     */
+    @Query("select distinct o from OrderHeader o " +
+           "join fetch o.customer " +
+           "left join fetch o.items i " +
+           "left join fetch i.vegetable " +
+           "where o.orderDate = :date " +
+           "order by o.id asc")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<OrderHeader> findWithItemsByOrderDate(LocalDate date);
+
+    @Query("select o.orderDate from OrderHeader o where o.id = :id")
+    Optional<LocalDate> findOrderDateById(Long id);
+
+    @Query("select o.id from OrderHeader o where o.submissionKey = :key")
+    Optional<Long> findIdBySubmissionKey(String key);
+
+    /** {@code [submissionKey, id]} pairs of the orders already stored for {@code keys}. */
+    @Query("select o.submissionKey, o.id from OrderHeader o where o.submissionKey in :keys")
+    List<Object[]> findIdsBySubmissionKeys(Collection<String> keys);
+
+    // A customer's orders, newest first, keyset-paginated on (orderDate, id) over idx_orders_customer_date.
+    // The first conjunct bounds the index range; the second only filters the cursor's own date. The
+    // constant customer id leads the sort so H2, too, sees that the index already has the page's order.
+    // Pass a Pageable only to limit the page size.
+    @Query(HISTORY_SELECT + "order by o.customer.id, o.orderDate desc, o.id desc")
+    List<OrderHistoryEntry> findHistory(long customerId, Pageable limit);
+
+    @Query(HISTORY_SELECT + "and o.orderDate <= :date and (o.orderDate < :date or o.id < :id) " +
+           "order by o.customer.id, o.orderDate desc, o.id desc")
+    List<OrderHistoryEntry> findHistoryOlderThan(long customerId, LocalDate date, long id, Pageable limit);
+
+    /**
+     * The page before a cursor, oldest first. MySQL reads the index backwards for it; H2 cannot and
+     * sorts the newer orders instead, so paging back is only flat on MySQL.
+     */
+    @Query(HISTORY_SELECT + "and o.orderDate >= :date and (o.orderDate > :date or o.id > :id) " +
+           "order by o.customer.id, o.orderDate asc, o.id asc")
+    List<OrderHistoryEntry> findHistoryNewerThan(long customerId, LocalDate date, long id, Pageable limit);
+}
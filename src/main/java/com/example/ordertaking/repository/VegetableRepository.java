@@ -2,7 +2,13 @@ package com.example.ordertaking.repository;
 
 import com.example.ordertaking.entity.Vegetable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface VegetableRepository extends JpaRepository<Vegetable, Long> {
     boolean existsByNameIgnoreCase(String name);
+
+    @Query("select v.name from Vegetable v")
+    List<String> findAllNames();
 }
\ No newline at end of file
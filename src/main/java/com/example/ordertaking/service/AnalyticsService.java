@@ -0,0 +1,90 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.AnalyticsReport;
+import com.example.ordertaking.dto.DailyBucket;
+import com.example.ordertaking.repository.DailyCustomerTotalRepository;
+import com.example.ordertaking.repository.DailyVegetableTotalRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vegetable x period and customer x period totals, rolled up on demand from the daily buckets
+ * maintained by {@link DailyRollupService}. Cost depends on days x active keys, never on order volume.
+ */
+@Service
+public class AnalyticsService {
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        public LocalDate periodStart(LocalDate date) {
+            switch (this) {
+                case WEEK: return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH: return date.withDayOfMonth(1);
+                default: return date;
+            }
+        }
+
+        public LocalDate next(LocalDate periodStart) {
+            switch (this) {
+                case WEEK: return periodStart.plusWeeks(1);
+                case MONTH: return periodStart.plusMonths(1);
+                default: return periodStart.plusDays(1);
+            }
+        }
+    }
+
+    private final DailyVegetableTotalRepository vegetableTotalRepo;
+    private final DailyCustomerTotalRepository customerTotalRepo;
+
+    public AnalyticsService(DailyVegetableTotalRepository vegetableTotalRepo,
+                            DailyCustomerTotalRepository customerTotalRepo) {
+        this.vegetableTotalRepo = vegetableTotalRepo;
+        this.customerTotalRepo = customerTotalRepo;
+    }
+
+    /**
+     * @param customerLimit keep only the customers with the largest totals over the range
+     */
+    @Transactional(readOnly = true)
+    public AnalyticsReport report(LocalDate from, LocalDate to, Granularity granularity, int customerLimit) {
+        List<LocalDate> periods = new ArrayList<>();
+        for (var p = granularity.periodStart(from); !p.isAfter(to); p = granularity.next(p)) {
+            periods.add(p);
+        }
+        Map<LocalDate, Integer> periodIndex = new HashMap<>();
+        for (int i = 0; i < periods.size(); i++) {
+            for (var day = periods.get(i); day.isBefore(granularity.next(periods.get(i))); day = day.plusDays(1)) {
+                periodIndex.put(day, i);
+            }
+        }
+
+        var vegetables = rollUp(vegetableTotalRepo.findBuckets(from, to), periodIndex, periods.size());
+        vegetables.sort(Comparator.comparing(AnalyticsReport.Row::getLabel));
+        var customers = rollUp(customerTotalRepo.findBuckets(from, to), periodIndex, periods.size());
+        customers.sort(Comparator.comparingLong(AnalyticsReport.Row::getTotal).reversed()
+                .thenComparing(AnalyticsReport.Row::getLabel));
+        if (customers.size() > customerLimit) {
+            customers = new ArrayList<>(customers.subList(0, customerLimit));
+        }
+        return new AnalyticsReport(periods, vegetables, customers);
+    }
+
+    private static List<AnalyticsReport.Row> rollUp(List<DailyBucket> buckets, Map<LocalDate, Integer> periodIndex, int periods) {
+        Map<Long, AnalyticsReport.Row> rows = new HashMap<>();
+        for (var b : buckets) {
+            rows.computeIfAbsent(b.getKey(), k -> new AnalyticsReport.Row(k, b.getLabel(), periods))
+                .add(periodIndex.get(b.getDate()), b.getQuantity());
+        }
+        return new ArrayList<>(rows.values());
+    }
+}
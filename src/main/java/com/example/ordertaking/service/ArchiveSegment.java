@@ -0,0 +1,158 @@
+package com.example.ordertaking.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One archived month of order lines in a read-only, memory-mapped columnar file. Lines are sorted by
+ * order date, order id and item id. Layout (little-endian):
+ * <pre>
+ *   int magic, int version, int firstEpochDay, int days, int rows, int customers, int vegetables
+ *   int[days + 1]   first row of each day (the last entry is {@code rows})
+ *   long[customers] customer id dictionary
+ *   long[vegetables] vegetable id dictionary
+ *   long[rows] order id | long[rows] item id | int[rows] customer code | int[rows] vegetable code | int[rows] quantity
+ * </pre>
+ * A summary reads just the day index and the columns it needs; customer and vegetable ids are stored
+ * once per month and referenced by their position in the dictionary.
+ */
+final class ArchiveSegment {
+
+    static final int MAGIC = 0x4F524441; // "ORDA"
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 7 * Integer.BYTES;
+
+    private final YearMonth month;
+    private final MappedByteBuffer data;
+    private final int firstEpochDay;
+    private final int days;
+    private final int rows;
+    private final int customers;
+    private final int vegetables;
+
+    private final int dayIndexAt;
+    private final int customerDictAt;
+    private final int vegetableDictAt;
+    private final int orderIdAt;
+    private final int itemIdAt;
+    private final int customerAt;
+    private final int vegetableAt;
+    private final int quantityAt;
+
+    private ArchiveSegment(YearMonth month, MappedByteBuffer data) {
+        this.month = month;
+        this.data = data;
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not an order archive segment (version " + VERSION + "): " + month);
+        }
+        this.firstEpochDay = data.getInt(8);
+        this.days = data.getInt(12);
+        this.rows = data.getInt(16);
+        this.customers = data.getInt(20);
+        this.vegetables = data.getInt(24);
+        this.dayIndexAt = HEADER_BYTES;
+        this.customerDictAt = dayIndexAt + (days + 1) * Integer.BYTES;
+        this.vegetableDictAt = customerDictAt + customers * Long.BYTES;
+        this.orderIdAt = vegetableDictAt + vegetables * Long.BYTES;
+        this.itemIdAt = orderIdAt + rows * Long.BYTES;
+        this.customerAt = itemIdAt + rows * Long.BYTES;
+        this.vegetableAt = customerAt + rows * Integer.BYTES;
+        this.quantityAt = vegetableAt + rows * Integer.BYTES;
+        if (quantityAt + (long) rows * Integer.BYTES != data.capacity()) {
+            throw new IllegalStateException("Truncated order archive segment: " + month);
+        }
+    }
+
+    /** Maps an existing segment file; the mapping stays valid after the channel is closed. */
+    static ArchiveSegment open(YearMonth month, Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            data.order(ByteOrder.LITTLE_ENDIAN);
+            return new ArchiveSegment(month, data);
+        }
+    }
+
+    YearMonth month() {return month;}
+    int rows() {return rows;}
+    int customers() {return customers;}
+    int vegetables() {return vegetables;}
+
+    /**
+     * Rows of {@code date} are {@code [firstRow(date), firstRow(date + 1))}. Valid from the first day of
+     * the month up to the first day of the next.
+     */
+    int firstRow(LocalDate date) {
+        return dayStart((int) date.toEpochDay() - firstEpochDay);
+    }
+
+    private int dayStart(int day) {
+        return data.getInt(dayIndexAt + day * Integer.BYTES);
+    }
+
+    long customerId(int code) {return data.getLong(customerDictAt + code * Long.BYTES);}
+    long vegetableId(int code) {return data.getLong(vegetableDictAt + code * Long.BYTES);}
+
+    long orderId(int row) {return data.getLong(orderIdAt + row * Long.BYTES);}
+    long itemId(int row) {return data.getLong(itemIdAt + row * Long.BYTES);}
+    int customerCode(int row) {return data.getInt(customerAt + row * Integer.BYTES);}
+    int vegetableCode(int row) {return data.getInt(vegetableAt + row * Integer.BYTES);}
+    int quantity(int row) {return data.getInt(quantityAt + row * Integer.BYTES);}
+
+    /**
+     * Builds a segment image from lines sorted by date, order id and item id. Each line is
+     * {@code {epochDay, orderId, customerId, itemId, vegetableId, quantity}}.
+     */
+    static ByteBuffer encode(YearMonth month, long[][] lines) {
+        int firstEpochDay = (int) month.atDay(1).toEpochDay();
+        int days = month.lengthOfMonth();
+        int rows = lines.length;
+        Map<Long, Integer> customerCodes = new HashMap<>();
+        Map<Long, Integer> vegetableCodes = new HashMap<>();
+        int[] customerCode = new int[rows];
+        int[] vegetableCode = new int[rows];
+        int[] dayStart = new int[days + 1];
+        for (int r = 0; r < rows; r++) {
+            var line = lines[r];
+            int day = (int) line[0] - firstEpochDay;
+            if (day < 0 || day >= days) throw new IllegalArgumentException("Line outside " + month + ": order " + line[1]);
+            dayStart[day + 1]++;
+            customerCode[r] = customerCodes.computeIfAbsent(line[2], id -> customerCodes.size());
+            vegetableCode[r] = vegetableCodes.computeIfAbsent(line[4], id -> vegetableCodes.size());
+        }
+        for (int d = 0; d < days; d++) {
+            dayStart[d + 1] += dayStart[d];
+        }
+        long size = HEADER_BYTES + (days + 1L) * Integer.BYTES
+                + (customerCodes.size() + vegetableCodes.size()) * (long) Long.BYTES
+                + rows * (2L * Long.BYTES + 3L * Integer.BYTES);
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Month too large for one segment: " + month);
+        var buf = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(firstEpochDay).putInt(days).putInt(rows)
+                .putInt(customerCodes.size()).putInt(vegetableCodes.size());
+        Arrays.stream(dayStart).forEach(buf::putInt);
+        putDictionary(buf, customerCodes);
+        putDictionary(buf, vegetableCodes);
+        for (var line : lines) buf.putLong(line[1]);
+        for (var line : lines) buf.putLong(line[3]);
+        for (int code : customerCode) buf.putInt(code);
+        for (int code : vegetableCode) buf.putInt(code);
+        for (var line : lines) buf.putInt(Math.toIntExact(line[5]));
+        return buf.flip();
+    }
+
+    private static void putDictionary(ByteBuffer buf, Map<Long, Integer> codes) {
+        long[] ids = new long[codes.size()];
+        codes.forEach((id, code) -> ids[code] = id);
+        for (long id : ids) buf.putLong(id);
+    }
+}
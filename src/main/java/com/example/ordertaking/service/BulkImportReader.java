@@ -0,0 +1,156 @@
+package com.example.ordertaking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Pulls reference data rows (customers, vegetables) from an import payload one line at a time, the
+ * same way {@link BulkOrderReader} does for orders. Lines that cannot be parsed come back as rows
+ * carrying an error.
+ * <ul>
+ *   <li>{@link Format#NDJSON}: one JSON object per line, e.g. {@code {"name":"Leek"}}</li>
+ *   <li>{@link Format#CSV}: one row per line in the given column order; fields containing commas or
+ *       quotes are quoted with {@code "} and inner quotes doubled. Fields cannot span lines. A leading
+ *       header row (first cell equal to the first column name) is skipped.</li>
+ * </ul>
+ */
+public class BulkImportReader<T> implements Iterator<BulkImportReader.Row<T>> {
+
+    public enum Format { NDJSON, CSV }
+
+    private final BufferedReader in;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final List<String> columns;
+    private final Function<String[], T> fromCsv;
+
+    private long lineNumber;
+    private Row<T> next;
+
+    /**
+     * @param columns CSV column names, in order
+     * @param fromCsv builds a value from the CSV fields of one row, in {@code columns} order
+     */
+    public BulkImportReader(BufferedReader in, Format format, ObjectMapper objectMapper,
+                            Class<T> type, List<String> columns, Function<String[], T> fromCsv) {
+        this.in = in;
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.columns = columns;
+        this.fromCsv = fromCsv;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = read();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Row<T> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        var row = next;
+        next = null;
+        return row;
+    }
+
+    private Row<T> read() {
+        var line = readLine();
+        if (line == null) return null;
+        if (format == Format.NDJSON) {
+            try {
+                var value = objectMapper.readValue(line, type);
+                return value == null ? new Row<>(lineNumber, null, "Expected a JSON object") : new Row<>(lineNumber, value, null);
+            } catch (JsonProcessingException e) {
+                return new Row<>(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        var fields = split(line);
+        if (lineNumber == 1 && fields != null && fields[0].trim().equalsIgnoreCase(columns.get(0))) {
+            return read();
+        }
+        if (fields == null) {
+            return new Row<>(lineNumber, null, "Unterminated quoted field");
+        }
+        if (fields.length != columns.size()) {
+            return new Row<>(lineNumber, null, "Expected " + columns.size() + " columns: " + String.join(",", columns));
+        }
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+        return new Row<>(lineNumber, fromCsv.apply(fields), null);
+    }
+
+    private String readLine() {
+        try {
+            String line;
+            do {
+                line = in.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Splits one CSV line, honouring quotes; {@code null} if a quote is left open. */
+    static String[] split(String line) {
+        List<String> fields = new ArrayList<>();
+        var field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) return null;
+        fields.add(field.toString());
+        return fields.toArray(String[]::new);
+    }
+
+    /** A parsed value, or the reason the line could not be parsed. */
+    public static final class Row<T> {
+        private final long lineNumber;
+        private final T value;
+        private final String error;
+
+        Row(long lineNumber, T value, String error) {
+            this.lineNumber = lineNumber;
+            this.value = value;
+            this.error = error;
+        }
+
+        public long getLineNumber() {return lineNumber;}
+        public T getValue() {return value;}
+        public String getError() {return error;}
+    }
+}
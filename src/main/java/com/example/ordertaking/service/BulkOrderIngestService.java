@@ -0,0 +1,195 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.BulkIngestSummary;
+import com.example.ordertaking.dto.BulkOrderRecord;
+import com.example.ordertaking.dto.BulkOrderResult;
+import com.example.ordertaking.entity.OrderHeader;
+import com.example.ordertaking.entity.OrderItem;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Streams a bulk order payload into the database in chunked transactions. Each chunk validates its
+ * customers with one id query (memoized for the request) and its vegetables through the
+ * {@link VegetableCatalog}, then inserts all valid orders with JDBC batching and applies one rollup
+ * batch. If a chunk fails to commit, its orders are retried one per transaction so only the
+ * offending records are reported as failed.
+ */
+@Service
+public class BulkOrderIngestService {
+
+    private final CustomerRepository customerRepo;
+    private final VegetableCatalog catalog;
+    private final DailyRollupService rollupService;
+    private final OrderPageCache pageCache;
+    private final EntityManager entityManager;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public BulkOrderIngestService(CustomerRepository customerRepo,
+                                  VegetableCatalog catalog,
+                                  DailyRollupService rollupService,
+                                  OrderPageCache pageCache,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.bulk.chunk-size:500}") int chunkSize) {
+        this.customerRepo = customerRepo;
+        this.catalog = catalog;
+        this.rollupService = rollupService;
+        this.pageCache = pageCache;
+        this.entityManager = entityManager;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkIngestSummary ingest(BufferedReader in, BulkOrderReader.Format format, Consumer<BulkOrderResult> sink) {
+        long start = System.nanoTime();
+        var summary = new BulkIngestSummary();
+        Consumer<Outcome> report = o -> {
+            summary.count(o.result, o.record.getItems() == null ? 0 : o.record.getItems().size());
+            sink.accept(o.result);
+        };
+        Set<Long> knownCustomers = new HashSet<>();
+        var reader = new BulkOrderReader(in, format, objectMapper);
+        List<BulkOrderRecord> chunk = new ArrayList<>(chunkSize);
+        while (reader.hasNext()) {
+            var record = reader.next();
+            if (record.getError() != null) {
+                report.accept(new Outcome(record, BulkOrderResult.rejected(record, record.getError())));
+                continue;
+            }
+            chunk.add(record);
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, knownCustomers).forEach(report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, knownCustomers).forEach(report);
+        }
+        summary.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return summary;
+    }
+
+    private List<Outcome> processChunk(List<BulkOrderRecord> chunk, Set<Long> knownCustomers) {
+        Set<Long> unknownCustomers = new HashSet<>();
+        Set<Long> vegetableIds = new HashSet<>();
+        for (var record : chunk) {
+            if (record.getCustomerId() != null && !knownCustomers.contains(record.getCustomerId())) {
+                unknownCustomers.add(record.getCustomerId());
+            }
+            if (record.getItems() == null) continue;
+            for (var line : record.getItems()) {
+                if (line != null && line.getVegetableId() != null) vegetableIds.add(line.getVegetableId());
+            }
+        }
+        if (!unknownCustomers.isEmpty()) {
+            knownCustomers.addAll(customerRepo.findExistingIds(unknownCustomers));
+        }
+        Map<Long, Vegetable> vegetables = catalog.findAllById(vegetableIds);
+
+        List<Outcome> outcomes = new ArrayList<>(chunk.size());
+        List<Outcome> valid = new ArrayList<>(chunk.size());
+        for (var record : chunk) {
+            var error = validate(record, knownCustomers, vegetables);
+            var outcome = new Outcome(record, error == null ? null : BulkOrderResult.rejected(record, error));
+            outcomes.add(outcome);
+            if (error == null) valid.add(outcome);
+        }
+        if (valid.isEmpty()) return outcomes;
+
+        try {
+            tx.executeWithoutResult(status -> persist(valid, vegetables));
+        } catch (RuntimeException chunkFailure) {
+            for (var outcome : valid) {
+                try {
+                    tx.executeWithoutResult(status -> persist(List.of(outcome), vegetables));
+                } catch (RuntimeException e) {
+                    outcome.result = BulkOrderResult.failed(outcome.record, rootMessage(e));
+                }
+            }
+        }
+        return outcomes;
+    }
+
+    private void persist(List<Outcome> outcomes, Map<Long, Vegetable> vegetables) {
+        var deltas = new RollupDeltas();
+        Set<LocalDate> dates = new HashSet<>();
+        List<OrderHeader> orders = new ArrayList<>(outcomes.size());
+        for (var outcome : outcomes) {
+            var record = outcome.record;
+            var order = new OrderHeader(customerRepo.getReferenceById(record.getCustomerId()), record.getOrderDate());
+            for (var line : record.getItems()) {
+                order.addItem(new OrderItem(vegetables.get(line.getVegetableId()), line.getQuantity(), null));
+            }
+            entityManager.persist(order);
+            orders.add(order);
+            deltas.add(order, 1);
+            dates.add(order.getOrderDate());
+        }
+        rollupService.applyDeltas(deltas);
+        pageCache.touch(dates.toArray(LocalDate[]::new));
+        entityManager.flush();
+        entityManager.clear();
+        for (int i = 0; i < outcomes.size(); i++) {
+            outcomes.get(i).result = BulkOrderResult.created(outcomes.get(i).record, orders.get(i).getId());
+        }
+    }
+
+    private static String validate(BulkOrderRecord record, Set<Long> knownCustomers, Map<Long, Vegetable> vegetables) {
+        if (record.getCustomerId() == null || !knownCustomers.contains(record.getCustomerId())) {
+            return "Unknown customer id: " + record.getCustomerId();
+        }
+        if (record.getOrderDate() == null) {
+            return "Order date is required";
+        }
+        if (record.getItems() == null || record.getItems().isEmpty()) {
+            return "At least one item is required";
+        }
+        for (var line : record.getItems()) {
+            if (line == null) {
+                return "Item lines must be objects";
+            }
+            if (line.getVegetableId() == null || !vegetables.containsKey(line.getVegetableId())) {
+                return "Unknown vegetable id: " + line.getVegetableId();
+            }
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                return "Quantity must be at least 1 for vegetable id " + line.getVegetableId();
+            }
+        }
+        return null;
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null && e.getCause() != e) e = e.getCause();
+        return e.getMessage();
+    }
+
+    private static final class Outcome {
+        final BulkOrderRecord record;
+        BulkOrderResult result;
+
+        Outcome(BulkOrderRecord record, BulkOrderResult result) {
+            this.record = record;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.BulkOrderRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Pulls {@link BulkOrderRecord}s from a payload one line at a time, so memory use does not depend on
+ * payload size. Lines that cannot be parsed come back as records carrying an error instead of
+ * aborting the stream.
+ * <ul>
+ *   <li>{@link Format#NDJSON}: one JSON order per line,
+ *       {@code {"ref":"A1","customerId":1,"orderDate":"2025-01-01","items":[{"vegetableId":2,"quantity":5}]}}</li>
+ *   <li>{@link Format#CSV}: one order line per row, {@code ref,customerId,orderDate,vegetableId,quantity};
+ *       consecutive rows with the same ref form one order, rejected as a whole if any of its rows is
+ *       malformed. A leading header row is skipped.</li>
+ * </ul>
+ */
+public class BulkOrderReader implements Iterator<BulkOrderRecord> {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String COLUMNS_ERROR = "Expected 5 columns: ref,customerId,orderDate,vegetableId,quantity";
+
+    private final BufferedReader in;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+
+    private long lineNumber;
+    private BulkOrderRecord next;
+    private String[] pendingRow;
+    private long pendingLine;
+    private boolean eof;
+
+    public BulkOrderReader(BufferedReader in, Format format, ObjectMapper objectMapper) {
+        this.in = in;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = format == Format.CSV ? readCsvOrder() : readJsonOrder();
+        }
+        return next != null;
+    }
+
+    @Override
+    public BulkOrderRecord next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        var record = next;
+        next = null;
+        return record;
+    }
+
+    private String readLine() {
+        if (eof) return null;
+        try {
+            String line;
+            do {
+                line = in.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            if (line == null) eof = true;
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BulkOrderRecord readJsonOrder() {
+        var line = readLine();
+        if (line == null) return null;
+        try {
+            var record = objectMapper.readValue(line, BulkOrderRecord.class);
+            if (record == null) return BulkOrderRecord.unparseable(lineNumber, "Expected a JSON object");
+            record.setLineNumber(lineNumber);
+            record.setError(null);
+            return record;
+        } catch (JsonProcessingException e) {
+            return BulkOrderRecord.unparseable(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private BulkOrderRecord readCsvOrder() {
+        String[] row = pendingRow;
+        long rowLine = pendingLine;
+        pendingRow = null;
+        if (row == null) {
+            var line = readLine();
+            if (line == null) return null;
+            if (lineNumber == 1 && line.regionMatches(true, 0, "ref,", 0, 4)) {
+                line = readLine();
+                if (line == null) return null;
+            }
+            row = line.split(",", -1);
+            rowLine = lineNumber;
+        }
+
+        // A group is only over at a row with another ref, even when some of its rows do not parse,
+        // so a bad row rejects its whole order rather than splitting the rest off as a partial one
+        var record = new BulkOrderRecord();
+        record.setLineNumber(rowLine);
+        record.setRef(row[0].trim());
+        String groupError = null;
+        if (row.length != 5) {
+            groupError = COLUMNS_ERROR;
+        } else {
+            try {
+                record.setCustomerId(Long.valueOf(row[1].trim()));
+                record.setOrderDate(LocalDate.parse(row[2].trim()));
+                record.getItems().add(parseCsvLine(row));
+            } catch (RuntimeException e) {
+                groupError = "Malformed CSV row: " + e.getMessage();
+            }
+        }
+
+        String line;
+        while ((line = readLine()) != null) {
+            var following = line.split(",", -1);
+            if (!following[0].trim().equals(record.getRef())) {
+                pendingRow = following;
+                pendingLine = lineNumber;
+                break;
+            }
+            if (groupError != null) continue;
+            if (following.length != 5) {
+                groupError = COLUMNS_ERROR + " (line " + lineNumber + ")";
+                continue;
+            }
+            try {
+                record.getItems().add(parseCsvLine(following));
+            } catch (RuntimeException e) {
+                groupError = "Malformed CSV row at line " + lineNumber + ": " + e.getMessage();
+            }
+        }
+        if (groupError != null) {
+            var rejected = BulkOrderRecord.unparseable(rowLine, groupError);
+            rejected.setRef(record.getRef());
+            return rejected;
+        }
+        return record;
+    }
+
+    private static BulkOrderRecord.Line parseCsvLine(String[] row) {
+        return new BulkOrderRecord.Line(Long.valueOf(row[3].trim()), Integer.valueOf(row[4].trim()));
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.RollupDiscrepancy;
+import com.example.ordertaking.dto.VegetableSummary;
+import com.example.ordertaking.entity.OrderHeader;
+import com.example.ordertaking.repository.DailyCustomerTotalRepository;
+import com.example.ordertaking.repository.DailyVegetableTotalRepository;
+import com.example.ordertaking.repository.OrderItemRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@code daily_vegetable_totals} and {@code daily_customer_totals} rollups in step with order writes. The write-side
+ * methods must run inside the caller's transaction so the rollup and the order commit together. Committed
+ * changes are passed on to {@link LiveOrderTotals}.
+ * <p>
+ * Dates moved to the {@link OrderArchive} are read-only: writes to them are refused, and rebuilds and
+ * checks read their order lines from the archive instead of order_items.
+ */
+@Service
+public class DailyRollupService {
+
+    // Increment-or-insert, so two transactions creating the same key cannot both insert it. Parameters: the
+    // increments, then the key columns; MySQL takes the increments again for the update. H2's MERGE only
+    // checks for the row first, so there the loser of a concurrent insert retries (see mergeBatch).
+    private static final String UPSERT_VEGETABLE_MYSQL =
+            "insert into daily_vegetable_totals (total_quantity, order_date, vegetable_id) values (?, ?, ?) " +
+            "on duplicate key update total_quantity = total_quantity + ?";
+    private static final String UPSERT_VEGETABLE_H2 =
+            "merge into daily_vegetable_totals t " +
+            "using (values (cast(? as bigint), cast(? as date), cast(? as bigint))) d (q, order_date, vegetable_id) " +
+            "on t.order_date = d.order_date and t.vegetable_id = d.vegetable_id " +
+            "when matched then update set total_quantity = t.total_quantity + d.q " +
+            "when not matched then insert (total_quantity, order_date, vegetable_id) values (d.q, d.order_date, d.vegetable_id)";
+    private static final String UPSERT_CUSTOMER_MYSQL =
+            "insert into daily_customer_totals (total_quantity, order_count, order_date, customer_id) values (?, ?, ?, ?) " +
+            "on duplicate key update total_quantity = total_quantity + ?, order_count = order_count + ?";
+    private static final String UPSERT_CUSTOMER_H2 =
+            "merge into daily_customer_totals t " +
+            "using (values (cast(? as bigint), cast(? as bigint), cast(? as date), cast(? as bigint))) d (q, n, order_date, customer_id) " +
+            "on t.order_date = d.order_date and t.customer_id = d.customer_id " +
+            "when matched then update set total_quantity = t.total_quantity + d.q, order_count = t.order_count + d.n " +
+            "when not matched then insert (total_quantity, order_count, order_date, customer_id) " +
+            "values (d.q, d.n, d.order_date, d.customer_id)";
+    // Rows that dropped to zero go, so they neither linger nor pin their customer / vegetable (FK)
+    private static final String DELETE_EMPTY_VEGETABLE_SQL =
+            "delete from daily_vegetable_totals where order_date = ? and vegetable_id = ? and total_quantity = 0";
+    private static final String DELETE_EMPTY_CUSTOMER_SQL =
+            "delete from daily_customer_totals where order_date = ? and customer_id = ? " +
+            "and total_quantity = 0 and order_count = 0";
+
+    private final DailyVegetableTotalRepository totalRepo;
+    private final DailyCustomerTotalRepository customerTotalRepo;
+    private final OrderItemRepository orderItemRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final LiveOrderTotals liveTotals;
+    private final OrderArchive archive;
+    private final VegetableCatalog catalog;
+    private volatile Boolean mysql;
+
+    public DailyRollupService(DailyVegetableTotalRepository totalRepo,
+                              DailyCustomerTotalRepository customerTotalRepo,
+                              OrderItemRepository orderItemRepo,
+                              JdbcTemplate jdbcTemplate,
+                              LiveOrderTotals liveTotals,
+                              OrderArchive archive,
+                              VegetableCatalog catalog) {
+        this.totalRepo = totalRepo;
+        this.customerTotalRepo = customerTotalRepo;
+        this.orderItemRepo = orderItemRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.liveTotals = liveTotals;
+        this.archive = archive;
+        this.catalog = catalog;
+    }
+
+    @Transactional(readOnly = true)
+    public List<VegetableSummary> summarizeByDate(LocalDate date) {
+        return totalRepo.summarizeByDate(date);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrder(OrderHeader order) {
+        applyDeltas(RollupDeltas.of(order, 1));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeOrder(OrderHeader order) {
+        applyDeltas(RollupDeltas.of(order, -1));
+    }
+
+    /**
+     * Applies the deltas to each rollup as one JDBC batch of upserts, then deletes the rows a
+     * decrement brought down to zero.
+     *
+     * @throws IllegalArgumentException if a delta falls on an archived date
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDeltas(RollupDeltas deltas) {
+        var archivedBefore = archive.archivedBefore();
+        if (archivedBefore != null) {
+            for (var id : deltas.customers().keySet()) {
+                if (id.getOrderDate().isBefore(archivedBefore)) {
+                    throw new IllegalArgumentException("Orders before " + archivedBefore + " are archived and read-only");
+                }
+            }
+        }
+        List<Object[]> vegetableRows = new ArrayList<>();
+        List<Object[]> vegetablesDown = new ArrayList<>();
+        deltas.vegetables().forEach((id, delta) -> {
+            if (delta != 0) vegetableRows.add(new Object[]{delta, id.getOrderDate(), id.getVegetableId()});
+            if (delta < 0) vegetablesDown.add(new Object[]{id.getOrderDate(), id.getVegetableId()});
+        });
+        upsertVegetables(vegetableRows);
+
+        List<Object[]> customerRows = new ArrayList<>();
+        List<Object[]> customersDown = new ArrayList<>();
+        deltas.customers().forEach((id, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                customerRows.add(new Object[]{delta[0], delta[1], id.getOrderDate(), id.getCustomerId()});
+            }
+            if (delta[0] < 0 || delta[1] < 0) customersDown.add(new Object[]{id.getOrderDate(), id.getCustomerId()});
+        });
+        upsertCustomers(customerRows);
+        if (!vegetablesDown.isEmpty()) jdbcTemplate.batchUpdate(DELETE_EMPTY_VEGETABLE_SQL, vegetablesDown);
+        if (!customersDown.isEmpty()) jdbcTemplate.batchUpdate(DELETE_EMPTY_CUSTOMER_SQL, customersDown);
+        afterCommit(() -> liveTotals.apply(deltas));
+    }
+
+    /** Rows of {quantity, date, vegetable id}. */
+    private void upsertVegetables(List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        if (isMysql()) {
+            jdbcTemplate.batchUpdate(UPSERT_VEGETABLE_MYSQL, rows.stream()
+                    .map(r -> new Object[]{r[0], r[1], r[2], r[0]}).collect(Collectors.toList()));
+        } else {
+            mergeBatch(UPSERT_VEGETABLE_H2, rows);
+        }
+    }
+
+    /** Rows of {quantity, order count, date, customer id}. */
+    private void upsertCustomers(List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        if (isMysql()) {
+            jdbcTemplate.batchUpdate(UPSERT_CUSTOMER_MYSQL, rows.stream()
+                    .map(r -> new Object[]{r[0], r[1], r[2], r[3], r[0], r[1]}).collect(Collectors.toList()));
+        } else {
+            mergeBatch(UPSERT_CUSTOMER_H2, rows);
+        }
+    }
+
+    /**
+     * One batch of MERGEs under a savepoint. A key another transaction inserted first fails the batch (after
+     * H2 has waited for that transaction); it is then undone and replayed row by row, where the retried
+     * statement finds the now committed row and adds to it.
+     */
+    private void mergeBatch(String sql, List<Object[]> rows) {
+        Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+        try {
+            jdbcTemplate.batchUpdate(sql, rows);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                connection.rollback(savepoint);
+                return null;
+            });
+            for (Object[] row : rows) {
+                try {
+                    jdbcTemplate.update(sql, row);
+                } catch (DuplicateKeyException again) {
+                    jdbcTemplate.update(sql, row);
+                }
+            }
+        }
+    }
+
+    /** MySQL in production, H2 (MERGE) in development and tests; looked up once. */
+    private boolean isMysql() {
+        var mysql = this.mysql;
+        if (mysql == null) {
+            mysql = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql"));
+            this.mysql = mysql;
+        }
+        return mysql;
+    }
+
+    /** Drops and recomputes every rollup row from order_items and the archive. */
+    @Transactional
+    public int rebuildAll() {
+        totalRepo.deleteAllInBatch();
+        customerTotalRepo.deleteAllInBatch();
+        afterCommit(liveTotals::reload);
+        return totalRepo.backfillAll() + customerTotalRepo.backfillAll() + backfillArchived(LocalDate.MIN, LocalDate.MAX);
+    }
+
+    /** Drops and recomputes the rollup rows for an inclusive date range. */
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        totalRepo.deleteByOrderDateBetween(from, to);
+        customerTotalRepo.deleteByOrderDateBetween(from, to);
+        afterCommit(liveTotals::reload);
+        return totalRepo.backfillBetween(from, to) + customerTotalRepo.backfillBetween(from, to) + backfillArchived(from, to);
+    }
+
+    /** Rollup rows of the archived dates in an inclusive range, aggregated from the archive segments. */
+    private int backfillArchived(LocalDate from, LocalDate to) {
+        var archivedBefore = archive.archivedBefore();
+        if (archivedBefore == null) return 0;
+        var last = archivedBefore.minusDays(1).isBefore(to) ? archivedBefore.minusDays(1) : to;
+        List<Object[]> vegetableRows = new ArrayList<>();
+        archive.forEachVegetableTotal(from, last, (date, vegetableId, quantity) ->
+                vegetableRows.add(new Object[]{quantity, date, vegetableId}));
+        upsertVegetables(vegetableRows);
+        List<Object[]> customerRows = new ArrayList<>();
+        archive.forEachCustomerTotal(from, last, (date, customerId, quantity, orders) ->
+                customerRows.add(new Object[]{quantity, orders, date, customerId}));
+        upsertCustomers(customerRows);
+        return vegetableRows.size() + customerRows.size();
+    }
+
+    /**
+     * Per-vegetable totals of a date aggregated from its order lines rather than the rollup: from
+     * order_items, or from the archive for archived dates. Sorted by vegetable name.
+     */
+    @Transactional(readOnly = true)
+    public List<VegetableSummary> summarizeOrders(LocalDate date) {
+        if (!archive.isArchived(date)) {
+            return orderItemRepo.summarizeByDate(date);
+        }
+        var totals = archive.vegetableTotals(date);
+        var vegetables = catalog.findAllById(totals.keySet());
+        Map<String, Long> byName = new TreeMap<>();
+        totals.forEach((id, quantity) -> {
+            var vegetable = vegetables.get(id);
+            byName.merge(vegetable == null ? "#" + id : vegetable.getName(), quantity, Long::sum);
+        });
+        List<VegetableSummary> summary = new ArrayList<>(byName.size());
+        byName.forEach((name, quantity) -> summary.add(new VegetableSummary(name, quantity)));
+        return summary;
+    }
+
+    /** Compares the rollup for a date against the aggregate of its order lines. */
+    @Transactional(readOnly = true)
+    public List<RollupDiscrepancy> verify(LocalDate date) {
+        Map<String, Long> expected = new TreeMap<>();
+        for (var s : summarizeOrders(date)) {
+            expected.put(s.getVegetableName(), s.getTotalQuantity());
+        }
+        Map<String, Long> actual = new TreeMap<>();
+        for (var s : totalRepo.summarizeByDate(date)) {
+            actual.put(s.getVegetableName(), s.getTotalQuantity());
+        }
+        List<RollupDiscrepancy> discrepancies = new ArrayList<>();
+        for (var e : expected.entrySet()) {
+            var rolled = actual.remove(e.getKey());
+            if (!e.getValue().equals(rolled)) {
+                discrepancies.add(new RollupDiscrepancy(date, e.getKey(), e.getValue(), rolled));
+            }
+        }
+        actual.forEach((name, qty) -> discrepancies.add(new RollupDiscrepancy(date, name, null, qty)));
+        return discrepancies;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return totalRepo.count() == 0 || customerTotalRepo.count() == 0;
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
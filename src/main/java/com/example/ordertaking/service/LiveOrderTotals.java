@@ -0,0 +1,102 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.config.ReadRouting;
+import com.example.ordertaking.repository.DailyVegetableTotalRepository;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-vegetable order totals of today and later dates, kept in memory for the live final orders view
+ * so that watching them never queries the database. They are loaded from the
+ * {@code daily_vegetable_totals} rollup before the application takes orders, and then moved by the
+ * same {@link RollupDeltas} as the rollup once their transaction commits. Counters are
+ * {@link LongAdder}s, so concurrent order writers do not contend on a lock.
+ * <p>
+ * Past dates are not tracked. A rollup rebuild reloads the totals; orders committed during the reload
+ * may be missed or counted twice until the next one, so rebuild while no orders are being taken (as
+ * the startup backfill does).
+ */
+@Service
+public class LiveOrderTotals implements SmartLifecycle {
+
+    private static final LocalDate LAST_DATE = LocalDate.of(9999, 12, 31);
+
+    private final DailyVegetableTotalRepository totalRepo;
+
+    private volatile ConcurrentSkipListMap<LocalDate, ConcurrentHashMap<Long, LongAdder>> days = new ConcurrentSkipListMap<>();
+    private volatile boolean running;
+
+    public LiveOrderTotals(DailyVegetableTotalRepository totalRepo) {
+        this.totalRepo = totalRepo;
+    }
+
+    /** Adds committed rollup changes; changes to past dates are ignored. */
+    public void apply(RollupDeltas deltas) {
+        var today = LocalDate.now();
+        var current = days;
+        deltas.vegetables().forEach((id, delta) -> {
+            if (delta != 0 && !id.getOrderDate().isBefore(today)) {
+                current.computeIfAbsent(id.getOrderDate(), d -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(id.getVegetableId(), v -> new LongAdder())
+                        .add(delta);
+            }
+        });
+        current.headMap(today).clear();
+    }
+
+    /** Current non-zero totals of {@code date} by vegetable id. */
+    public Map<Long, Long> totals(LocalDate date) {
+        var counters = days.get(date);
+        if (counters == null) {
+            return Map.of();
+        }
+        Map<Long, Long> totals = new HashMap<>();
+        counters.forEach((vegetableId, counter) -> {
+            long total = counter.sum();
+            if (total != 0) totals.put(vegetableId, total);
+        });
+        return totals;
+    }
+
+    /** Replaces all totals with the rollup rows of today and later. */
+    public void reload() {
+        var today = LocalDate.now();
+        var loaded = new ConcurrentSkipListMap<LocalDate, ConcurrentHashMap<Long, LongAdder>>();
+        // The rollup must not come from a replica that has not seen the latest orders yet
+        for (var bucket : ReadRouting.onPrimary(() -> totalRepo.findBuckets(today, LAST_DATE))) {
+            loaded.computeIfAbsent(bucket.getDate(), d -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(bucket.getKey(), v -> new LongAdder())
+                    .add(bucket.getQuantity());
+        }
+        days = loaded;
+    }
+
+    @Override
+    public void start() {
+        reload();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Loaded before the web server (Integer.MAX_VALUE - 1) and the write-behind queue take orders. */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 2;
+    }
+}
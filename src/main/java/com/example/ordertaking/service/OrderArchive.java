@@ -0,0 +1,225 @@
+package com.example.ordertaking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Cold storage for orders older than the archive horizon: one {@link ArchiveSegment} file per month
+ * in {@code app.archive.dir}, written by {@link OrderArchiver} and read through memory mapping. Every
+ * date before {@link #archivedBefore()} lives here and nowhere else; such dates are read-only.
+ * <p>
+ * The directory is rescanned when its modification time changes, so instances sharing it pick up
+ * segments written by another one. Without {@code app.archive.dir} the archive is empty and off.
+ */
+@Component
+public class OrderArchive {
+
+    private static final Pattern SEGMENT = Pattern.compile("orders-(\\d{4}-\\d{2})\\.seg");
+
+    private final Path dir;
+
+    private volatile NavigableMap<YearMonth, ArchiveSegment> segments = Collections.emptyNavigableMap();
+    private volatile FileTime scannedAt;
+
+    public OrderArchive(@Value("${app.archive.dir:}") String dir) {
+        this.dir = dir.isBlank() ? null : Path.of(dir);
+    }
+
+    public boolean isEnabled() {
+        return dir != null;
+    }
+
+    /** First date that is not archived, or {@code null} while nothing is. */
+    public LocalDate archivedBefore() {
+        var current = segments();
+        return current.isEmpty() ? null : current.lastKey().plusMonths(1).atDay(1);
+    }
+
+    public boolean isArchived(LocalDate date) {
+        var before = archivedBefore();
+        return before != null && date.isBefore(before);
+    }
+
+    /** Per-vegetable quantities of one archived date. */
+    public Map<Long, Long> vegetableTotals(LocalDate date) {
+        Map<Long, Long> totals = new HashMap<>();
+        forEachVegetableTotal(date, date, (day, vegetableId, quantity) -> totals.put(vegetableId, quantity));
+        return totals;
+    }
+
+    /** Per date and vegetable quantities in an inclusive range, a day at a time. */
+    public void forEachVegetableTotal(LocalDate from, LocalDate to, TotalVisitor visitor) {
+        forEachDay(from, to, (segment, day, first, end) -> {
+            long[] sums = new long[segment.vegetables()];
+            boolean[] seen = new boolean[sums.length];
+            for (int row = first; row < end; row++) {
+                int code = segment.vegetableCode(row);
+                sums[code] += segment.quantity(row);
+                seen[code] = true;
+            }
+            for (int code = 0; code < sums.length; code++) {
+                if (seen[code]) visitor.visit(day, segment.vegetableId(code), sums[code]);
+            }
+        });
+    }
+
+    /** Per date and customer quantities and order counts in an inclusive range, a day at a time. */
+    public void forEachCustomerTotal(LocalDate from, LocalDate to, CustomerTotalVisitor visitor) {
+        forEachDay(from, to, (segment, day, first, end) -> {
+            long[] sums = new long[segment.customers()];
+            long[] orders = new long[sums.length];
+            for (int row = first; row < end; row++) {
+                int code = segment.customerCode(row);
+                sums[code] += segment.quantity(row);
+                // Lines of an order are adjacent
+                if (row == first || segment.orderId(row) != segment.orderId(row - 1)) orders[code]++;
+            }
+            for (int code = 0; code < sums.length; code++) {
+                if (orders[code] > 0) visitor.visit(day, segment.customerId(code), sums[code], orders[code]);
+            }
+        });
+    }
+
+    /** Every archived order line in an inclusive range, by date, order id and item id. */
+    public void forEachLine(LocalDate from, LocalDate to, LineVisitor visitor) {
+        forEachDay(from, to, (segment, day, first, end) -> {
+            for (int row = first; row < end; row++) {
+                visitor.visit(segment.orderId(row), day, segment.customerId(segment.customerCode(row)),
+                        segment.itemId(row), segment.vegetableId(segment.vegetableCode(row)), segment.quantity(row));
+            }
+        });
+    }
+
+    /** Ids of the customers with archived orders in an inclusive range, from the segment dictionaries. */
+    public Set<Long> customerIds(LocalDate from, LocalDate to) {
+        Set<Long> ids = new HashSet<>();
+        for (var segment : segments(from, to).values()) {
+            for (int code = 0; code < segment.customers(); code++) {
+                ids.add(segment.customerId(code));
+            }
+        }
+        return ids;
+    }
+
+    ArchiveSegment segment(YearMonth month) {
+        return segments().get(month);
+    }
+
+    /**
+     * Stores a month's segment image: written next to its final name, synced, then renamed over any
+     * previous version in one step. Readers of the old file keep their mapping.
+     */
+    void install(YearMonth month, ByteBuffer image) {
+        try {
+            Files.createDirectories(dir);
+            var target = dir.resolve("orders-" + month + ".seg");
+            var temp = dir.resolve(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            try (var channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                while (image.hasRemaining()) {
+                    channel.write(image);
+                }
+                channel.force(true);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            rescan();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write order archive segment " + month, e);
+        }
+    }
+
+    private void forEachDay(LocalDate from, LocalDate to, DayVisitor visitor) {
+        for (var segment : segments(from, to).values()) {
+            var month = segment.month();
+            var day = from.isAfter(month.atDay(1)) ? from : month.atDay(1);
+            var last = to.isBefore(month.atEndOfMonth()) ? to : month.atEndOfMonth();
+            int first = segment.firstRow(day);
+            for (; !day.isAfter(last); day = day.plusDays(1)) {
+                int end = segment.firstRow(day.plusDays(1));
+                if (end > first) visitor.visit(segment, day, first, end);
+                first = end;
+            }
+        }
+    }
+
+    private NavigableMap<YearMonth, ArchiveSegment> segments(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) return Collections.emptyNavigableMap();
+        return segments().subMap(YearMonth.from(from), true, YearMonth.from(to), true);
+    }
+
+    private NavigableMap<YearMonth, ArchiveSegment> segments() {
+        if (dir == null) return segments;
+        try {
+            var modified = Files.exists(dir) ? Files.getLastModifiedTime(dir) : null;
+            if (modified != null && !modified.equals(scannedAt)) {
+                rescan();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return segments;
+    }
+
+    private synchronized void rescan() throws IOException {
+        var modified = Files.getLastModifiedTime(dir);
+        NavigableMap<YearMonth, ArchiveSegment> found = new TreeMap<>();
+        try (var files = Files.list(dir)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                var m = SEGMENT.matcher(file.getFileName().toString());
+                if (!m.matches()) continue;
+                try {
+                    var month = YearMonth.parse(m.group(1));
+                    found.put(month, ArchiveSegment.open(month, file));
+                } catch (DateTimeParseException ignored) {
+                    // Not one of ours
+                }
+            }
+        }
+        segments = Collections.unmodifiableNavigableMap(found);
+        scannedAt = modified;
+    }
+
+    @FunctionalInterface
+    public interface TotalVisitor {
+        void visit(LocalDate date, long id, long quantity);
+    }
+
+    @FunctionalInterface
+    public interface CustomerTotalVisitor {
+        void visit(LocalDate date, long customerId, long quantity, long orderCount);
+    }
+
+    @FunctionalInterface
+    public interface LineVisitor {
+        void visit(long orderId, LocalDate date, long customerId, long itemId, long vegetableId, int quantity);
+    }
+
+    @FunctionalInterface
+    private interface DayVisitor {
+        void visit(ArchiveSegment segment, LocalDate date, int firstRow, int endRow);
+    }
+}
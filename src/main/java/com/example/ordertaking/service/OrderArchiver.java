@@ -0,0 +1,188 @@
+package com.example.ordertaking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves whole months of orders older than {@code app.archive.horizon} from {@code orders} /
+ * {@code order_items} into the {@link OrderArchive}, oldest first, every {@code app.archive.interval}.
+ * The daily rollups stay in the database.
+ * <p>
+ * Each month is one transaction: its orders and lines are locked and read, merged with the month's
+ * existing segment (if a previous run or another instance got there first), written as a new segment
+ * and deleted. The locks make concurrent edits of those orders either finish before the read or fail
+ * on the deleted rows. The segment is renamed into place before the commit, so a failed commit leaves
+ * the rows in both places and the next run folds them in again. A segment holds lines only, so a month
+ * with an order that has none is refused until that order is deleted or given lines.
+ */
+@Component
+public class OrderArchiver implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private static final String LOCK_ORDERS_SQL =
+            "select id from orders where order_date >= ? and order_date < ? for update";
+    private static final String MONTH_LINES_SQL =
+            "select o.order_date, o.id, o.customer_id, oi.id, oi.vegetable_id, oi.quantity " +
+            "from orders o join order_items oi on oi.order_id = o.id " +
+            "where o.order_date >= ? and o.order_date < ? for update";
+    private static final String DELETE_ITEMS_SQL =
+            "delete from order_items where order_id in (select id from orders where order_date >= ? and order_date < ?)";
+    private static final String DELETE_ORDERS_SQL = "delete from orders where order_date >= ? and order_date < ?";
+
+    private static final Comparator<long[]> LINE_ORDER = Comparator
+            .<long[]>comparingLong(l -> l[0])
+            .thenComparingLong(l -> l[1])
+            .thenComparingLong(l -> l[3]);
+
+    private final OrderArchive archive;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final Duration horizon;
+    private final Duration interval;
+
+    private ScheduledExecutorService executor;
+
+    public OrderArchiver(OrderArchive archive,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.archive.horizon:400d}") Duration horizon,
+                         @Value("${app.archive.interval:1d}") Duration interval) {
+        this.archive = archive;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+        this.interval = interval;
+    }
+
+    /** Archives every month that ended before today minus the horizon; returns the order lines moved. */
+    public int archive() {
+        return archiveBefore(YearMonth.from(LocalDate.now().minusDays(horizon.toDays())));
+    }
+
+    /** Archives every month before {@code month}, oldest first. */
+    public int archiveBefore(YearMonth month) {
+        if (!archive.isEnabled()) {
+            throw new IllegalStateException("app.archive.dir is not set");
+        }
+        var cutoff = month.atDay(1);
+        int moved = 0;
+        LocalDate oldest;
+        while ((oldest = jdbcTemplate.queryForObject(
+                "select min(order_date) from orders where order_date < ?", LocalDate.class, cutoff)) != null) {
+            moved += archiveMonth(YearMonth.from(oldest));
+        }
+        return moved;
+    }
+
+    private int archiveMonth(YearMonth month) {
+        var from = month.atDay(1);
+        var to = month.plusMonths(1).atDay(1);
+        long start = System.nanoTime();
+        int[] moved = new int[1];
+        tx.executeWithoutResult(status -> {
+            Set<Long> withoutLines = new TreeSet<>(jdbcTemplate.queryForList(LOCK_ORDERS_SQL, Long.class, from, to));
+            int orders = withoutLines.size();
+            List<long[]> lines = jdbcTemplate.query(MONTH_LINES_SQL, (rs, i) -> new long[]{
+                    rs.getObject(1, LocalDate.class).toEpochDay(), rs.getLong(2), rs.getLong(3),
+                    rs.getLong(4), rs.getLong(5), rs.getInt(6)}, from, to);
+            for (var line : lines) {
+                withoutLines.remove(line[1]);
+            }
+            if (!withoutLines.isEmpty()) {
+                throw new IllegalStateException("Orders " + withoutLines + " of " + month
+                        + " have no lines and cannot be archived; delete them or add lines");
+            }
+            moved[0] = lines.size();
+            var merged = merge(archive.segment(month), lines);
+
+            var image = ArchiveSegment.encode(month, merged);
+            int deleted = jdbcTemplate.update(DELETE_ITEMS_SQL, from, to);
+            int deletedOrders = jdbcTemplate.update(DELETE_ORDERS_SQL, from, to);
+            if (deleted != lines.size() || deletedOrders != orders) {
+                throw new IllegalStateException("Orders of " + month + " changed while archiving (read " + orders
+                        + " orders with " + lines.size() + " lines, deleting " + deletedOrders + " with " + deleted
+                        + "); will retry");
+            }
+            archive.install(month, image);
+        });
+        log.info("Archived {} order lines of {} in {} ms", moved[0], month, (System.nanoTime() - start) / 1_000_000);
+        return moved[0];
+    }
+
+    /** Lines already in the month's segment plus the new ones, by item id, in segment order. */
+    private static long[][] merge(ArchiveSegment existing, List<long[]> lines) {
+        Map<Long, long[]> byItem = new LinkedHashMap<>();
+        if (existing != null) {
+            var month = existing.month();
+            for (var day = month.atDay(1); !day.isAfter(month.atEndOfMonth()); day = day.plusDays(1)) {
+                for (int row = existing.firstRow(day), end = existing.firstRow(day.plusDays(1)); row < end; row++) {
+                    byItem.put(existing.itemId(row), new long[]{day.toEpochDay(), existing.orderId(row),
+                            existing.customerId(existing.customerCode(row)), existing.itemId(row),
+                            existing.vegetableId(existing.vegetableCode(row)), existing.quantity(row)});
+                }
+            }
+        }
+        for (var line : lines) {
+            byItem.put(line[3], line);
+        }
+        var merged = new ArrayList<>(byItem.values()).toArray(long[][]::new);
+        Arrays.sort(merged, LINE_ORDER);
+        return merged;
+    }
+
+    private void run() {
+        try {
+            int moved = archive();
+            if (moved > 0) log.info("Order archive: moved {} order lines, archived before {}", moved, archive.archivedBefore());
+        } catch (RuntimeException e) {
+            log.warn("Order archiving failed", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!archive.isEnabled()) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "order-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // First run a minute after startup rather than during it
+        executor.scheduleWithFixedDelay(this::run, Math.min(60_000, interval.toMillis()), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.OrderItemRepository;
+import com.example.ordertaking.util.CsvWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes order lines for a date range as CSV: archived dates from the {@link OrderArchive}, then the
+ * rest straight from a database cursor. Archived lines get today's customer and vegetable names.
+ */
+@Service
+public class OrderExportService {
+
+    static final String[] HEADER = {
+            "order_id", "order_date", "customer_id", "customer_name", "customer_email",
+            "item_id", "vegetable", "quantity"
+    };
+
+    private final OrderItemRepository orderItemRepo;
+    private final OrderArchive archive;
+    private final CustomerRepository customerRepo;
+    private final VegetableCatalog catalog;
+
+    public OrderExportService(OrderItemRepository orderItemRepo, OrderArchive archive,
+                              CustomerRepository customerRepo, VegetableCatalog catalog) {
+        this.orderItemRepo = orderItemRepo;
+        this.archive = archive;
+        this.customerRepo = customerRepo;
+        this.catalog = catalog;
+    }
+
+    /** @return number of order lines written */
+    @Transactional(readOnly = true)
+    public long exportCsv(LocalDate from, LocalDate to, Writer out) throws IOException {
+        var csv = new CsvWriter(out);
+        csv.row((Object[]) HEADER);
+        long[] count = {0};
+        var archivedBefore = archive.archivedBefore();
+        if (archivedBefore != null && from.isBefore(archivedBefore)) {
+            var last = to.isBefore(archivedBefore) ? to : archivedBefore.minusDays(1);
+            count[0] += exportArchived(from, last, csv);
+            from = archivedBefore;
+        }
+        try (var rows = orderItemRepo.streamExportRows(from, to)) {
+            rows.forEach(r -> {
+                try {
+                    csv.row(r.getOrderId(), r.getOrderDate(), r.getCustomerId(), r.getCustomerName(),
+                            r.getCustomerEmail(), r.getItemId(), r.getVegetableName(), r.getQuantity());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        csv.flush();
+        return count[0];
+    }
+
+    private long exportArchived(LocalDate from, LocalDate to, CsvWriter csv) throws IOException {
+        Map<Long, Customer> customers = new HashMap<>();
+        customerRepo.findAllById(archive.customerIds(from, to)).forEach(c -> customers.put(c.getId(), c));
+        Map<Long, String> vegetables = new HashMap<>();
+        long[] count = {0};
+        try {
+            archive.forEachLine(from, to, (orderId, date, customerId, itemId, vegetableId, quantity) -> {
+                var customer = customers.get(customerId);
+                var vegetable = vegetables.computeIfAbsent(vegetableId,
+                        id -> catalog.findById(id).map(Vegetable::getName).orElse(null));
+                try {
+                    csv.row(orderId, date, customerId,
+                            customer == null ? null : customer.getFirstName() + " " + customer.getLastName(),
+                            customer == null ? null : customer.getEmail(), itemId, vegetable, quantity);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.OrderHistoryEntry;
+import com.example.ordertaking.dto.OrderHistoryPage;
+import com.example.ordertaking.repository.OrderRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A customer's orders, newest first, one keyset page at a time: every page is a single range read of
+ * {@code idx_orders_customer_date}, however many orders the customer has or how deep the page is.
+ * Archived orders (before {@link OrderArchive#archivedBefore()}) are not listed; the archive is laid
+ * out by month, not by customer.
+ */
+@Service
+public class OrderHistoryService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final OrderRepository orderRepo;
+    private final OrderArchive archive;
+
+    public OrderHistoryService(OrderRepository orderRepo, OrderArchive archive) {
+        this.orderRepo = orderRepo;
+        this.archive = archive;
+    }
+
+    /**
+     * {@code after} pages on to older orders from a cursor, {@code before} back to newer ones; with
+     * neither the newest orders are returned.
+     *
+     * @throws IllegalArgumentException if a cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public OrderHistoryPage page(long customerId, String after, String before, int size) {
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        var limit = Pageable.ofSize(size + 1);
+        List<OrderHistoryEntry> orders;
+        boolean hasNext;
+        boolean hasPrevious;
+        if (before != null) {
+            var cursor = Cursor.parse(before);
+            orders = new ArrayList<>(orderRepo.findHistoryNewerThan(customerId, cursor.date, cursor.id, limit));
+            hasPrevious = orders.size() > size;
+            hasNext = true;
+            if (hasPrevious) orders.remove(size);
+            Collections.reverse(orders);
+        } else {
+            if (after != null) {
+                var cursor = Cursor.parse(after);
+                orders = new ArrayList<>(orderRepo.findHistoryOlderThan(customerId, cursor.date, cursor.id, limit));
+            } else {
+                orders = new ArrayList<>(orderRepo.findHistory(customerId, limit));
+            }
+            hasNext = orders.size() > size;
+            hasPrevious = after != null;
+            if (hasNext) orders.remove(size);
+        }
+        return new OrderHistoryPage(customerId, orders,
+                hasNext && !orders.isEmpty() ? Cursor.of(orders.get(orders.size() - 1)) : null,
+                hasPrevious && !orders.isEmpty() ? Cursor.of(orders.get(0)) : null,
+                archive.archivedBefore());
+    }
+
+    /** Position of an order in the history: {@code <orderDate>_<orderId>}. */
+    private static final class Cursor {
+        final LocalDate date;
+        final long id;
+
+        private Cursor(LocalDate date, long id) {
+            this.date = date;
+            this.id = id;
+        }
+
+        static String of(OrderHistoryEntry entry) {
+            return entry.getOrderDate() + "_" + entry.getOrderId();
+        }
+
+        static Cursor parse(String cursor) {
+            int split = cursor.indexOf('_');
+            try {
+                if (split < 0) throw new IllegalArgumentException();
+                return new Cursor(LocalDate.parse(cursor.substring(0, split)), Long.parseLong(cursor.substring(split + 1)));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid order history cursor: " + cursor, e);
+            }
+        }
+    }
+}
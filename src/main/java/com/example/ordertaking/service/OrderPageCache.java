@@ -0,0 +1,360 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Rendered order page fragments (the final orders report of a date, the details of an order) plus the
+ * per-date change versions that validate them and drive ETag / Last-Modified.
+ * <p>
+ * The versions live in {@code page_versions}, so all instances validate fragments and answer conditional
+ * GETs against the same writes. Order writes call {@link #touch} for every date they affect; customer and
+ * vegetable edits call {@link #invalidateAll()} because their names appear on every page. Inside a
+ * transaction the versions are bumped just before it commits, after its rollup writes and in a fixed
+ * order, and this instance drops its affected fragments once it has committed. A fragment is stored
+ * under the version read before its data was loaded, so a render that raced a write never passes for
+ * current.
+ * <p>
+ * An instance re-reads a date's version at most every {@code app.page-cache.version-ttl}, so writes made
+ * through other instances show up within that time. Fragments are bounded by their approximate size in
+ * bytes and evicted least recently used first.
+ */
+@Component
+public class OrderPageCache {
+
+    private static final String ALL = "*";
+    private static final String VERSIONS_SQL =
+            "select scope, version, modified_at from page_versions where scope in ('" + ALL + "', ?)";
+    private static final String BUMP_MYSQL =
+            "insert into page_versions (scope, version, modified_at) values (?, 1, ?) " +
+            "on duplicate key update version = version + 1, modified_at = ?";
+    private static final String BUMP_H2 =
+            "merge into page_versions p using (values (cast(? as varchar(10)), cast(? as bigint))) s (scope, modified_at) " +
+            "on p.scope = s.scope " +
+            "when matched then update set version = p.version + 1, modified_at = s.modified_at " +
+            "when not matched then insert (scope, version, modified_at) values (s.scope, 1, s.modified_at)";
+    private static final int MAX_KNOWN_DATES = 10_000;
+
+    private final long maxBytes;
+    private final long versionTtlNanos;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean mysql;
+
+    private final Map<LocalDate, Known> known = new ConcurrentHashMap<>();
+    private volatile long localWrites;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public OrderPageCache(@Value("${app.page-cache.max-size:16MB}") DataSize maxSize,
+                          @Value("${app.page-cache.version-ttl:1s}") Duration versionTtl,
+                          JdbcTemplate jdbcTemplate) {
+        this.maxBytes = maxSize.toBytes();
+        this.versionTtlNanos = versionTtl.toNanos();
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Current version of everything rendered for {@code date}; read before loading what a page shows. */
+    public Version versionOf(LocalDate date) {
+        var current = known.get(date);
+        long now = System.nanoTime();
+        if (current == null || now - current.readAt >= versionTtlNanos) {
+            long writes = localWrites;
+            current = new Known(read(date), now);
+            // Unless one of our own writes committed meanwhile, which the read may have missed
+            synchronized (this) {
+                if (localWrites == writes) {
+                    if (known.size() >= MAX_KNOWN_DATES) known.clear();
+                    known.put(date, current);
+                }
+            }
+        }
+        return current.version;
+    }
+
+    /** The cached fragment for {@code key}, if it was rendered at the current version of its date. */
+    public Cached get(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            var current = versionOf(entry.version.date);
+            synchronized (this) {
+                if (current.etag.equals(entry.version.etag)) {
+                    hits++;
+                    return new Cached(current, entry.html);
+                }
+                if (entries.get(key) == entry) remove(key);
+            }
+        }
+        synchronized (this) {
+            misses++;
+        }
+        return null;
+    }
+
+    /**
+     * Stores a fragment rendered from data loaded after {@code versionBeforeLoad} was read. Returns the
+     * stored fragment, or {@code null} if its date changed since (the render may be stale) or it is
+     * larger than the whole cache, and it was not stored.
+     */
+    public Cached put(String key, Version versionBeforeLoad, String html) {
+        if (!versionOf(versionBeforeLoad.date).etag.equals(versionBeforeLoad.etag)) {
+            return null;
+        }
+        long size = weigh(html);
+        if (size > maxBytes) {
+            return null;
+        }
+        synchronized (this) {
+            remove(key);
+            entries.put(key, new Entry(versionBeforeLoad, html));
+            bytes += size;
+            var it = entries.entrySet().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                bytes -= weigh(it.next().getValue().html);
+                it.remove();
+                evictions++;
+            }
+        }
+        return new Cached(versionBeforeLoad, html);
+    }
+
+    /** Bumps the versions of {@code dates} with the current transaction (if any). */
+    public void touch(LocalDate... dates) {
+        changed(List.of(dates), false);
+    }
+
+    /** Invalidates every page, e.g. after a customer or vegetable was renamed. */
+    public void invalidateAll() {
+        changed(List.of(), true);
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, invalidations, entries.size());
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    /** Collects the changes of the current transaction, to be written before and applied after it commits. */
+    private void changed(Collection<LocalDate> dates, boolean all) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            var change = new Change();
+            change.add(dates, all);
+            bump(change);
+            applyLocally(change);
+            return;
+        }
+        var change = (Change) TransactionSynchronizationManager.getResource(this);
+        if (change == null) {
+            var pending = new Change();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(OrderPageCache.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(OrderPageCache.this, pending);
+                }
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    bump(pending);
+                }
+
+                @Override
+                public void afterCommit() {
+                    applyLocally(pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OrderPageCache.this);
+                }
+            });
+            change = pending;
+        }
+        change.add(dates, all);
+    }
+
+    /** Dates in ascending order, then the global row, so concurrent writers lock the rows in the same order. */
+    private void bump(Change change) {
+        List<String> scopes = new ArrayList<>();
+        change.dates.forEach(date -> scopes.add(date.toString()));
+        if (change.all) scopes.add(ALL);
+        if (scopes.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        if (isMysql()) {
+            jdbcTemplate.batchUpdate(BUMP_MYSQL, scopes.stream()
+                    .map(scope -> new Object[]{scope, now, now}).collect(Collectors.toList()));
+            return;
+        }
+        for (var scope : scopes) {
+            try {
+                jdbcTemplate.update(BUMP_H2, scope, now);
+            } catch (DuplicateKeyException e) {
+                // H2's MERGE lost a race to insert the row; it is there now
+                jdbcTemplate.update(BUMP_H2, scope, now);
+            }
+        }
+    }
+
+    private synchronized void applyLocally(Change change) {
+        localWrites++;
+        if (change.all) {
+            invalidations++;
+            entries.clear();
+            bytes = 0;
+            known.clear();
+            return;
+        }
+        var it = entries.values().iterator();
+        while (it.hasNext()) {
+            var entry = it.next();
+            if (change.dates.contains(entry.version.date)) {
+                bytes -= weigh(entry.html);
+                it.remove();
+            }
+        }
+        change.dates.forEach(known::remove);
+    }
+
+    private Version read(LocalDate date) {
+        var stamps = new HashMap<String, Stamp>();
+        jdbcTemplate.query(VERSIONS_SQL, rs -> {
+            stamps.put(rs.getString(1), new Stamp(rs.getLong(2), rs.getLong(3)));
+        }, date.toString());
+        var all = stamps.getOrDefault(ALL, Stamp.NONE);
+        var day = stamps.getOrDefault(date.toString(), Stamp.NONE);
+        long lastModified = Math.max(all.lastModified, day.lastModified);
+        return new Version(date, "W/\"" + all.version + "-" + date + "-" + day.version + "-"
+                + Long.toString(lastModified, 36) + "\"", lastModified);
+    }
+
+    /** MySQL in production, H2 (MERGE) in development and tests; looked up once. */
+    private boolean isMysql() {
+        var mysql = this.mysql;
+        if (mysql == null) {
+            mysql = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql"));
+            this.mysql = mysql;
+        }
+        return mysql;
+    }
+
+    private void remove(String key) {
+        var old = entries.remove(key);
+        if (old != null) {
+            bytes -= weigh(old.html);
+        }
+    }
+
+    /** UTF-16 chars plus a rough per-entry overhead. */
+    private static long weigh(String html) {
+        return 2L * html.length() + 128;
+    }
+
+    public static final class Version {
+        private final LocalDate date;
+        private final String etag;
+        private final long lastModified;
+
+        Version(LocalDate date, String etag, long lastModified) {
+            this.date = date;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public LocalDate getDate() {return date;}
+        public String getEtag() {return etag;}
+        public long getLastModified() {return lastModified;}
+    }
+
+    public static final class Cached {
+        private final Version version;
+        private final String html;
+
+        Cached(Version version, String html) {
+            this.version = version;
+            this.html = html;
+        }
+
+        public Version getVersion() {return version;}
+        public String getHtml() {return html;}
+    }
+
+    private static final class Entry {
+        final Version version;
+        final String html;
+
+        Entry(Version version, String html) {
+            this.version = version;
+            this.html = html;
+        }
+    }
+
+    private static final class Stamp {
+        static final Stamp NONE = new Stamp(0, 0);
+
+        final long version;
+        final long lastModified;
+
+        Stamp(long version, long lastModified) {
+            this.version = version;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static final class Known {
+        final Version version;
+        final long readAt;
+
+        Known(Version version, long readAt) {
+            this.version = version;
+            this.readAt = readAt;
+        }
+    }
+
+    /** Dates (ordered) and whether every page changed, in one transaction. */
+    private static final class Change {
+        final Set<LocalDate> dates = new TreeSet<>();
+        boolean all;
+
+        void add(Collection<LocalDate> dates, boolean all) {
+            this.dates.addAll(dates);
+            this.all |= all;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.entity.OrderHeader;
+import com.example.ordertaking.entity.OrderItem;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.OrderRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class OrderService {
+
+    private final OrderRepository orderRepo;
+    private final VegetableCatalog catalog;
+    private final DailyRollupService rollupService;
+    private final OrderPageCache pageCache;
+
+    public OrderService(OrderRepository orderRepo, VegetableCatalog catalog, DailyRollupService rollupService,
+                        OrderPageCache pageCache) {
+        this.orderRepo = orderRepo;
+        this.catalog = catalog;
+        this.rollupService = rollupService;
+        this.pageCache = pageCache;
+    }
+
+    /**
+     * Builds unattached order lines from parallel id/quantity lists, skipping non-positive quantities.
+     * Vegetables come from the {@link VegetableCatalog}; cache misses are resolved with one lookup.
+     *
+     * @throws IllegalArgumentException if any referenced vegetable id does not exist
+     */
+    public List<OrderItem> buildItems(List<Long> vegetableIds, List<Integer> quantities) {
+        Set<Long> wanted = new LinkedHashSet<>();
+        for (int i = 0; i < vegetableIds.size(); i++) {
+            var qty = quantities.get(i);
+            if (qty != null && qty > 0) wanted.add(vegetableIds.get(i));
+        }
+        Map<Long, Vegetable> byId = catalog.findAllById(wanted);
+        if (byId.size() != wanted.size()) {
+            wanted.removeAll(byId.keySet());
+            throw new IllegalArgumentException("Unknown vegetable id(s): " + wanted);
+        }
+
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < vegetableIds.size(); i++) {
+            var qty = quantities.get(i);
+            if (qty == null || qty <= 0) continue;
+            items.add(new OrderItem(byId.get(vegetableIds.get(i)), qty, null));
+        }
+        return items;
+    }
+
+    @Transactional
+    public OrderHeader placeOrder(OrderHeader order) {
+        var saved = orderRepo.save(order);
+        rollupService.recordOrder(saved);
+        pageCache.touch(saved.getOrderDate());
+        return saved;
+    }
+
+    /** Replaces the date and lines of an existing order, moving its quantities in the rollup. */
+    @Transactional
+    public OrderHeader updateOrder(Long id, LocalDate orderDate, List<OrderItem> newItems) {
+        var order = orderRepo.findById(id).orElseThrow();
+        var deltas = RollupDeltas.of(order, -1);
+        pageCache.touch(order.getOrderDate(), orderDate);
+        order.getItems().clear();
+        order.setOrderDate(orderDate);
+        for (var item : newItems) {
+            order.addItem(item);
+        }
+        rollupService.applyDeltas(deltas.add(order, 1));
+        return orderRepo.save(order);
+    }
+
+    @Transactional
+    public LocalDate deleteOrder(Long id) {
+        var order = orderRepo.findById(id).orElseThrow();
+        rollupService.removeOrder(order);
+        pageCache.touch(order.getOrderDate());
+        orderRepo.delete(order);
+        return order.getOrderDate();
+    }
+}
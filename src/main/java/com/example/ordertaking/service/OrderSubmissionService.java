@@ -0,0 +1,442 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.OrderSubmission;
+import com.example.ordertaking.dto.SubmissionStatus;
+import com.example.ordertaking.entity.OrderHeader;
+import com.example.ordertaking.entity.OrderItem;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Accept-then-persist order entry. {@link #submit} validates against cached reference data (customers
+ * from the second-level cache, vegetables from the {@link VegetableCatalog}), journals the submission
+ * and puts it on a bounded queue; it never opens a write transaction. One writer thread drains the
+ * queue and stores whatever has piled up, up to {@code batch-size} orders per transaction, the same
+ * way as {@link BulkOrderIngestService}: one rollup batch, one page cache touch, per-order retry if
+ * the batch fails.
+ * <p>
+ * The idempotency key is stored on the order under a unique index, so a key submitted twice (double
+ * click, client retry, journal replay after a crash) yields one order; the first submission wins.
+ * Statuses are kept in memory for {@code status-retention} after they finish and are then answered
+ * from the database.
+ * <p>
+ * When the queue stays full for {@code accept-timeout}, {@link #submit} throws
+ * {@link RejectedExecutionException} so callers can shed load. Transient database errors are retried
+ * with backoff, for a batch and for each order when a batch has to be split up; only an order that
+ * itself cannot be stored fails for good. At shutdown the queue is drained, and anything that could not
+ * be stored stays in the journal for the next start.
+ */
+@Service
+public class OrderSubmissionService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSubmissionService.class);
+
+    private final CustomerRepository customerRepo;
+    private final OrderRepository orderRepo;
+    private final VegetableCatalog catalog;
+    private final DailyRollupService rollupService;
+    private final OrderArchive archive;
+    private final OrderPageCache pageCache;
+    private final EntityManager entityManager;
+    private final TransactionTemplate tx;
+    private final SubmissionJournal journal;
+    private final int batchSize;
+    private final long acceptTimeoutNanos;
+    private final long retentionNanos;
+    private final DistributionSummary batchSizes;
+
+    private final BlockingQueue<OrderSubmission> queue;
+    private final Map<String, Tracked> submissions = new ConcurrentHashMap<>();
+    private long lastExpiry = System.nanoTime();
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread writer;
+
+    public OrderSubmissionService(CustomerRepository customerRepo,
+                                  OrderRepository orderRepo,
+                                  VegetableCatalog catalog,
+                                  DailyRollupService rollupService,
+                                  OrderArchive archive,
+                                  OrderPageCache pageCache,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.order-queue.journal:data/order-submissions.journal}") Path journalFile,
+                                  @Value("${app.order-queue.capacity:10000}") int capacity,
+                                  @Value("${app.order-queue.batch-size:200}") int batchSize,
+                                  @Value("${app.order-queue.accept-timeout:250ms}") Duration acceptTimeout,
+                                  @Value("${app.order-queue.status-retention:10m}") Duration statusRetention) {
+        this.customerRepo = customerRepo;
+        this.orderRepo = orderRepo;
+        this.catalog = catalog;
+        this.rollupService = rollupService;
+        this.archive = archive;
+        this.pageCache = pageCache;
+        this.entityManager = entityManager;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.journal = new SubmissionJournal(journalFile, objectMapper);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.acceptTimeoutNanos = acceptTimeout.toNanos();
+        this.retentionNanos = statusRetention.toNanos();
+        this.batchSizes = DistributionSummary.builder("orders.submissions.batch.size")
+                .description("Orders stored per write-behind transaction")
+                .register(meterRegistry);
+        meterRegistry.gauge("orders.submissions.queued", queue, BlockingQueue::size);
+    }
+
+    /**
+     * Accepts {@code submission} for persistence, or returns the current status if its key was seen
+     * before.
+     *
+     * @throws IllegalArgumentException    if the submission is invalid
+     * @throws RejectedExecutionException  if the queue is full or the service is not running
+     */
+    public SubmissionStatus submit(OrderSubmission submission) {
+        if (!accepting) {
+            throw new RejectedExecutionException("Order submissions are not being accepted");
+        }
+        validate(submission);
+        var tracked = new Tracked(SubmissionStatus.queued(submission.getKey()));
+        var existing = submissions.putIfAbsent(submission.getKey(), tracked);
+        if (existing != null) {
+            return existing.status;
+        }
+        try {
+            journal.accepted(submission);
+        } catch (IOException e) {
+            submissions.remove(submission.getKey());
+            throw new UncheckedIOException(e);
+        }
+        boolean queued;
+        try {
+            queued = queue.offer(submission, acceptTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            submissions.remove(submission.getKey());
+            journalDone(List.of(submission.getKey()));
+            throw new RejectedExecutionException("Order queue is full");
+        }
+        return tracked.status;
+    }
+
+    /** Status of the submission with {@code key}; empty if it was never accepted (or failed long ago). */
+    public Optional<SubmissionStatus> status(String key) {
+        var tracked = submissions.get(key);
+        if (tracked != null) {
+            return Optional.of(tracked.status);
+        }
+        return orderRepo.findIdBySubmissionKey(key).map(id -> SubmissionStatus.persisted(key, id));
+    }
+
+    @Override
+    public void start() {
+        List<OrderSubmission> replay;
+        try {
+            replay = journal.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "order-submission-writer");
+        writer.setDaemon(true);
+        writer.start();
+        if (!replay.isEmpty()) {
+            log.info("Replaying {} journaled order submission(s)", replay.size());
+        }
+        for (var submission : replay) {
+            submissions.put(submission.getKey(), new Tracked(SubmissionStatus.queued(submission.getKey())));
+            try {
+                queue.put(submission);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        accepting = true;
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        if (writer == null) return;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} order submission(s) left in the journal for the next start", queue.size());
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Could not close the submission journal", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        List<OrderSubmission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            OrderSubmission first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first != null) {
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                try {
+                    if (!write(batch)) break;
+                } catch (RuntimeException e) {
+                    log.error("Order submission writer failed on {} order(s)", batch.size(), e);
+                    fail(batch, "Order could not be stored: " + rootMessage(e));
+                }
+                batch.clear();
+            }
+            expireStatuses();
+        }
+    }
+
+    /** Stores {@code batch}; returns {@code false} if the database stayed unavailable until shutdown. */
+    private boolean write(List<OrderSubmission> batch) {
+        batchSizes.record(batch.size());
+        try {
+            var ids = retryingOutages(batch.size(), () -> tx.execute(status -> persist(batch)));
+            if (ids == null) return false;
+            complete(ids);
+            return true;
+        } catch (RuntimeException e) {
+            // Some order in the batch cannot be stored; find it by storing them one by one
+        }
+        for (var submission : batch) {
+            Map<String, Long> ids;
+            try {
+                ids = retryingOutages(1, () -> tx.execute(status -> persist(List.of(submission))));
+            } catch (RuntimeException e) {
+                fail(List.of(submission), rootMessage(e));
+                continue;
+            }
+            // The rest stay queued in the journal for the next start
+            if (ids == null) return false;
+            complete(ids);
+        }
+        return true;
+    }
+
+    /**
+     * Runs {@code work}, retrying transient database errors with backoff. Returns {@code null} if the
+     * database stayed unavailable until shutdown; other errors are thrown.
+     */
+    private <T> T retryingOutages(int orders, Supplier<T> work) {
+        long backoffMillis = 100;
+        while (true) {
+            try {
+                return work.get();
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) throw e;
+                if (!running) return null;
+                log.warn("Database unavailable, retrying {} order submission(s) in {} ms: {}",
+                        orders, backoffMillis, rootMessage(e));
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return null;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 5_000);
+            }
+        }
+    }
+
+    /** Inserts the orders of {@code batch} whose key is not stored yet; returns the order id of every key. */
+    private Map<String, Long> persist(List<OrderSubmission> batch) {
+        Set<String> keys = new HashSet<>();
+        Set<Long> vegetableIds = new HashSet<>();
+        for (var submission : batch) {
+            keys.add(submission.getKey());
+            submission.getItems().forEach(line -> vegetableIds.add(line.getVegetableId()));
+        }
+        Map<String, Long> ids = new HashMap<>();
+        for (var row : orderRepo.findIdsBySubmissionKeys(keys)) {
+            ids.put((String) row[0], (Long) row[1]);
+        }
+        Map<Long, Vegetable> vegetables = catalog.findAllById(vegetableIds);
+
+        var deltas = new RollupDeltas();
+        Set<LocalDate> dates = new HashSet<>();
+        List<OrderHeader> orders = new ArrayList<>(batch.size());
+        for (var submission : batch) {
+            if (ids.containsKey(submission.getKey())) continue;
+            var order = new OrderHeader(customerRepo.getReferenceById(submission.getCustomerId()), submission.getOrderDate());
+            order.setSubmissionKey(submission.getKey());
+            for (var line : submission.getItems()) {
+                var vegetable = vegetables.get(line.getVegetableId());
+                if (vegetable == null) {
+                    throw new IllegalArgumentException("Unknown vegetable id: " + line.getVegetableId());
+                }
+                order.addItem(new OrderItem(vegetable, line.getQuantity(), null));
+            }
+            entityManager.persist(order);
+            orders.add(order);
+            deltas.add(order, 1);
+            dates.add(order.getOrderDate());
+        }
+        if (!orders.isEmpty()) {
+            rollupService.applyDeltas(deltas);
+            pageCache.touch(dates.toArray(LocalDate[]::new));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        for (var order : orders) {
+            ids.put(order.getSubmissionKey(), order.getId());
+        }
+        return ids;
+    }
+
+    private void complete(Map<String, Long> ids) {
+        long now = System.nanoTime();
+        ids.forEach((key, id) -> submissions.put(key, new Tracked(SubmissionStatus.persisted(key, id), now)));
+        journalDone(ids.keySet());
+    }
+
+    /** Marks the submissions of {@code batch} not stored yet as failed for good. */
+    private void fail(List<OrderSubmission> batch, String error) {
+        long now = System.nanoTime();
+        List<String> failed = new ArrayList<>();
+        for (var submission : batch) {
+            var key = submission.getKey();
+            var tracked = submissions.get(key);
+            if (tracked != null && tracked.status.getState() != SubmissionStatus.State.QUEUED) continue;
+            submissions.put(key, new Tracked(SubmissionStatus.failed(key, error), now));
+            failed.add(key);
+        }
+        if (!failed.isEmpty()) journalDone(failed);
+    }
+
+    private void journalDone(Set<String> keys) {
+        try {
+            journal.done(keys);
+        } catch (IOException e) {
+            log.warn("Could not journal {} finished order submission(s); they will be replayed and deduplicated", keys.size(), e);
+        }
+    }
+
+    private void journalDone(List<String> keys) {
+        journalDone(Set.copyOf(keys));
+    }
+
+    private void expireStatuses() {
+        long now = System.nanoTime();
+        if (now - lastExpiry < TimeUnit.SECONDS.toNanos(1)) return;
+        lastExpiry = now;
+        submissions.values().removeIf(t -> t.finishedAt != 0 && now - t.finishedAt > retentionNanos);
+    }
+
+    private void validate(OrderSubmission submission) {
+        var key = submission.getKey();
+        if (key == null || key.isBlank() || key.length() > 64) {
+            throw new IllegalArgumentException("An idempotency key of 1 to 64 characters is required");
+        }
+        if (submission.getCustomerId() == null || customerRepo.findById(submission.getCustomerId()).isEmpty()) {
+            throw new IllegalArgumentException("Unknown customer id: " + submission.getCustomerId());
+        }
+        if (submission.getOrderDate() == null) {
+            throw new IllegalArgumentException("Order date is required");
+        }
+        if (archive.isArchived(submission.getOrderDate())) {
+            throw new IllegalArgumentException("Orders on " + submission.getOrderDate() + " are archived and read-only");
+        }
+        if (submission.getItems() == null || submission.getItems().isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        Set<Long> vegetableIds = new HashSet<>();
+        for (var line : submission.getItems()) {
+            if (line == null) {
+                throw new IllegalArgumentException("Item lines must be objects");
+            }
+            if (line.getVegetableId() == null) {
+                throw new IllegalArgumentException("Unknown vegetable id: null");
+            }
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be at least 1 for vegetable id " + line.getVegetableId());
+            }
+            vegetableIds.add(line.getVegetableId());
+        }
+        var known = catalog.findAllById(vegetableIds);
+        vegetableIds.removeAll(known.keySet());
+        if (!vegetableIds.isEmpty()) {
+            throw new IllegalArgumentException("Unknown vegetable id(s): " + vegetableIds);
+        }
+    }
+
+    private static boolean isTransient(Throwable e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null && e.getCause() != e) e = e.getCause();
+        return e.getMessage();
+    }
+
+    private static final class Tracked {
+        final SubmissionStatus status;
+        final long finishedAt;
+
+        Tracked(SubmissionStatus status) {
+            this(status, 0);
+        }
+
+        Tracked(SubmissionStatus status, long finishedAt) {
+            this.status = status;
+            this.finishedAt = finishedAt;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.PickMatrixLine;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Customer × vegetable quantities of one delivery date. Customers and vegetables get compact ordinals
+ * in the order they are first seen and the quantities live in one row-major {@code int[]}, so a
+ * 5,000 × 200 day is a single 4 MB array rather than a million boxed entries.
+ * <p>
+ * Rows keep the order they were added in (address, then customer); columns are only the vegetables
+ * that were ordered, by name. Built once by {@link Builder}, read-only afterwards.
+ */
+public class PickMatrix {
+
+    private final LocalDate date;
+    private final int rowCount;
+    private final int stride;
+    private final int[] quantities;
+    private final String[] customerNames;
+    private final String[] addresses;
+    private final int[] rowTotals;
+    private final List<Column> columns;
+    // Column position -> vegetable ordinal
+    private final int[] columnOrder;
+    private final long total;
+
+    private PickMatrix(Builder b) {
+        this.date = b.date;
+        this.rowCount = b.rowCount;
+        this.stride = b.stride;
+        this.quantities = b.quantities;
+        this.customerNames = b.customerNames;
+        this.addresses = b.addresses;
+        this.rowTotals = new int[rowCount];
+        var columnTotals = new long[b.columnCount];
+        long sum = 0;
+        for (int r = 0; r < rowCount; r++) {
+            int rowTotal = 0;
+            for (int v = 0, i = r * stride; v < b.columnCount; v++, i++) {
+                rowTotal += quantities[i];
+                columnTotals[v] += quantities[i];
+            }
+            rowTotals[r] = rowTotal;
+            sum += rowTotal;
+        }
+        this.total = sum;
+        this.columnOrder = IntStream.range(0, b.columnCount).boxed()
+                .sorted(Comparator.comparing((Integer v) -> b.vegetableNames[v], String.CASE_INSENSITIVE_ORDER))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        var cols = new Column[columnOrder.length];
+        for (int c = 0; c < cols.length; c++) {
+            int v = columnOrder[c];
+            cols[c] = new Column(b.vegetableIds[v], b.vegetableNames[v], columnTotals[v]);
+        }
+        this.columns = List.of(cols);
+    }
+
+    public LocalDate getDate() {return date;}
+    public List<Column> getColumns() {return columns;}
+    public long getTotal() {return total;}
+    public boolean isEmpty() {return rowCount == 0;}
+
+    public int getRowCount() {return rowCount;}
+
+    /** Quantity of the vegetable in column position {@code column} for the customer in row {@code row}. */
+    public int quantity(int row, int column) {
+        return quantities[row * stride + columnOrder[column]];
+    }
+
+    /** Row views in display order; nothing is copied until a row's cells are read. */
+    public List<Row> getRows() {
+        return new AbstractList<>() {
+            @Override
+            public Row get(int index) {
+                if (index < 0 || index >= rowCount) throw new IndexOutOfBoundsException(index);
+                return new Row(index);
+            }
+
+            @Override
+            public int size() {
+                return rowCount;
+            }
+        };
+    }
+
+    public final class Row {
+        private final int index;
+
+        private Row(int index) {
+            this.index = index;
+        }
+
+        public String getCustomerName() {return customerNames[index];}
+        public String getAddress() {return addresses[index];}
+        public int getTotal() {return rowTotals[index];}
+
+        /** Whether this row starts a new address group. */
+        public boolean isFirstAtAddress() {
+            return index == 0 || !addresses[index].equals(addresses[index - 1]);
+        }
+
+        /** Quantities in column order; 0 where the customer did not order the vegetable. */
+        public int[] getCells() {
+            var cells = new int[columnOrder.length];
+            int base = index * stride;
+            for (int c = 0; c < cells.length; c++) {
+                cells[c] = quantities[base + columnOrder[c]];
+            }
+            return cells;
+        }
+    }
+
+    public static final class Column {
+        private final long vegetableId;
+        private final String vegetableName;
+        private final long total;
+
+        Column(long vegetableId, String vegetableName, long total) {
+            this.vegetableId = vegetableId;
+            this.vegetableName = vegetableName;
+            this.total = total;
+        }
+
+        public long getVegetableId() {return vegetableId;}
+        public String getVegetableName() {return vegetableName;}
+        public long getTotal() {return total;}
+    }
+
+    /**
+     * Accumulates order lines in one pass. Lines of the same customer must be contiguous; a line for a
+     * customer other than the previous one starts a new row.
+     */
+    public static final class Builder {
+        private final LocalDate date;
+
+        private int stride;
+        private int[] quantities;
+        private int rowCount;
+        private int columnCount;
+
+        private long lastCustomerId;
+        private String[] customerNames = new String[64];
+        private String[] addresses = new String[64];
+
+        // A day has at most a few hundred vegetables; the boxing here is per line, not per cell
+        private final Map<Long, Integer> vegetableOrdinals = new HashMap<>();
+        private long[] vegetableIds;
+        private String[] vegetableNames;
+
+        /** @param expectedVegetables initial column capacity; grows if the day has more */
+        public Builder(LocalDate date, int expectedVegetables) {
+            this.date = date;
+            this.stride = Math.max(8, expectedVegetables);
+            this.quantities = new int[customerNames.length * stride];
+            this.vegetableIds = new long[stride];
+            this.vegetableNames = new String[stride];
+        }
+
+        public Builder add(PickMatrixLine line) {
+            if (rowCount == 0 || line.getCustomerId() != lastCustomerId) {
+                addRow(line);
+            }
+            Integer ordinal = vegetableOrdinals.get(line.getVegetableId());
+            if (ordinal == null) {
+                ordinal = addColumn(line);
+            }
+            quantities[(rowCount - 1) * stride + ordinal] += line.getQuantity();
+            return this;
+        }
+
+        public PickMatrix build() {
+            return new PickMatrix(this);
+        }
+
+        private void addRow(PickMatrixLine line) {
+            if (rowCount == customerNames.length) {
+                int capacity = rowCount * 2;
+                customerNames = Arrays.copyOf(customerNames, capacity);
+                addresses = Arrays.copyOf(addresses, capacity);
+                quantities = Arrays.copyOf(quantities, capacity * stride);
+            }
+            lastCustomerId = line.getCustomerId();
+            customerNames[rowCount] = line.getCustomerName();
+            addresses[rowCount] = line.getAddress();
+            rowCount++;
+        }
+
+        private int addColumn(PickMatrixLine line) {
+            if (columnCount == stride) {
+                // Re-lay the rows out at twice the width
+                int wider = stride * 2;
+                var relaid = new int[customerNames.length * wider];
+                for (int r = 0; r < rowCount; r++) {
+                    System.arraycopy(quantities, r * stride, relaid, r * wider, stride);
+                }
+                quantities = relaid;
+                stride = wider;
+                vegetableIds = Arrays.copyOf(vegetableIds, wider);
+                vegetableNames = Arrays.copyOf(vegetableNames, wider);
+            }
+            int ordinal = columnCount++;
+            vegetableIds[ordinal] = line.getVegetableId();
+            vegetableNames[ordinal] = line.getVegetableName();
+            vegetableOrdinals.put(line.getVegetableId(), ordinal);
+            return ordinal;
+        }
+    }
+}
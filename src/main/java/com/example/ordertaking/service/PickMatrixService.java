@@ -0,0 +1,66 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.repository.OrderItemRepository;
+import com.example.ordertaking.util.CsvWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+/** Packing lists: the customer × vegetable {@link PickMatrix} of a delivery date. */
+@Service
+public class PickMatrixService {
+
+    private final OrderItemRepository orderItemRepo;
+    private final VegetableCatalog catalog;
+
+    public PickMatrixService(OrderItemRepository orderItemRepo, VegetableCatalog catalog) {
+        this.orderItemRepo = orderItemRepo;
+        this.catalog = catalog;
+    }
+
+    /** One pass over the day's order lines, straight from a database cursor. */
+    @Transactional(readOnly = true)
+    public PickMatrix build(LocalDate date) {
+        // Sized for the whole catalog so the columns are laid out once
+        var builder = new PickMatrix.Builder(date, catalog.findAll().size());
+        try (var lines = orderItemRepo.streamPickMatrixLines(date)) {
+            lines.forEach(builder::add);
+        }
+        return builder.build();
+    }
+
+    /** One row per customer, zero quantities left empty as on the printed grid, then a totals row. */
+    public void writeCsv(PickMatrix matrix, Writer out) throws IOException {
+        var csv = new CsvWriter(out);
+        var columns = matrix.getColumns();
+        var fields = new Object[columns.size() + 3];
+        fields[0] = "address";
+        fields[1] = "customer";
+        for (int c = 0; c < columns.size(); c++) {
+            fields[c + 2] = columns.get(c).getVegetableName();
+        }
+        fields[fields.length - 1] = "total";
+        csv.row(fields);
+        for (var row : matrix.getRows()) {
+            fields[0] = row.getAddress();
+            fields[1] = row.getCustomerName();
+            var cells = row.getCells();
+            for (int c = 0; c < cells.length; c++) {
+                fields[c + 2] = cells[c] == 0 ? null : cells[c];
+            }
+            fields[fields.length - 1] = row.getTotal();
+            csv.row(fields);
+        }
+        fields[0] = null;
+        fields[1] = "Total";
+        for (int c = 0; c < columns.size(); c++) {
+            fields[c + 2] = columns.get(c).getTotal();
+        }
+        fields[fields.length - 1] = matrix.getTotal();
+        csv.row(fields);
+        csv.flush();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.config.ReadRouting;
+import com.example.ordertaking.dto.BulkImportResult;
+import com.example.ordertaking.dto.BulkImportSummary;
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.VegetableRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of customers and vegetables. The payload is read incrementally; each row is checked
+ * against the entity's validation constraints and against an in-memory set of the emails (customers)
+ * or names (vegetables) already stored, loaded once per import and matched case-insensitively like
+ * {@link VegetableRepository#existsByNameIgnoreCase}. Rows that pass are inserted with JDBC batches,
+ * {@code app.bulk.chunk-size} rows per transaction; if a chunk fails (e.g. a concurrent insert took
+ * an email), its rows are retried one per transaction so only the offending ones fail.
+ * <p>
+ * Only rows that were not stored are reported, with their line number; stored rows are counted.
+ */
+@Service
+public class ReferenceDataImportService {
+
+    static final List<String> CUSTOMER_COLUMNS = List.of("firstName", "lastName", "email", "address");
+    static final List<String> VEGETABLE_COLUMNS = List.of("name");
+
+    private static final String INSERT_CUSTOMER_SQL =
+            "insert into customers (first_name, last_name, email, address, created_at) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_VEGETABLE_SQL = "insert into vegetables (name) values (?)";
+
+    private final CustomerRepository customerRepo;
+    private final VegetableRepository vegetableRepo;
+    private final VegetableCatalog catalog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ReferenceDataImportService(CustomerRepository customerRepo,
+                                      VegetableRepository vegetableRepo,
+                                      VegetableCatalog catalog,
+                                      JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      EntityManagerFactory entityManagerFactory,
+                                      Validator validator,
+                                      ObjectMapper objectMapper,
+                                      @Value("${app.bulk.chunk-size:500}") int chunkSize) {
+        this.customerRepo = customerRepo;
+        this.vegetableRepo = vegetableRepo;
+        this.catalog = catalog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /** CSV columns: {@code firstName,lastName,email,address}. */
+    public BulkImportSummary importCustomers(BufferedReader in, BulkImportReader.Format format, Consumer<BulkImportResult> sink) {
+        var reader = new BulkImportReader<>(in, format, objectMapper, Customer.class, CUSTOMER_COLUMNS, fields -> {
+            var customer = new Customer();
+            customer.setFirstName(fields[0]);
+            customer.setLastName(fields[1]);
+            customer.setEmail(fields[2]);
+            customer.setAddress(fields[3]);
+            return customer;
+        });
+        // Checked against the primary: a lagging replica would let duplicates through to the unique index
+        var emails = lowerCase(ReadRouting.onPrimary(customerRepo::findAllEmails));
+        try {
+            return run(reader, Customer::getEmail, emails, "Email already exists", INSERT_CUSTOMER_SQL,
+                    c -> new Object[]{c.getFirstName(), c.getLastName(), c.getEmail(), c.getAddress(),
+                            Timestamp.from(c.getCreatedAt() == null ? Instant.now() : c.getCreatedAt())},
+                    sink);
+        } finally {
+            // Inserted over JDBC, so Hibernate did not invalidate the cached typeahead results
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion("customer-search");
+        }
+    }
+
+    /** CSV column: {@code name}. */
+    public BulkImportSummary importVegetables(BufferedReader in, BulkImportReader.Format format, Consumer<BulkImportResult> sink) {
+        var reader = new BulkImportReader<>(in, format, objectMapper, Vegetable.class, VEGETABLE_COLUMNS,
+                fields -> new Vegetable(fields[0]));
+        var names = lowerCase(ReadRouting.onPrimary(vegetableRepo::findAllNames));
+        try {
+            return run(reader, Vegetable::getName, names, "Vegetable already exists", INSERT_VEGETABLE_SQL,
+                    v -> new Object[]{v.getName()}, sink);
+        } finally {
+            catalog.invalidate();
+        }
+    }
+
+    private <T> BulkImportSummary run(BulkImportReader<T> reader, Function<T, String> key, Set<String> taken,
+                                      String duplicate, String insertSql, Function<T, Object[]> columns,
+                                      Consumer<BulkImportResult> sink) {
+        long start = System.nanoTime();
+        var summary = new BulkImportSummary();
+        Consumer<BulkImportResult> report = result -> {
+            summary.count(result);
+            sink.accept(result);
+        };
+        List<Pending> chunk = new ArrayList<>(chunkSize);
+        while (reader.hasNext()) {
+            var row = reader.next();
+            if (row.getError() != null) {
+                report.accept(BulkImportResult.rejected(row.getLineNumber(), null, row.getError()));
+                continue;
+            }
+            var value = row.getValue();
+            var error = validate(value);
+            if (error != null) {
+                report.accept(BulkImportResult.rejected(row.getLineNumber(), key.apply(value), error));
+            } else if (!taken.add(key.apply(value).toLowerCase(Locale.ROOT))) {
+                // Also catches repeats within the payload
+                report.accept(BulkImportResult.rejected(row.getLineNumber(), key.apply(value), duplicate));
+            } else {
+                chunk.add(new Pending(row.getLineNumber(), key.apply(value), columns.apply(value)));
+                if (chunk.size() == chunkSize) {
+                    insert(chunk, insertSql, summary, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insert(chunk, insertSql, summary, report);
+        }
+        summary.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return summary;
+    }
+
+    private void insert(List<Pending> chunk, String insertSql, BulkImportSummary summary, Consumer<BulkImportResult> report) {
+        List<Object[]> rows = new ArrayList<>(chunk.size());
+        chunk.forEach(p -> rows.add(p.columns));
+        try {
+            tx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(insertSql, rows));
+            summary.created(chunk.size());
+        } catch (RuntimeException chunkFailure) {
+            for (var pending : chunk) {
+                try {
+                    tx.executeWithoutResult(status -> jdbcTemplate.update(insertSql, pending.columns));
+                    summary.created(1);
+                } catch (RuntimeException e) {
+                    report.accept(BulkImportResult.failed(pending.lineNumber, pending.key, rootMessage(e)));
+                }
+            }
+        }
+    }
+
+    private <T> String validate(T value) {
+        var violations = validator.validate(value);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static Set<String> lowerCase(Collection<String> values) {
+        Set<String> lower = new HashSet<>(values.size() * 2);
+        values.forEach(v -> lower.add(v.toLowerCase(Locale.ROOT)));
+        return lower;
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null && e.getCause() != e) e = e.getCause();
+        return e.getMessage();
+    }
+
+    private static final class Pending {
+        final long lineNumber;
+        final String key;
+        final Object[] columns;
+
+        Pending(long lineNumber, String key, Object[] columns) {
+            this.lineNumber = lineNumber;
+            this.key = key;
+            this.columns = columns;
+        }
+    }
+}
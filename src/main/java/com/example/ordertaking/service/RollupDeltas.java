@@ -0,0 +1,46 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.entity.DailyCustomerTotalId;
+import com.example.ordertaking.entity.DailyVegetableTotalId;
+import com.example.ordertaking.entity.OrderHeader;
+import com.example.ordertaking.entity.OrderItem;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Signed changes to the daily rollups, accumulated over one or more order writes. */
+public class RollupDeltas {
+
+    private final Map<DailyVegetableTotalId, Long> vegetables = new LinkedHashMap<>();
+    // value: {quantity, order count}
+    private final Map<DailyCustomerTotalId, long[]> customers = new LinkedHashMap<>();
+
+    /** Contribution of an order; pass -1 to compute its removal. */
+    public static RollupDeltas of(OrderHeader order, int sign) {
+        return new RollupDeltas().add(order, sign);
+    }
+
+    public RollupDeltas add(OrderHeader order, int sign) {
+        long quantity = 0;
+        for (OrderItem item : order.getItems()) {
+            var key = new DailyVegetableTotalId(order.getOrderDate(), item.getVegetable().getId());
+            vegetables.merge(key, (long) sign * item.getQuantity(), Long::sum);
+            quantity += item.getQuantity();
+        }
+        var key = new DailyCustomerTotalId(order.getOrderDate(), order.getCustomer().getId());
+        customers.merge(key, new long[]{sign * quantity, sign}, (a, b) -> {
+            a[0] += b[0];
+            a[1] += b[1];
+            return a;
+        });
+        return this;
+    }
+
+    Map<DailyVegetableTotalId, Long> vegetables() {
+        return vegetables;
+    }
+
+    Map<DailyCustomerTotalId, long[]> customers() {
+        return customers;
+    }
+}
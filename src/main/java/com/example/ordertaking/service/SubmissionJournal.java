@@ -0,0 +1,188 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.OrderSubmission;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Append-only NDJSON journal of accepted order submissions. An accepted submission is forced to disk
+ * before it is acknowledged, with group commit: submitters append under the lock, then one of them
+ * forces the file for everyone who appended since the last force while the rest wait, and all of them
+ * are released together. A later "done" line marks a submission persisted or failed. Submissions without a
+ * done line are handed back by {@link #open()} after a restart. A torn last line (crash mid-write) is
+ * skipped; that submission was never acknowledged.
+ * <p>
+ * The file is truncated whenever nothing is pending, and locked so two processes never share it.
+ */
+class SubmissionJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionJournal.class);
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    private FileChannel channel;
+    private FileLock lock;
+    private long pending;
+    /** Accepted lines written so far, and how many of them the last completed force covered. */
+    private long appended;
+    private long forced;
+    private boolean forcing;
+
+    SubmissionJournal(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Opens and locks the journal, returning the submissions accepted but not yet done. */
+    synchronized List<OrderSubmission> open() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        lock = channel.tryLock();
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Submission journal " + file + " is in use by another process");
+        }
+
+        var accepted = new LinkedHashMap<String, OrderSubmission>();
+        var in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            try {
+                var entry = objectMapper.readValue(line, Entry.class);
+                if (entry.accepted != null) {
+                    accepted.put(entry.accepted.getKey(), entry.accepted);
+                } else if (entry.done != null) {
+                    accepted.remove(entry.done);
+                }
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable line {} of submission journal {}", lineNumber, file);
+            }
+        }
+        pending = accepted.size();
+        if (pending == 0) {
+            channel.truncate(0);
+        }
+        channel.position(channel.size());
+        return new ArrayList<>(accepted.values());
+    }
+
+    /**
+     * Records {@code submission} as accepted; returns once it is on disk. If a force is already running
+     * the caller waits for the next one, which then covers every line appended in the meantime.
+     */
+    void accepted(OrderSubmission submission) throws IOException {
+        var entry = new Entry();
+        entry.accepted = submission;
+        long sequence;
+        synchronized (this) {
+            write(List.of(entry));
+            pending++;
+            sequence = ++appended;
+        }
+        awaitForced(sequence);
+    }
+
+    private void awaitForced(long sequence) throws IOException {
+        long target;
+        synchronized (this) {
+            while (forcing && forced < sequence) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for the submission journal to be forced");
+                }
+            }
+            if (forced >= sequence) return;
+            forcing = true;
+            target = appended;
+        }
+        // Outside the lock, so later submitters can append while this force runs; a failed force
+        // leaves the waiters to retry it themselves
+        boolean done = false;
+        try {
+            force();
+            done = true;
+        } finally {
+            synchronized (this) {
+                if (done) forced = Math.max(forced, target);
+                forcing = false;
+                notifyAll();
+            }
+        }
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Records the submissions as finished. Not forced: if the line is lost, the replayed submission
+     * finds its order already stored under the same key.
+     */
+    synchronized void done(Collection<String> keys) throws IOException {
+        List<Entry> entries = new ArrayList<>(keys.size());
+        for (var key : keys) {
+            var entry = new Entry();
+            entry.done = key;
+            entries.add(entry);
+        }
+        write(entries);
+        pending -= keys.size();
+        if (pending <= 0) {
+            pending = 0;
+            channel.truncate(0);
+            channel.position(0);
+        }
+    }
+
+    synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            lock.release();
+            channel.close();
+        }
+    }
+
+    private void write(List<Entry> entries) throws IOException {
+        var out = new StringBuilder();
+        for (var entry : entries) {
+            out.append(objectMapper.writeValueAsString(entry)).append('\n');
+        }
+        var buffer = ByteBuffer.wrap(out.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class Entry {
+        public OrderSubmission accepted;
+        public String done;
+    }
+}
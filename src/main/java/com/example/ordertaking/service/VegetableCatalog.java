@@ -0,0 +1,123 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.CacheStats;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.VegetableRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through, size-bounded cache of the vegetable catalog in front of {@link VegetableRepository}.
+ * Entries are detached entities and must be treated as read-only.
+ * <p>
+ * Writers call {@link #invalidate()} after their transaction commits. Loads and invalidation share one
+ * lock, so a load that read pre-commit rows is always cleared by the invalidation that follows it.
+ * Invalidation is local to this JVM; the TTL bounds staleness when several replicas are running.
+ */
+@Component
+public class VegetableCatalog {
+
+    private final VegetableRepository vegetableRepo;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<Long, Entry> byId;
+    private List<Vegetable> all;
+    private long allLoadedAt;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public VegetableCatalog(VegetableRepository vegetableRepo,
+                            @Value("${app.catalog.max-entries:1000}") int maxEntries,
+                            @Value("${app.catalog.ttl:5m}") Duration ttl) {
+        this.vegetableRepo = vegetableRepo;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > VegetableCatalog.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** All vegetables in repository order. Not cached if the catalog outgrows the bound. */
+    public synchronized List<Vegetable> findAll() {
+        long now = System.nanoTime();
+        if (all != null && now - allLoadedAt < ttlNanos) {
+            hits++;
+            return all;
+        }
+        misses++;
+        var loaded = List.copyOf(vegetableRepo.findAll());
+        if (loaded.size() <= maxEntries) {
+            all = loaded;
+            allLoadedAt = now;
+            loaded.forEach(v -> byId.put(v.getId(), new Entry(v, now)));
+        }
+        return loaded;
+    }
+
+    public synchronized Optional<Vegetable> findById(Long id) {
+        return Optional.ofNullable(findAllById(List.of(id)).get(id));
+    }
+
+    /** Resolves the ids present in the catalog; cache misses are loaded with a single query. */
+    public synchronized Map<Long, Vegetable> findAllById(Collection<Long> ids) {
+        long now = System.nanoTime();
+        Map<Long, Vegetable> found = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            var entry = byId.get(id);
+            if (entry != null && now - entry.loadedAt < ttlNanos) {
+                hits++;
+                found.put(id, entry.vegetable);
+            } else {
+                misses++;
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (var v : vegetableRepo.findAllById(missing)) {
+                byId.put(v.getId(), new Entry(v, now));
+                found.put(v.getId(), v);
+            }
+        }
+        return found;
+    }
+
+    public synchronized void invalidate() {
+        invalidations++;
+        byId.clear();
+        all = null;
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, invalidations, byId.size());
+    }
+
+    private static final class Entry {
+        final Vegetable vegetable;
+        final long loadedAt;
+
+        Entry(Vegetable vegetable, long loadedAt) {
+            this.vegetable = vegetable;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.ordertaking.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/** Minimal RFC 4180 writer: fields containing separators, quotes or line breaks are quoted. */
+public class CsvWriter {
+    private final Writer out;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void row(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) out.write(',');
+            writeField(fields[i]);
+        }
+        out.write('\n');
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeField(Object field) throws IOException {
+        if (field == null) return;
+        String s = field.toString();
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(s);
+            return;
+        }
+        out.write('"');
+        out.write(s.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
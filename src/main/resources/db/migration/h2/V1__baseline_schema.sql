@@ -0,0 +1,40 @@
+-- Baseline schema for H2 (dev profile and tests): the tables ddl-auto=update created from the original
+-- entities. Indexes, rollups and id sequences follow from V2. Keep in step with
+-- ../mysql/V1__baseline_schema.sql.
+
+create table customers (
+    id          bigint generated by default as identity,
+    address     varchar(1000) not null,
+    created_at  timestamp     not null,
+    email       varchar(255)  not null,
+    first_name  varchar(255)  not null,
+    last_name   varchar(255)  not null,
+    primary key (id)
+);
+
+create table order_items (
+    id            bigint generated by default as identity,
+    quantity      integer not null,
+    order_id      bigint  not null,
+    vegetable_id  bigint  not null,
+    primary key (id)
+);
+
+create table orders (
+    id           bigint generated by default as identity,
+    order_date   date   not null,
+    customer_id  bigint not null,
+    primary key (id)
+);
+
+create table vegetables (
+    id    bigint generated by default as identity,
+    name  varchar(255) not null,
+    primary key (id)
+);
+
+alter table customers add constraint UK_rfbvkrffamfql7cjmen8v976v unique (email);
+alter table vegetables add constraint UK_cnsep9kbqc5eymbys02ushq3b unique (name);
+alter table order_items add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders (id);
+alter table order_items add constraint FK35krd00nm2b865dwx4qsyntyn foreign key (vegetable_id) references vegetables (id);
+alter table orders add constraint FKpxtb8awmi0dk6smoh2vp1litg foreign key (customer_id) references customers (id);
@@ -0,0 +1,37 @@
+-- Everything the baseline lacked. Keep in step with ../mysql/V2__indexes_rollups_and_id_sequences.sql.
+
+-- Customer search and list sorting
+create index idx_customers_last_name on customers (last_name, first_name);
+create index idx_customers_first_name on customers (first_name);
+
+-- findByOrderDate / findWithItemsByOrderDate / export range scans
+create index idx_orders_date_customer on orders (order_date, customer_id);
+-- Covers the order -> items join of summarizeByDate and the final orders fetch without touching rows
+create index idx_order_items_order on order_items (order_id, vegetable_id, quantity);
+create index idx_order_items_vegetable on order_items (vegetable_id);
+
+-- Pooled id generators for OrderHeader / OrderItem; increment must equal allocationSize. A value above 1
+-- hands out the 50 ids up to it, so existing rows continue at max(id) + 1.
+create sequence orders_seq start with 1 increment by 50;
+alter sequence orders_seq restart with (select coalesce(max(id) + 50, 1) from orders);
+create sequence order_items_seq start with 1 increment by 50;
+alter sequence order_items_seq restart with (select coalesce(max(id) + 50, 1) from order_items);
+
+-- Daily rollups (DailyRollupService); RollupMaintenanceRunner fills them at startup while empty
+create table daily_vegetable_totals (
+    order_date      date   not null,
+    vegetable_id    bigint not null,
+    total_quantity  bigint not null,
+    primary key (order_date, vegetable_id)
+);
+
+create table daily_customer_totals (
+    order_date      date   not null,
+    customer_id     bigint not null,
+    total_quantity  bigint not null,
+    order_count     bigint not null,
+    primary key (order_date, customer_id)
+);
+
+alter table daily_vegetable_totals add constraint fk_daily_vegetable_totals_vegetable foreign key (vegetable_id) references vegetables (id);
+alter table daily_customer_totals add constraint fk_daily_customer_totals_customer foreign key (customer_id) references customers (id);
@@ -0,0 +1,4 @@
+-- Idempotency key of orders taken through OrderSubmissionService. Keep in step with ../mysql/V3__order_submission_key.sql.
+-- Null for orders entered any other way; unique so a resubmitted or replayed key can never create a second order.
+alter table orders add column submission_key varchar(64);
+create unique index uk_orders_submission_key on orders (submission_key);
@@ -0,0 +1,3 @@
+-- Customer order history (OrderRepository.findHistory*). Keep in step with ../mysql/V4__orders_customer_date.sql.
+-- Newest first with the id as tie-breaker, so a keyset page is one range read of the index in its own order.
+create index idx_orders_customer_date on orders (customer_id, order_date desc, id desc);
@@ -0,0 +1,41 @@
+-- Baseline schema for MySQL 8: the tables ddl-auto=update created from the original entities, column
+-- types and constraint names included, so a pre-Flyway database baselined at V1 (application.properties)
+-- really is at V1. Indexes, rollups and id sequences follow from V2. Keep in step with
+-- ../h2/V1__baseline_schema.sql.
+
+create table customers (
+    id          bigint        not null auto_increment,
+    address     longtext      not null,
+    created_at  datetime      not null,
+    email       varchar(255)  not null,
+    first_name  varchar(255)  not null,
+    last_name   varchar(255)  not null,
+    primary key (id)
+) engine = InnoDB;
+
+create table order_items (
+    id            bigint  not null auto_increment,
+    quantity      integer not null,
+    order_id      bigint  not null,
+    vegetable_id  bigint  not null,
+    primary key (id)
+) engine = InnoDB;
+
+create table orders (
+    id           bigint not null auto_increment,
+    order_date   date   not null,
+    customer_id  bigint not null,
+    primary key (id)
+) engine = InnoDB;
+
+create table vegetables (
+    id    bigint       not null auto_increment,
+    name  varchar(255) not null,
+    primary key (id)
+) engine = InnoDB;
+
+alter table customers add constraint UK_rfbvkrffamfql7cjmen8v976v unique (email);
+alter table vegetables add constraint UK_cnsep9kbqc5eymbys02ushq3b unique (name);
+alter table order_items add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders (id);
+alter table order_items add constraint FK35krd00nm2b865dwx4qsyntyn foreign key (vegetable_id) references vegetables (id);
+alter table orders add constraint FKpxtb8awmi0dk6smoh2vp1litg foreign key (customer_id) references customers (id);
@@ -0,0 +1,44 @@
+-- Everything the baseline lacked, applied to new databases and to pre-Flyway ones baselined at V1 alike.
+-- Keep in step with ../h2/V2__indexes_rollups_and_id_sequences.sql.
+
+-- Column types of the current mappings (the old dialect made address a longtext and dropped fractions)
+alter table customers modify address varchar(1000) not null;
+alter table customers modify created_at datetime(6) not null;
+
+-- Customer search and list sorting
+create index idx_customers_last_name on customers (last_name, first_name);
+create index idx_customers_first_name on customers (first_name);
+
+-- findByOrderDate / findWithItemsByOrderDate / export range scans
+create index idx_orders_date_customer on orders (order_date, customer_id);
+-- Covers the order -> items join of summarizeByDate and the final orders fetch without touching rows.
+-- MySQL drops the implicit index of the order_items -> orders foreign key in its favour.
+create index idx_order_items_order on order_items (order_id, vegetable_id, quantity);
+create index idx_order_items_vegetable on order_items (vegetable_id);
+
+-- MySQL has no sequences: Hibernate emulates the pooled orders_seq / order_items_seq generators (50 ids
+-- per fetch) with single-row tables. A stored value above 1 hands out the 50 ids up to it, so existing
+-- rows continue at max(id) + 1. The auto_increment left on the id columns is no longer used.
+create table orders_seq (next_val bigint) engine = InnoDB;
+insert into orders_seq select coalesce(max(id) + 50, 1) from orders;
+create table order_items_seq (next_val bigint) engine = InnoDB;
+insert into order_items_seq select coalesce(max(id) + 50, 1) from order_items;
+
+-- Daily rollups (DailyRollupService); RollupMaintenanceRunner fills them at startup while empty
+create table daily_vegetable_totals (
+    order_date      date   not null,
+    vegetable_id    bigint not null,
+    total_quantity  bigint not null,
+    primary key (order_date, vegetable_id)
+) engine = InnoDB;
+
+create table daily_customer_totals (
+    order_date      date   not null,
+    customer_id     bigint not null,
+    total_quantity  bigint not null,
+    order_count     bigint not null,
+    primary key (order_date, customer_id)
+) engine = InnoDB;
+
+alter table daily_vegetable_totals add constraint fk_daily_vegetable_totals_vegetable foreign key (vegetable_id) references vegetables (id);
+alter table daily_customer_totals add constraint fk_daily_customer_totals_customer foreign key (customer_id) references customers (id);
@@ -0,0 +1,4 @@
+-- Customer order history (OrderRepository.findHistory*). Keep in step with ../h2/V4__orders_customer_date.sql.
+-- Newest first with the id as tie-breaker, so a keyset page is one range read of the index in its own order.
+-- It also serves the orders -> customers foreign key, so MySQL may drop the implicit index it created for it.
+create index idx_orders_customer_date on orders (customer_id, order_date desc, id desc);
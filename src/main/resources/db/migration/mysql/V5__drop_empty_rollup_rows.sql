@@ -0,0 +1,5 @@
+-- Rollup rows brought down to zero by deleted or changed orders; DailyRollupService now deletes them as
+-- they empty. They kept deleted customers' and vegetables' foreign keys alive. Keep in step with
+-- ../h2/V5__drop_empty_rollup_rows.sql.
+delete from daily_vegetable_totals where total_quantity = 0;
+delete from daily_customer_totals where total_quantity = 0 and order_count = 0;
@@ -0,0 +1,10 @@
+-- Change versions of the rendered order pages (OrderPageCache), shared by all instances: one row per
+-- order date that has been written, plus the '*' row for changes that affect every page (customer and
+-- vegetable edits). modified_at is epoch milliseconds. Keep in step with ../h2/V6__page_versions.sql.
+create table page_versions (
+    scope        varchar(10) not null primary key,
+    version      bigint      not null,
+    modified_at  bigint      not null
+) engine = InnoDB;
+insert into page_versions (scope, version, modified_at)
+values ('*', 0, floor(unix_timestamp(now(3)) * 1000.0));
@@ -0,0 +1,55 @@
+// Live final orders: a snapshot replaces the table, deltas update single rows.
+(function () {
+  const body = document.getElementById('liveBody');
+  const status = document.getElementById('liveStatus');
+  const dateLabel = document.getElementById('liveDate');
+  const totals = new Map();
+
+  function render(changedIds) {
+    const rows = [...totals.values()]
+      .filter(t => t.totalQuantity !== 0)
+      .sort((a, b) => a.vegetableName.localeCompare(b.vegetableName));
+    body.innerHTML = '';
+    if (rows.length === 0) {
+      body.innerHTML = '<tr><td colspan="3">No orders yet today.</td></tr>';
+      return;
+    }
+    for (const t of rows) {
+      const tr = document.createElement('tr');
+      const cells = [t.vegetableName, t.totalQuantity, t.delta ? (t.delta > 0 ? '+' : '') + t.delta : ''];
+      for (const value of cells) {
+        const td = document.createElement('td');
+        td.textContent = value;
+        tr.appendChild(td);
+      }
+      if (changedIds.has(t.vegetableId)) {
+        tr.classList.add('changed');
+        setTimeout(() => tr.classList.remove('changed'), 50);
+      }
+      body.appendChild(tr);
+    }
+  }
+
+  const source = new EventSource(body.dataset.stream);
+  source.addEventListener('snapshot', e => {
+    const update = JSON.parse(e.data);
+    dateLabel.textContent = update.date;
+    totals.clear();
+    update.totals.forEach(t => totals.set(t.vegetableId, t));
+    render(new Set());
+  });
+  source.addEventListener('delta', e => {
+    const update = JSON.parse(e.data);
+    update.totals.forEach(t => totals.set(t.vegetableId, t));
+    render(new Set(update.totals.map(t => t.vegetableId)));
+  });
+  source.onopen = () => {
+    status.textContent = 'Live';
+    status.classList.add('connected');
+  };
+  source.onerror = () => {
+    // EventSource reconnects by itself and receives a fresh snapshot
+    status.textContent = 'Reconnecting…';
+    status.classList.remove('connected');
+  };
+})();
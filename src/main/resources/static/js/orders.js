@@ -30,4 +30,42 @@ function removeRow(btn) {
     tr.querySelector('select[name="vegetableIds"]').selectedIndex = 0;
     tr.querySelector('input[name="quantities"]').value = 1;
   }
-}
\ No newline at end of file
+}
+
+// Customer typeahead: queries /customers/search as the user types and keeps the hidden customerId in sync.
+(function () {
+  const input = document.getElementById('customerSearch');
+  if (!input) return;
+  const list = document.getElementById('customerOptions');
+  const hidden = document.getElementById('customerId');
+  const url = input.dataset.searchUrl;
+  let timer = null;
+  let options = [];
+
+  function sync() {
+    const match = options.find(o => o.label === input.value);
+    hidden.value = match ? match.id : '';
+    input.setCustomValidity(match ? '' : 'Select a customer from the list');
+  }
+
+  input.addEventListener('input', () => {
+    sync();
+    clearTimeout(timer);
+    const q = input.value.trim();
+    if (q.length < 2 || hidden.value) return;
+    timer = setTimeout(() => {
+      fetch(url + '?q=' + encodeURIComponent(q), { headers: { 'Accept': 'application/json' } })
+        .then(r => r.ok ? r.json() : [])
+        .then(result => {
+          options = result;
+          list.innerHTML = '';
+          result.forEach(o => {
+            const opt = document.createElement('option');
+            opt.value = o.label;
+            list.appendChild(opt);
+          });
+          sync();
+        });
+    }, 200);
+  });
+})();
@@ -0,0 +1,103 @@
+package com.example.ordertaking.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds customers, vegetables and orders with plain JDBC batches. Everything is derived from a fixed
+ * {@link Random} seed, so two runs with the same sizes produce identical data and comparable numbers.
+ * Orders are spread evenly over {@code days} consecutive dates starting at {@link #FIRST_DAY}.
+ * <p>
+ * Lives with the tests so both the JMH benchmarks ({@code src/jmh}) and the HTTP load tests can seed
+ * with it. The daily rollups are not filled in; callers run {@code DailyRollupService.rebuildAll()}.
+ */
+public class BenchmarkDataGenerator {
+
+    public static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final long SEED = 20250101L;
+    private static final int BATCH = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final Random random = new Random(SEED);
+
+    public BenchmarkDataGenerator(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Inserts the data set and moves the pooled id sequences past it. */
+    public Dataset generate(int customers, int vegetables, int days, int ordersPerDay, int maxLinesPerOrder) {
+        Timestamp created = Timestamp.from(Instant.parse("2025-01-01T00:00:00Z"));
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= customers; i++) {
+            rows.add(new Object[]{"Bench" + i, "Customer" + i, "bench" + i + "@example.com", "Street " + i, created});
+        }
+        jdbc.batchUpdate("insert into customers (first_name, last_name, email, address, created_at) values (?, ?, ?, ?, ?)", rows);
+        rows.clear();
+        for (int i = 1; i <= vegetables; i++) {
+            rows.add(new Object[]{"Bench vegetable " + i});
+        }
+        jdbc.batchUpdate("insert into vegetables (name) values (?)", rows);
+
+        long[] customerIds = ids("select id from customers where email like 'bench%' order by id");
+        long[] vegetableIds = ids("select id from vegetables where name like 'Bench vegetable %' order by id");
+
+        long orderId = jdbc.queryForObject("select coalesce(max(id), 0) from orders", Long.class);
+        long itemId = jdbc.queryForObject("select coalesce(max(id), 0) from order_items", Long.class);
+        List<Object[]> orders = new ArrayList<>(BATCH);
+        List<Object[]> items = new ArrayList<>(BATCH);
+        for (int day = 0; day < days; day++) {
+            Date date = Date.valueOf(FIRST_DAY.plusDays(day));
+            for (int n = 0; n < ordersPerDay; n++) {
+                orderId++;
+                orders.add(new Object[]{orderId, customerIds[random.nextInt(customerIds.length)], date});
+                int lines = 1 + random.nextInt(maxLinesPerOrder);
+                for (int l = 0; l < lines; l++) {
+                    items.add(new Object[]{++itemId, orderId, vegetableIds[random.nextInt(vegetableIds.length)], 1 + random.nextInt(20)});
+                }
+                if (orders.size() >= BATCH) {
+                    flush(orders, items);
+                }
+            }
+        }
+        flush(orders, items);
+
+        // Hibernate's pooled optimizer hands out (value - 49 .. value]; keep that range clear of seeded ids.
+        jdbc.execute("alter sequence orders_seq restart with " + (orderId + 100));
+        jdbc.execute("alter sequence order_items_seq restart with " + (itemId + 100));
+        return new Dataset(customerIds, vegetableIds, days);
+    }
+
+    private void flush(List<Object[]> orders, List<Object[]> items) {
+        jdbc.batchUpdate("insert into orders (id, customer_id, order_date) values (?, ?, ?)", orders);
+        jdbc.batchUpdate("insert into order_items (id, order_id, vegetable_id, quantity) values (?, ?, ?, ?)", items);
+        orders.clear();
+        items.clear();
+    }
+
+    private long[] ids(String sql) {
+        return jdbc.queryForList(sql, Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    public static class Dataset {
+        private final long[] customerIds;
+        private final long[] vegetableIds;
+        private final int days;
+
+        Dataset(long[] customerIds, long[] vegetableIds, int days) {
+            this.customerIds = customerIds;
+            this.vegetableIds = vegetableIds;
+            this.days = days;
+        }
+
+        public long[] getCustomerIds() {return customerIds;}
+        public long[] getVegetableIds() {return vegetableIds;}
+        public int getDays() {return days;}
+    }
+}
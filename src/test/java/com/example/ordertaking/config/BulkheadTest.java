@@ -0,0 +1,123 @@
+package com.example.ordertaking.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,prometheus,bulkheads")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@AutoConfigureMetrics
+class BulkheadTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired @Qualifier("writesBulkhead") private Bulkhead writes;
+    @Autowired @Qualifier("reportsBulkhead") private Bulkhead reports;
+
+    @AfterEach
+    void restoreDefaults() {
+        writes.configure(8, 100, Duration.ofSeconds(5));
+        reports.configure(3, 6, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void fullBulkhead_shouldAnswer503WithRetryAfterWithoutRunningTheRequest() throws Exception {
+        mockMvc.perform(post("/actuator/bulkheads/reports").with(httpBasic("admin", "admin123"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"maxConcurrent\": 1, \"maxQueue\": 0}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxConcurrent").value(1))
+                .andExpect(jsonPath("$.maxQueue").value(0));
+        assertThat(reports.tryAcquire()).isTrue();
+        try {
+            mockMvc.perform(asAdmin(get("/orders/final").param("date", "2025-01-01")))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "5"));
+            // Other classes keep their own slots
+            mockMvc.perform(asAdmin(get("/customers"))).andExpect(status().isOk());
+        } finally {
+            reports.release();
+        }
+        mockMvc.perform(asAdmin(get("/orders/final").param("date", "2025-01-01"))).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/bulkheads").with(httpBasic("admin", "admin123")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reports.rejectedQueueFull").value(1))
+                .andExpect(jsonPath("$.reports.active").value(0));
+        assertThat(mockMvc.perform(get("/actuator/prometheus")).andReturn().getResponse().getContentAsString())
+                .contains("bulkhead_rejected_total{application=\"order-taking\",bulkhead=\"reports\",reason=\"queue-full\",} 1.0")
+                .contains("bulkhead_max_concurrent{application=\"order-taking\",bulkhead=\"reports\",} 1.0");
+    }
+
+    @Test
+    void queuedWrites_shouldMakeReportsAndListingsStepAside() throws Exception {
+        writes.configure(1, 10, Duration.ofSeconds(10));
+        assertThat(writes.tryAcquire()).isTrue();
+        var queuedWrite = CompletableFuture.supplyAsync(() -> {
+            try {
+                return writes.tryAcquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (writes.status().getQueued() == 0 && System.nanoTime() < deadline) Thread.sleep(10);
+            assertThat(writes.status().getQueued()).isEqualTo(1);
+            mockMvc.perform(asAdmin(get("/orders/final").param("date", "2025-01-01"))).andExpect(status().isServiceUnavailable());
+            mockMvc.perform(asAdmin(get("/vegetables"))).andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "2"));
+            // Not classified: always served
+            mockMvc.perform(asAdmin(get("/orders/new"))).andExpect(status().isOk());
+        } finally {
+            writes.release();
+        }
+        assertThat(queuedWrite.get(5, TimeUnit.SECONDS)).as("queued write admitted").isTrue();
+        writes.release();
+        mockMvc.perform(asAdmin(get("/vegetables"))).andExpect(status().isOk());
+        assertThat(reports.status().getRejectedYield()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkhead_shouldTurnAwayAfterTheQueueOrTheWaitIsExhausted() throws Exception {
+        var bulkhead = new Bulkhead("test", 1, 1, Duration.ofMillis(50), Duration.ofSeconds(1), null);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        long start = System.nanoTime();
+        assertThat(bulkhead.tryAcquire()).as("waited max-wait").isFalse();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+
+        bulkhead.configure(1, 0, Duration.ofSeconds(10));
+        assertThat(bulkhead.tryAcquire()).as("no queue").isFalse();
+        bulkhead.configure(2, 0, Duration.ofSeconds(10));
+        assertThat(bulkhead.tryAcquire()).as("raised limit").isTrue();
+
+        var status = bulkhead.status();
+        assertThat(status.getActive()).isEqualTo(2);
+        assertThat(status.getRejectedTimeout()).isEqualTo(1);
+        assertThat(status.getRejectedQueueFull()).isEqualTo(1);
+    }
+
+    private static MockHttpServletRequestBuilder asAdmin(MockHttpServletRequestBuilder request) {
+        return request.with(user("admin").roles("ADMIN"));
+    }
+}
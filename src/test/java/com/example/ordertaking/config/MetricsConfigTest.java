@@ -0,0 +1,41 @@
+package com.example.ordertaking.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.second-level-cache.enabled=true")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@AutoConfigureMetrics
+class MetricsConfigTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    void prometheus_shouldExposeHandlerRepositoryAndRenderTimings() throws Exception {
+        mockMvc.perform(get("/orders/final").param("date", "2025-01-01").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .containsPattern("http_server_requests_seconds_bucket\\{.*handler=\"OrderController.finalOrders\"")
+                .containsPattern("view_render_seconds_count\\{.*view=\"orders/final\"")
+                .containsPattern("repository_statements_sum\\{.*method=\"findWithItemsByOrderDate\",repository=\"OrderRepository\",\\} 1\\.0")
+                .containsPattern("spring_data_repository_invocations_seconds_count\\{.*method=\"findWithItemsByOrderDate\"")
+                .contains("hibernate_sessions_open_total")
+                .containsPattern("hibernate_second_level_cache_requests_total\\{.*region=\"customers\"");
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.ordertaking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.io.Closeable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Read/write routing against two embedded H2 databases. Nothing replicates between them, so a row
+ * written to only one of them shows which database served a read.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadWriteRoutingTest.PRIMARY_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.datasource.replica.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "app.datasource.replica.driver-class-name=org.h2.Driver",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.retry-after=1h"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    static {
+        // Stands in for replication of the schema; must exist before startup reads (rollup backfill check)
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+    }
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired @Qualifier("primaryDataSource") private DataSource primary;
+    @Autowired @Qualifier("replicaDataSource") private DataSource replica;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Test
+    void readOnlyTransactions_shouldBeServedByTheReplica() throws Exception {
+        String name = "Replica Turnip " + System.nanoTime();
+        new JdbcTemplate(replica).update("insert into vegetables (name) values (?)", name);
+        double replicaReads = reads("replica");
+
+        assertThat(perform(get("/vegetables")).getResponse().getContentAsString()).contains(name);
+        assertThat(reads("replica")).isGreaterThan(replicaReads);
+    }
+
+    @Test
+    void writes_shouldGoToThePrimaryAndBeReadBackThereWithinTheWindow() throws Exception {
+        String name = "Primary Parsnip " + System.nanoTime();
+        var created = perform(post("/vegetables").with(csrf()).param("name", name));
+        Cookie pin = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        assertThat(created.getResponse().getStatus()).isEqualTo(302);
+        assertThat(count(primary, name)).isEqualTo(1);
+        assertThat(count(replica, name)).isZero();
+        assertThat(pin).isNotNull();
+        assertThat(pin.getMaxAge()).isEqualTo(5);
+        assertThat(perform(get("/vegetables").cookie(pin)).getResponse().getContentAsString()).contains(name);
+        assertThat(perform(get("/vegetables")).getResponse().getContentAsString()).doesNotContain(name);
+    }
+
+    @Test
+    @DirtiesContext
+    void unavailableReplica_shouldFallBackToThePrimary() throws Exception {
+        String name = "Fallback Fennel " + System.nanoTime();
+        new JdbcTemplate(primary).update("insert into vegetables (name) values (?)", name);
+        ((Closeable) replica.unwrap(Closeable.class)).close();
+
+        var result = perform(get("/vegetables"));
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(result.getResponse().getContentAsString()).contains(name);
+        assertThat(reads("fallback")).isPositive();
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("datasource.routing.reads").tag("target", target).counter().count();
+    }
+
+    private static int count(DataSource dataSource, String name) {
+        return new JdbcTemplate(dataSource).queryForObject("select count(*) from vegetables where name = ?", Integer.class, name);
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user("admin").roles("ADMIN"))).andReturn();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.ordertaking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The prod profile: no demo data, pages warmed over loopback before readiness, startup timings logged. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+@AutoConfigureMetrics
+@ActiveProfiles("prod")
+@ExtendWith(OutputCaptureExtension.class)
+class StartupWarmupTest {
+
+    /** Page requests served by the time readiness switched to accepting traffic, by URI. */
+    private static final Map<String, Long> SERVED_WHEN_READY = new ConcurrentHashMap<>();
+
+    @Autowired private JdbcTemplate jdbc;
+    @LocalServerPort private int port;
+
+    @Test
+    void prodProfile_shouldWarmTheHotPagesBeforeReportingReady(CapturedOutput output) throws Exception {
+        assertThat(SERVED_WHEN_READY).containsKeys("/orders/new", "/orders/final", "/customers", "/vegetables");
+        assertThat(SERVED_WHEN_READY.get("/orders/final")).isEqualTo(10L);
+
+        var readiness = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health/readiness")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(readiness.statusCode()).isEqualTo(200);
+        assertThat(readiness.body()).contains("UP");
+
+        assertThat(jdbc.queryForObject("select count(*) from customers", Integer.class)).as("demo data").isZero();
+        assertThat(output).contains("Startup warm-up: 10 query rounds", "Startup took", "Slowest beans (own time)");
+    }
+
+    @TestConfiguration
+    static class ReadinessProbe {
+        @Bean
+        ApplicationListener<AvailabilityChangeEvent<ReadinessState>> recordWarmedPages(MeterRegistry registry) {
+            return event -> {
+                if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC) return;
+                registry.find("http.server.requests").tag("status", "200").timers()
+                        .forEach(t -> SERVED_WHEN_READY.merge(t.getId().getTag("uri"), t.count(), Long::sum));
+            };
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.ordertaking.config;
+
+import com.example.ordertaking.OrderTakingApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of authenticated page views against one and then three instances, with every client
+ * logged in on one instance and spreading its requests over all of them (no sticky sessions).
+ * Tagged {@code load}; run with {@code mvn test -DskipLoadTests=false}.
+ * <p>
+ * By default three instances start in this JVM on a shared in-memory H2 database, each capped at
+ * {@code load.threads-per-instance} request threads in place of a per-pod CPU limit. Point it at real
+ * replicas with {@code -Dload.urls=http://a:8080,http://b:8080,http://c:8080}. Near-linear scaling
+ * needs a core per request thread; on smaller machines the instances share the CPU, so the ratio is
+ * always reported but only asserted when there are enough cores (or real replicas).
+ */
+@Tag("load")
+class StatelessScalingLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("load.measure-seconds", 15));
+    private static final int CLIENTS_PER_INSTANCE = Integer.getInteger("load.clients-per-instance", 4);
+    private static final int THREADS_PER_INSTANCE = Integer.getInteger("load.threads-per-instance", 2);
+    private static final String USERNAME = System.getProperty("load.username", "admin");
+    private static final String PASSWORD = System.getProperty("load.password", "admin123");
+    private static final Pattern COOKIE = Pattern.compile("^([^=;]+)=([^;]*)");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    void throughput_shouldScaleWithInstancesWithoutStickySessions() throws Exception {
+        List<ConfigurableApplicationContext> instances = new ArrayList<>();
+        try {
+            List<String> urls;
+            var external = System.getProperty("load.urls", "");
+            if (external.isBlank()) {
+                for (int i = 0; i < 3; i++) {
+                    instances.add(start());
+                }
+                urls = instances.stream()
+                        .map(c -> "http://localhost:" + ((ServletWebServerApplicationContext) c).getWebServer().getPort())
+                        .toList();
+            } else {
+                urls = Arrays.asList(external.split(","));
+            }
+
+            var one = measure(urls.subList(0, 1));
+            var all = measure(urls);
+            double scaling = all.perSecond() / one.perSecond();
+            int cores = Runtime.getRuntime().availableProcessors();
+            System.out.printf("Stateless sessions: 1 instance %.0f req/s, %d instances %.0f req/s, %.2fx (%.0f%% of linear) on %d cores%n",
+                    one.perSecond(), urls.size(), all.perSecond(), scaling, 100 * scaling / urls.size(), cores);
+
+            assertThat(one.failures + all.failures).as("requests answered without a session on any instance").isZero();
+            if (!external.isBlank() || cores >= THREADS_PER_INSTANCE * urls.size()) {
+                assertThat(scaling).isGreaterThanOrEqualTo(0.7 * urls.size());
+            }
+        } finally {
+            instances.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        // Command-line arguments, since builder defaults rank below application.yml
+        return new SpringApplicationBuilder(OrderTakingApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:stateless-scaling;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.thymeleaf.cache=true",
+                "--spring.main.banner-mode=off",
+                "--app.session.signing-key=load-test-signing-key-0123456789abcdef",
+                "--server.tomcat.threads.max=" + THREADS_PER_INSTANCE,
+                "--server.tomcat.threads.min-spare=" + THREADS_PER_INSTANCE);
+    }
+
+    /** Closed loop: each client logs in on one instance, then round-robins page views over all of them. */
+    private Result measure(List<String> urls) throws Exception {
+        int clients = CLIENTS_PER_INSTANCE * urls.size();
+        var completed = new AtomicLong();
+        var failures = new AtomicLong();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long until = measureFrom + MEASURE.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                running.add(pool.submit(() -> {
+                    var auth = login(urls.get(offset % urls.size()));
+                    for (int i = offset; System.nanoTime() < until; i++) {
+                        var request = HttpRequest.newBuilder(URI.create(urls.get(i % urls.size()) + "/customers"))
+                                .header("Accept", "text/html")
+                                .header("Cookie", auth)
+                                .build();
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (System.nanoTime() >= measureFrom) {
+                            (status == 200 ? completed : failures).incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (var future : running) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Result(completed.get(), failures.get(), MEASURE);
+    }
+
+    /** Form login the way a browser does it; returns the session cookie header. */
+    private String login(String url) throws Exception {
+        var page = client.send(HttpRequest.newBuilder(URI.create(url + "/login")).header("Accept", "text/html").build(),
+                HttpResponse.BodyHandlers.discarding());
+        var xsrf = cookie(page, "XSRF-TOKEN");
+        var form = "username=" + encode(USERNAME) + "&password=" + encode(PASSWORD) + "&_csrf=" + encode(xsrf);
+        var login = client.send(HttpRequest.newBuilder(URI.create(url + "/login"))
+                        .header("Accept", "text/html")
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .header("Cookie", "XSRF-TOKEN=" + xsrf)
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertThat(login.statusCode()).as("login redirect").isEqualTo(302);
+        return SignedCookieSecurityContextRepository.COOKIE + "=" + cookie(login, SignedCookieSecurityContextRepository.COOKIE);
+    }
+
+    private static String cookie(HttpResponse<?> response, String name) {
+        return response.headers().allValues("Set-Cookie").stream()
+                .map(COOKIE::matcher)
+                .filter(m -> m.find() && m.group(1).equals(name))
+                .map(m -> m.group(2))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no " + name + " cookie from " + response.uri()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static final class Result {
+        final long completed;
+        final long failures;
+        final Duration window;
+
+        Result(long completed, long failures, Duration window) {
+            this.completed = completed;
+            this.failures = failures;
+            this.window = window;
+        }
+
+        double perSecond() {
+            return completed * 1000.0 / window.toMillis();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.ordertaking.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.servlet.http.Cookie;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Stateless sessions: the login lives in a signed cookie that any replica with the same key accepts.
+ * Requests carry the real XSRF-TOKEN cookie rather than {@code csrf()}, which would swap in a
+ * session-backed token repository.
+ */
+@SpringBootTest(properties = "app.session.signing-key=" + StatelessSessionTest.SIGNING_KEY)
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class StatelessSessionTest {
+
+    static final String SIGNING_KEY = "test-signing-key-0123456789abcdef";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private PasswordEncoder passwordEncoder;
+
+    @Test
+    void login_shouldIssueASignedCookieInsteadOfAnHttpSession() throws Exception {
+        var login = login("admin123");
+        Cookie auth = login.getResponse().getCookie(SignedCookieSecurityContextRepository.COOKIE);
+
+        assertThat(login.getResponse().getRedirectedUrl()).isEqualTo("/customers");
+        assertThat(login.getRequest().getSession(false)).isNull();
+        assertThat(auth).isNotNull();
+        assertThat(auth.isHttpOnly()).isTrue();
+
+        var page = mockMvc.perform(get("/customers").accept(MediaType.TEXT_HTML).cookie(auth)).andReturn();
+        assertThat(page.getResponse().getStatus()).isEqualTo(200);
+        assertThat(page.getRequest().getSession(false)).isNull();
+        assertThat(page.getResponse().getCookie(SignedCookieSecurityContextRepository.COOKIE))
+                .as("fresh token is not re-issued").isNull();
+    }
+
+    @Test
+    void tokenFromAnotherReplicaWithTheSameKey_shouldBeAccepted() throws Exception {
+        var otherReplica = new SignedCookieSecurityContextRepository(SIGNING_KEY, Duration.ofMinutes(30));
+        var token = otherReplica.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")), System.currentTimeMillis() / 1000);
+
+        assertThat(status(new Cookie(SignedCookieSecurityContextRepository.COOKIE, token))).isEqualTo(200);
+    }
+
+    @Test
+    void tamperedOrForeignTokens_shouldBeRejected() throws Exception {
+        var auth = login("admin123").getResponse().getCookie(SignedCookieSecurityContextRepository.COOKIE);
+        var foreignKey = new SignedCookieSecurityContextRepository("another-signing-key-0123456789abcdef", Duration.ofMinutes(30));
+        var foreign = foreignKey.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")), System.currentTimeMillis() / 1000);
+        var expired = new SignedCookieSecurityContextRepository(SIGNING_KEY, Duration.ofMinutes(30)).issue(
+                UsernamePasswordAuthenticationToken.authenticated("admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")),
+                System.currentTimeMillis() / 1000 - 3600);
+
+        assertThat(status(new Cookie(SignedCookieSecurityContextRepository.COOKIE, "x" + auth.getValue()))).isEqualTo(302);
+        assertThat(status(new Cookie(SignedCookieSecurityContextRepository.COOKIE, foreign))).isEqualTo(302);
+        assertThat(status(new Cookie(SignedCookieSecurityContextRepository.COOKIE, expired))).isEqualTo(302);
+    }
+
+    @Test
+    void missingOrShortSigningKey_shouldFailStartupOutsideTheDevProfile() {
+        assertThatThrownBy(() -> SecurityConfig.signedCookieRepository("", Duration.ofMinutes(30), false))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("app.session.signing-key");
+        assertThatThrownBy(() -> SecurityConfig.signedCookieRepository("0123456789abcdef", Duration.ofMinutes(30), false))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(SecurityConfig.signedCookieRepository("", Duration.ofMinutes(30), true)).isNotNull();
+        assertThat(SecurityConfig.signedCookieRepository(SIGNING_KEY, Duration.ofMinutes(30), false)).isNotNull();
+    }
+
+    @Test
+    void logout_shouldClearTheCookie() throws Exception {
+        var auth = login("admin123").getResponse().getCookie(SignedCookieSecurityContextRepository.COOKIE);
+
+        var xsrf = xsrfCookie();
+        var logout = mockMvc.perform(post("/logout").accept(MediaType.TEXT_HTML)
+                .cookie(auth, xsrf).param("_csrf", xsrf.getValue())).andReturn();
+
+        assertThat(logout.getResponse().getRedirectedUrl()).isEqualTo("/login?logout");
+        assertThat(logout.getResponse().getCookie(SignedCookieSecurityContextRepository.COOKIE).getMaxAge()).isZero();
+    }
+
+    @Test
+    void repeatedLogins_shouldReuseTheVerifiedCredentialButNeverAWrongOne() throws Exception {
+        var cache = (VerifiedCredentialCache) passwordEncoder;
+        login("admin123");
+        long hits = cache.hits();
+
+        assertThat(login("admin123").getResponse().getRedirectedUrl()).isEqualTo("/customers");
+        assertThat(cache.hits()).isEqualTo(hits + 1);
+        assertThat(login("wrong").getResponse().getRedirectedUrl()).isEqualTo("/login?error");
+        assertThat(login("wrong").getResponse().getRedirectedUrl()).isEqualTo("/login?error");
+        assertThat(cache.hits()).isEqualTo(hits + 1);
+    }
+
+    private MvcResult login(String password) throws Exception {
+        var xsrf = xsrfCookie();
+        return mockMvc.perform(post("/login").accept(MediaType.TEXT_HTML).cookie(xsrf)
+                .param("_csrf", xsrf.getValue()).param("username", "admin").param("password", password)).andReturn();
+    }
+
+    private Cookie xsrfCookie() throws Exception {
+        var cookie = mockMvc.perform(get("/login").accept(MediaType.TEXT_HTML)).andReturn().getResponse().getCookie("XSRF-TOKEN");
+        assertThat(cookie).as("CSRF token kept in a cookie").isNotNull();
+        return cookie;
+    }
+
+    private int status(Cookie auth) throws Exception {
+        return mockMvc.perform(get("/customers").accept(MediaType.TEXT_HTML).cookie(auth)).andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.ordertaking.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.DigestUtils;
+
+import javax.servlet.Filter;
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pages link the content-hashed asset URLs, which are cached as immutable and served precompressed;
+ * over a real Tomcat, so files above the threshold (1 KB here) really go out through sendfile.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "app.assets.sendfile-threshold=1KB")
+@AutoConfigureTestDatabase
+class StaticAssetsTest {
+
+    /** Sendfile file name Tomcat was handed, by request URI ("" when the body was written). */
+    private static final Map<String, String> SENDFILE = new ConcurrentHashMap<>();
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    @LocalServerPort private int port;
+
+    @Test
+    void pages_shouldLinkImmutablePrecompressedAssetsByContentHash() throws Exception {
+        var css = new ClassPathResource("static/css/styles.css").getInputStream().readAllBytes();
+        var hashed = "/css/styles-" + DigestUtils.md5DigestAsHex(css) + ".css";
+        assertThat(get("/login", Map.of()).body()).contains("href=\"" + hashed + "\"");
+
+        var gzipped = client.send(request(hashed, Map.of("Accept-Encoding", "gzip, deflate")), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(gzipped.statusCode()).isEqualTo(200);
+        assertThat(gzipped.headers().firstValue("Cache-Control")).hasValue(StaticAssetHandler.IMMUTABLE);
+        assertThat(gzipped.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(gzipped.headers().allValues("Vary")).anySatisfy(v -> assertThat(v).contains("Accept-Encoding"));
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(gzipped.body())).readAllBytes()).isEqualTo(css);
+        assertThat(gzipped.body().length).isLessThan(1024);
+        assertThat(SENDFILE.get(hashed)).as("small file, written").isEmpty();
+
+        var plain = client.send(request(hashed, Map.of()), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(plain.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(plain.headers().firstValue("Content-Length")).hasValue(String.valueOf(css.length));
+        assertThat(plain.body()).isEqualTo(css);
+        assertThat(SENDFILE.get(hashed)).as("2 KB file, sent by Tomcat").endsWith("styles.css");
+
+        var js = new ClassPathResource("static/js/orders.js").getInputStream().readAllBytes();
+        var script = get("/js/orders-" + DigestUtils.md5DigestAsHex(js) + ".js", Map.of());
+        assertThat(script.statusCode()).isEqualTo(200);
+        assertThat(script.headers().firstValue("Cache-Control")).hasValue(StaticAssetHandler.IMMUTABLE);
+    }
+
+    @Test
+    void unhashedOrStaleUrls_shouldNotBeCachedForever() throws Exception {
+        var unhashed = get("/css/styles.css", Map.of());
+        assertThat(unhashed.statusCode()).isEqualTo(200);
+        assertThat(unhashed.headers().firstValue("Cache-Control")).hasValue(StaticAssetHandler.REVALIDATE);
+        assertThat(unhashed.headers().firstValue("Last-Modified")).isPresent();
+
+        var stale = get("/css/styles-00000000000000000000000000000000.css", Map.of());
+        assertThat(stale.statusCode()).isEqualTo(404);
+        assertThat(stale.headers().firstValue("Cache-Control").orElse("")).doesNotContain("immutable");
+    }
+
+    private HttpResponse<String> get(String path, Map<String, String> headers) throws Exception {
+        return client.send(request(path, headers), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String path, Map<String, String> headers) {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        headers.forEach(request::header);
+        return request.build();
+    }
+
+    @TestConfiguration
+    static class SendfileRecorder {
+        @Bean
+        FilterRegistrationBean<Filter> recordSendfile() {
+            return new FilterRegistrationBean<>((request, response, chain) -> {
+                chain.doFilter(request, response);
+                var file = request.getAttribute("org.apache.tomcat.sendfile.filename");
+                SENDFILE.put(((HttpServletRequest) request).getRequestURI(), file == null ? "" : file.toString());
+            });
+        }
+    }
+}
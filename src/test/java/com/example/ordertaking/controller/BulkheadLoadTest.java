@@ -0,0 +1,228 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.OrderTakingApplication;
+import com.example.ordertaking.benchmark.BenchmarkDataGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order writes during a report storm, over real HTTP against one embedded instance, first without and
+ * then with the bulkheads: {@code load.report-clients} clients pull the CSV export of every seeded day
+ * back to back while {@code load.write-clients} clients place orders through the form. Prints write
+ * latency percentiles and report outcomes of both runs; with bulkheads on, every write must succeed
+ * within {@code load.max-write-p99-millis} at p99 while reports are turned away with 503.
+ * Tagged {@code load}; run with
+ * {@code mvn test -DskipLoadTests=false -DskipSmallHeapTests=true -DfailIfNoTests=false -Dtest=BulkheadLoadTest}.
+ */
+@Tag("load")
+class BulkheadLoadTest {
+
+    private static final int CUSTOMERS = Integer.getInteger("load.customers", 2_000);
+    private static final int VEGETABLES = Integer.getInteger("load.vegetables", 50);
+    private static final int DAYS = Integer.getInteger("load.days", 30);
+    private static final int ORDERS_PER_DAY = Integer.getInteger("load.orders-per-day", 200);
+    private static final int REPORT_CLIENTS = Integer.getInteger("load.report-clients", 24);
+    private static final int WRITE_CLIENTS = Integer.getInteger("load.write-clients", 4);
+    private static final Duration WRITE_THINK = Duration.ofMillis(Long.getLong("load.think-millis", 50));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 3));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("load.measure-seconds", 15));
+    private static final long MAX_WRITE_P99_MILLIS = Long.getLong("load.max-write-p99-millis", 2_000);
+    private static final String USERNAME = System.getProperty("load.username", "admin");
+    private static final String PASSWORD = System.getProperty("load.password", "admin123");
+
+    @Test
+    void writes_shouldStayFastWhileReportsSaturate() throws Exception {
+        var unprotected = run(false);
+        var protectedRun = run(true);
+
+        System.out.printf("%-10s %8s %9s %9s %9s %7s %10s %10s %9s%n",
+                "bulkheads", "writes", "p50 ms", "p99 ms", "max ms", "errors", "reports", "503", "p50 ms");
+        for (var result : List.of(unprotected, protectedRun)) {
+            var w = result.writes.sorted();
+            var r = result.reports.sorted();
+            System.out.printf("%-10s %8d %9.2f %9.2f %9.2f %7d %10d %10d %9.2f%n",
+                    result.bulkheads ? "on" : "off", w.length, percentile(w, 0.50), percentile(w, 0.99),
+                    percentile(w, 1.0), result.writeErrors.sum(), r.length, result.reportsRejected.sum(),
+                    percentile(r, 0.50));
+        }
+
+        assertThat(protectedRun.writes.sorted()).isNotEmpty();
+        assertThat(protectedRun.writeErrors.sum()).as("failed writes").isZero();
+        assertThat(percentile(protectedRun.writes.sorted(), 0.99)).as("write p99 ms").isLessThanOrEqualTo(MAX_WRITE_P99_MILLIS);
+        assertThat(protectedRun.reportsRejected.sum()).as("reports turned away").isPositive();
+        assertThat(unprotected.reportsRejected.sum()).isZero();
+    }
+
+    private Result run(boolean bulkheads) throws Exception {
+        var context = start(bulkheads);
+        try {
+            var url = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            var dataset = new BenchmarkDataGenerator(context.getBean(JdbcTemplate.class))
+                    .generate(CUSTOMERS, VEGETABLES, DAYS, ORDERS_PER_DAY, 5);
+            var result = new Result(bulkheads);
+            long measureFrom = System.nanoTime() + WARMUP.toNanos();
+            long until = measureFrom + MEASURE.toNanos();
+            var export = "/orders/export?from=" + BenchmarkDataGenerator.FIRST_DAY
+                    + "&to=" + BenchmarkDataGenerator.FIRST_DAY.plusDays(DAYS - 1);
+
+            ExecutorService pool = Executors.newFixedThreadPool(REPORT_CLIENTS + WRITE_CLIENTS);
+            try {
+                List<Future<?>> running = new ArrayList<>();
+                for (int c = 0; c < REPORT_CLIENTS; c++) {
+                    running.add(pool.submit(client(until, () -> {
+                        long start = System.nanoTime();
+                        var response = send(HttpRequest.newBuilder(URI.create(url + export)).GET());
+                        if (start < measureFrom) return;
+                        if (response.statusCode() == 503) {
+                            result.reportsRejected.increment();
+                            // A retrying client, not one that hammers
+                            Thread.sleep(100);
+                        } else {
+                            result.reports.add((System.nanoTime() - start) / 1_000);
+                        }
+                    })));
+                }
+                for (int c = 0; c < WRITE_CLIENTS; c++) {
+                    var random = new Random(c);
+                    running.add(pool.submit(client(until, () -> {
+                        long start = System.nanoTime();
+                        var response = send(placeOrder(url, dataset, random));
+                        long micros = (System.nanoTime() - start) / 1_000;
+                        if (start >= measureFrom) {
+                            result.writes.add(micros);
+                            if (response.statusCode() != 302) result.writeErrors.increment();
+                        }
+                        Thread.sleep(WRITE_THINK.toMillis());
+                    })));
+                }
+                for (var future : running) {
+                    future.get();
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            return result;
+        } finally {
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean bulkheads) {
+        // Command-line arguments, since builder defaults rank below application.yml
+        return new SpringApplicationBuilder(OrderTakingApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bulkhead-" + bulkheads + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--spring.thymeleaf.cache=true",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--app.bulkhead.enabled=" + bulkheads,
+                "--app.session.signing-key=load-test-signing-key-0123456789abcdef");
+    }
+
+    private static Callable<Void> client(long until, Step step) {
+        return () -> {
+            while (System.nanoTime() < until) {
+                step.run();
+            }
+            return null;
+        };
+    }
+
+    /** The order form posted directly: HTTP Basic, and a CSRF token of our own in cookie and header. */
+    private static HttpRequest.Builder placeOrder(String url, BenchmarkDataGenerator.Dataset dataset, Random random) {
+        var body = new StringBuilder()
+                .append("customerId=").append(dataset.getCustomerIds()[random.nextInt(dataset.getCustomerIds().length)])
+                .append("&orderDate=").append(BenchmarkDataGenerator.FIRST_DAY.plusDays(random.nextInt(dataset.getDays())));
+        var vegetables = new LinkedHashSet<Long>();
+        int lines = 1 + random.nextInt(5);
+        while (vegetables.size() < lines) {
+            vegetables.add(dataset.getVegetableIds()[random.nextInt(dataset.getVegetableIds().length)]);
+        }
+        for (var id : vegetables) {
+            body.append("&vegetableIds=").append(id).append("&quantities=").append(1 + random.nextInt(20));
+        }
+        return HttpRequest.newBuilder(URI.create(url + "/orders"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Cookie", "XSRF-TOKEN=load-test")
+                .header("X-XSRF-TOKEN", "load-test")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+    }
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private static HttpResponse<byte[]> send(HttpRequest.Builder request) throws Exception {
+        var credentials = Base64.getEncoder().encodeToString((USERNAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        return CLIENT.send(request.header("Authorization", "Basic " + credentials).timeout(Duration.ofSeconds(60)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /** Nearest-rank percentile in milliseconds of latencies in microseconds. */
+    private static double percentile(long[] sortedMicros, double p) {
+        if (sortedMicros.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sortedMicros.length);
+        return sortedMicros[Math.max(0, rank - 1)] / 1000.0;
+    }
+
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    private static final class Result {
+        private final boolean bulkheads;
+        private final Samples writes = new Samples();
+        private final Samples reports = new Samples();
+        private final LongAdder writeErrors = new LongAdder();
+        private final LongAdder reportsRejected = new LongAdder();
+
+        Result(boolean bulkheads) {
+            this.bulkheads = bulkheads;
+        }
+    }
+
+    private static final class Samples {
+        private long[] micros = new long[1024];
+        private int size;
+
+        synchronized void add(long latencyMicros) {
+            if (size == micros.length) micros = Arrays.copyOf(micros, size * 2);
+            micros[size++] = latencyMicros;
+        }
+
+        synchronized long[] sorted() {
+            var copy = Arrays.copyOf(micros, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
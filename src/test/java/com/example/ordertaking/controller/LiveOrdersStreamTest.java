@@ -0,0 +1,130 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.OrderHeader;
+import com.example.ordertaking.entity.OrderItem;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.VegetableRepository;
+import com.example.ordertaking.service.LiveOrderTotals;
+import com.example.ordertaking.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/** Live final orders: in-memory totals moved by committed orders and pushed over SSE. */
+@SpringBootTest(properties = "app.live-totals.interval=50ms")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class LiveOrdersStreamTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private OrderService orderService;
+    @Autowired private LiveOrderTotals liveTotals;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Customer customer;
+    private Vegetable vegetable;
+
+    @BeforeEach
+    void setUp() {
+        var c = new Customer();
+        c.setFirstName("Live");
+        c.setLastName("Watcher");
+        c.setEmail("live.watcher." + System.nanoTime() + "@example.com");
+        c.setAddress("1 Packing Floor");
+        customer = customerRepository.save(c);
+        vegetable = vegetableRepository.save(new Vegetable("Kohlrabi " + System.nanoTime()));
+    }
+
+    @Test
+    void stream_shouldSendASnapshotThenDeltasOfCommittedOrders() throws Exception {
+        var today = LocalDate.now();
+        place(today, 5);
+        var stream = mockMvc.perform(get("/orders/live/stream").with(user("admin").roles("ADMIN"))).andReturn();
+
+        await(stream, body -> body.contains("event:snapshot")
+                && body.contains("\"vegetableName\":\"" + vegetable.getName() + "\",\"totalQuantity\":5,\"delta\":0"));
+        place(today, 2);
+
+        await(stream, body -> body.contains("event:delta")
+                && body.contains("\"vegetableName\":\"" + vegetable.getName() + "\",\"totalQuantity\":7,\"delta\":2"));
+        assertThat(stream.getResponse().getContentType()).startsWith("text/event-stream");
+        assertThat(stream.getResponse().getContentAsString()).contains("\"date\":\"" + today + "\"");
+    }
+
+    @Test
+    void page_shouldPointTheBrowserAtTheStream() throws Exception {
+        var page = mockMvc.perform(get("/orders/live").with(user("admin").roles("ADMIN"))).andReturn().getResponse();
+
+        assertThat(page.getStatus()).isEqualTo(200);
+        assertThat(page.getContentAsString()).contains("data-stream=\"/orders/live/stream\"")
+                .containsPattern("/js/live-[0-9a-f]{32}\\.js");
+    }
+
+    @Test
+    void totals_shouldOnlyMoveForCommittedOrdersOfTodayAndLater() {
+        var today = LocalDate.now();
+        place(today, 3);
+        place(today.plusDays(1), 4);
+        place(today.minusDays(1), 8);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            orderService.placeOrder(order(today, 100));
+            status.setRollbackOnly();
+        });
+
+        assertThat(liveTotals.totals(today)).containsEntry(vegetable.getId(), 3L);
+        assertThat(liveTotals.totals(today.plusDays(1))).containsEntry(vegetable.getId(), 4L);
+        assertThat(liveTotals.totals(today.minusDays(1))).doesNotContainKey(vegetable.getId());
+    }
+
+    @Test
+    void reload_shouldSeedTheTotalsFromTheRollup() {
+        var tomorrow = LocalDate.now().plusDays(1);
+        jdbcTemplate.update("insert into daily_vegetable_totals (total_quantity, order_date, vegetable_id) values (?, ?, ?)",
+                12, tomorrow, vegetable.getId());
+        assertThat(liveTotals.totals(tomorrow)).doesNotContainKey(vegetable.getId());
+
+        liveTotals.reload();
+
+        assertThat(liveTotals.totals(tomorrow)).containsEntry(vegetable.getId(), 12L);
+    }
+
+    private void place(LocalDate date, int quantity) {
+        orderService.placeOrder(order(date, quantity));
+    }
+
+    private OrderHeader order(LocalDate date, int quantity) {
+        var order = new OrderHeader(customer, date);
+        order.addItem(new OrderItem(vegetable, quantity, null));
+        return order;
+    }
+
+    private static void await(MvcResult stream, Predicate<String> condition) throws Exception {
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.test(stream.getResponse().getContentAsString())) {
+            assertThat(System.nanoTime()).as("event received in time: " + stream.getResponse().getContentAsString())
+                    .isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
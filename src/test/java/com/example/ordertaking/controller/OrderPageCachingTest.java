@@ -0,0 +1,130 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.VegetableRepository;
+import com.example.ordertaking.support.JdbcRoundTripCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Conditional GET and the rendered-fragment cache for the final orders report and order details. The
+ * version TTL is long, so repeat views within a test need no version read either.
+ */
+@SpringBootTest(properties = "app.page-cache.version-ttl=1h")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Import(JdbcRoundTripCounter.class)
+class OrderPageCachingTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 1);
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private JdbcRoundTripCounter roundTrips;
+
+    private Customer customer;
+    private Vegetable vegetable;
+
+    @BeforeEach
+    void setUp() {
+        var c = new Customer();
+        c.setFirstName("Cache");
+        c.setLastName("Tester");
+        c.setEmail("cache.tester." + System.nanoTime() + "@example.com");
+        c.setAddress("1 Etag Way");
+        customer = customerRepository.save(c);
+        vegetable = vegetableRepository.save(new Vegetable("Kohlrabi " + System.nanoTime()));
+    }
+
+    @Test
+    void finalOrders_shouldServeRepeatViewsWithoutTheDatabaseUntilTheDateChanges() throws Exception {
+        String firstOrder = createOrder(DAY, 3);
+        var first = perform(get("/orders/final").param("date", DAY.toString()));
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        assertThat(first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)).isNotNull();
+        assertThat(first.getResponse().getContentAsString()).contains(">" + firstOrder + "<");
+
+        roundTrips.reset();
+        var cachedBody = perform(get("/orders/final").param("date", DAY.toString()));
+        var notModified = perform(get("/orders/final").param("date", DAY.toString()).header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertThat(cachedBody.getResponse().getStatus()).isEqualTo(200);
+        assertThat(cachedBody.getResponse().getContentAsString()).contains(">" + firstOrder + "<");
+        assertThat(notModified.getResponse().getStatus()).isEqualTo(304);
+        assertThat(roundTrips.get()).isZero();
+
+        createOrder(DAY.plusDays(1), 1);
+        assertThat(perform(get("/orders/final").param("date", DAY.toString())
+                .header(HttpHeaders.IF_NONE_MATCH, etag)).getResponse().getStatus())
+                .as("other dates do not invalidate").isEqualTo(304);
+
+        String secondOrder = createOrder(DAY, 5);
+        var changed = perform(get("/orders/final").param("date", DAY.toString()).header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertThat(changed.getResponse().getStatus()).isEqualTo(200);
+        assertThat(changed.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(changed.getResponse().getContentAsString()).contains(">" + firstOrder + "<", ">" + secondOrder + "<");
+    }
+
+    @Test
+    void orderDetails_shouldBeCachedAndInvalidatedByAVegetableRename() throws Exception {
+        String id = createOrder(DAY, 2);
+        perform(get("/orders/" + id));
+
+        roundTrips.reset();
+        var cached = perform(get("/orders/" + id));
+        assertThat(roundTrips.get()).isZero();
+        assertThat(cached.getResponse().getContentAsString()).contains(vegetable.getName());
+        String etag = cached.getResponse().getHeader(HttpHeaders.ETAG);
+
+        perform(post("/vegetables/" + vegetable.getId() + "/edit").param("name", "Renamed " + vegetable.getName()).with(csrf()));
+
+        var renamed = perform(get("/orders/" + id).header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertThat(renamed.getResponse().getStatus()).isEqualTo(200);
+        assertThat(renamed.getResponse().getContentAsString()).contains("Renamed " + vegetable.getName());
+    }
+
+    @Test
+    void cachedFragments_shouldNotCarryAnotherSessionsCsrfToken() throws Exception {
+        String id = createOrder(DAY, 1);
+        var first = perform(get("/orders/" + id).with(csrf()));
+        var second = perform(get("/orders/" + id));
+
+        assertThat(first.getResponse().getContentAsString()).isNotEqualTo(second.getResponse().getContentAsString());
+    }
+
+    /** Places an order through the controller and returns its id. */
+    private String createOrder(LocalDate date, int quantity) throws Exception {
+        var result = perform(post("/orders")
+                .param("customerId", customer.getId().toString())
+                .param("orderDate", date.toString())
+                .param("vegetableIds", vegetable.getId().toString())
+                .param("quantities", String.valueOf(quantity))
+                .with(csrf()));
+        String location = result.getResponse().getRedirectedUrl();
+        return location.substring(location.lastIndexOf('/') + 1);
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user("admin").roles("ADMIN"))).andReturn();
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.dto.BulkOrderRecord;
+import com.example.ordertaking.dto.OrderSubmission;
+import com.example.ordertaking.dto.SubmissionStatus;
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.OrderRepository;
+import com.example.ordertaking.repository.VegetableRepository;
+import com.example.ordertaking.service.DailyRollupService;
+import com.example.ordertaking.service.OrderArchive;
+import com.example.ordertaking.service.OrderPageCache;
+import com.example.ordertaking.service.OrderSubmissionService;
+import com.example.ordertaking.service.VegetableCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import javax.persistence.EntityManager;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/** Write-behind order submission: acknowledgement, idempotency, status polling and journal replay. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class OrderSubmissionTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 7, 1);
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private VegetableCatalog catalog;
+    @Autowired private DailyRollupService rollupService;
+    @Autowired private OrderArchive archive;
+    @Autowired private OrderPageCache pageCache;
+    @Autowired private EntityManager entityManager;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Customer customer;
+    private Vegetable vegetable;
+
+    @BeforeEach
+    void setUp() {
+        var c = new Customer();
+        c.setFirstName("Queue");
+        c.setLastName("Submitter");
+        c.setEmail("queue.submitter." + System.nanoTime() + "@example.com");
+        c.setAddress("1 Cutoff Lane");
+        customer = customerRepository.save(c);
+        vegetable = vegetableRepository.save(new Vegetable("Chard " + System.nanoTime()));
+    }
+
+    @Test
+    void submit_shouldAcknowledgeThenStoreARepeatedKeyOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        var first = perform(post("/api/orders").header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON).content(body(4)));
+        var retry = perform(post("/api/orders").header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON).content(body(4)));
+
+        assertThat(first.getResponse().getStatus()).isEqualTo(202);
+        assertThat(first.getResponse().getHeader("Location")).endsWith("/api/orders/submissions/" + key);
+        assertThat(retry.getResponse().getStatus()).isIn(200, 202);
+        assertThat(objectMapper.readValue(retry.getResponse().getContentAsString(), Status.class).key).isEqualTo(key);
+
+        var stored = awaitStored(key);
+        assertThat(orderRepository.findIdBySubmissionKey(key)).contains(stored.orderId);
+        assertThat(orderRepository.findWithItemsByOrderDate(DAY))
+                .filteredOn(o -> key.equals(o.getSubmissionKey()))
+                .singleElement()
+                .satisfies(o -> assertThat(o.getItems()).singleElement()
+                        .satisfies(i -> assertThat(i.getQuantity()).isEqualTo(4)));
+    }
+
+    @Test
+    void submit_shouldRejectInvalidOrdersBeforeAccepting() throws Exception {
+        String key = UUID.randomUUID().toString();
+        var unknownVegetable = "{\"customerId\":" + customer.getId() + ",\"orderDate\":\"" + DAY
+                + "\",\"items\":[{\"vegetableId\":-1,\"quantity\":1}]}";
+        var result = perform(post("/api/orders").header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON).content(unknownVegetable));
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(400);
+        assertThat(perform(get("/api/orders/submissions/" + key)).getResponse().getStatus()).isEqualTo(404);
+
+        var nullLine = "{\"customerId\":" + customer.getId() + ",\"orderDate\":\"" + DAY + "\",\"items\":[null]}";
+        assertThat(perform(post("/api/orders").header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON).content(nullLine)).getResponse().getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void submit_shouldRejectArchivedDatesBeforeAccepting(@TempDir Path dir) {
+        var archivedBeforeDay = new OrderArchive("") {
+            @Override
+            public boolean isArchived(LocalDate date) {
+                return date.isBefore(DAY);
+            }
+        };
+        var service = new OrderSubmissionService(customerRepository, orderRepository, catalog, rollupService, archivedBeforeDay,
+                pageCache, entityManager, transactionManager, objectMapper, new SimpleMeterRegistry(), dir.resolve("orders.journal"),
+                10, 50, Duration.ofMillis(50), Duration.ofMinutes(1));
+        service.start();
+        try {
+            var old = new OrderSubmission("archived-" + UUID.randomUUID(), customer.getId(), DAY.minusDays(1),
+                    List.of(new BulkOrderRecord.Line(vegetable.getId(), 3)));
+            assertThatThrownBy(() -> service.submit(old))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("archived");
+            assertThat(service.status(old.getKey())).isEmpty();
+        } finally {
+            service.stop();
+        }
+    }
+
+    @Test
+    void orderForm_shouldPlaceADoubleSubmittedFormOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        var first = perform(formPost(key));
+        var second = perform(formPost(key));
+
+        assertThat(first.getResponse().getRedirectedUrl()).startsWith("/orders/");
+        assertThat(second.getResponse().getRedirectedUrl()).isEqualTo(first.getResponse().getRedirectedUrl());
+        assertThat(orderRepository.findIdBySubmissionKey(key)).isPresent();
+    }
+
+    @Test
+    void journal_shouldReplayAcceptedOrdersOnStartAndSkipFinishedAndTornLines(@TempDir Path dir) throws Exception {
+        var journal = dir.resolve("orders.journal");
+        String pending = "replay-" + UUID.randomUUID();
+        String finished = "finished-" + UUID.randomUUID();
+        Files.write(journal, List.of(
+                "{\"accepted\":{\"key\":\"" + finished + "\"," + fields(1) + "}}",
+                "{\"accepted\":{\"key\":\"" + pending + "\"," + fields(6) + "}}",
+                "{\"done\":\"" + finished + "\"}",
+                "{\"accepted\":{\"key\":\"torn"));
+
+        var service = new OrderSubmissionService(customerRepository, orderRepository, catalog, rollupService, archive, pageCache,
+                entityManager, transactionManager, objectMapper, new SimpleMeterRegistry(), journal,
+                10, 50, Duration.ofMillis(50), Duration.ofMinutes(1));
+        service.start();
+        try {
+            var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (service.status(pending).map(SubmissionStatus::getState).orElse(null) != SubmissionStatus.State.PERSISTED) {
+                assertThat(System.nanoTime()).as("replayed order stored in time").isLessThan(deadline);
+                Thread.sleep(20);
+            }
+        } finally {
+            service.stop();
+        }
+        assertThat(orderRepository.findIdBySubmissionKey(pending)).isPresent();
+        assertThat(orderRepository.findIdBySubmissionKey(finished)).isEmpty();
+        assertThat(Files.size(journal)).as("journal truncated once nothing is pending").isZero();
+    }
+
+    @Test
+    void splitBatch_shouldRetryOutagesPerOrderAndFailOnlyTheBrokenOne(@TempDir Path dir) throws Exception {
+        var gone = new Customer();
+        gone.setFirstName("Gone");
+        gone.setLastName("Customer");
+        gone.setEmail("gone." + System.nanoTime() + "@example.com");
+        gone.setAddress("2 Cutoff Lane");
+        gone = customerRepository.save(gone);
+        var flaky = new FlakyTransactionManager(transactionManager);
+        var service = new OrderSubmissionService(customerRepository, orderRepository, catalog, rollupService, archive, pageCache,
+                entityManager, flaky, objectMapper, new SimpleMeterRegistry(), dir.resolve("orders.journal"),
+                10, 50, Duration.ofMillis(50), Duration.ofMinutes(1));
+        String first = "first-" + UUID.randomUUID();
+        String valid = "valid-" + UUID.randomUUID();
+        String broken = "broken-" + UUID.randomUUID();
+        service.start();
+        try {
+            service.submit(submission(first, customer.getId()));
+            // The writer holds the first order, so the next two are stored as one batch
+            assertThat(flaky.writerWaiting.await(10, TimeUnit.SECONDS)).isTrue();
+            service.submit(submission(valid, customer.getId()));
+            service.submit(submission(broken, gone.getId()));
+            customerRepository.deleteById(gone.getId());
+            flaky.release.countDown();
+
+            var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (service.status(valid).map(SubmissionStatus::getState).orElse(null) == SubmissionStatus.State.QUEUED
+                    || service.status(broken).map(SubmissionStatus::getState).orElse(null) == SubmissionStatus.State.QUEUED) {
+                assertThat(System.nanoTime()).as("split batch settled in time").isLessThan(deadline);
+                Thread.sleep(20);
+            }
+            assertThat(flaky.outages.get()).as("outage hit the per-order replay").isEqualTo(1);
+            assertThat(service.status(valid).map(SubmissionStatus::getState)).contains(SubmissionStatus.State.PERSISTED);
+            assertThat(service.status(broken).map(SubmissionStatus::getState)).contains(SubmissionStatus.State.FAILED);
+        } finally {
+            service.stop();
+        }
+        assertThat(orderRepository.findIdBySubmissionKey(valid)).isPresent();
+        assertThat(Files.size(dir.resolve("orders.journal"))).as("journal truncated once nothing is pending").isZero();
+    }
+
+    private Status awaitStored(String key) throws Exception {
+        var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (true) {
+            var response = perform(get("/api/orders/submissions/" + key)).getResponse();
+            var status = objectMapper.readValue(response.getContentAsString(), Status.class);
+            if (status.state != SubmissionStatus.State.QUEUED) {
+                assertThat(status.state).isEqualTo(SubmissionStatus.State.PERSISTED);
+                return status;
+            }
+            assertThat(System.nanoTime()).as("order stored in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private MockHttpServletRequestBuilder formPost(String key) {
+        return post("/orders").with(csrf())
+                .param("customerId", customer.getId().toString())
+                .param("orderDate", DAY.toString())
+                .param("vegetableIds", vegetable.getId().toString())
+                .param("quantities", "2")
+                .param("submissionKey", key);
+    }
+
+    private String body(int quantity) {
+        return "{" + fields(quantity) + "}";
+    }
+
+    private String fields(int quantity) {
+        return "\"customerId\":" + customer.getId() + ",\"orderDate\":\"" + DAY
+                + "\",\"items\":[{\"vegetableId\":" + vegetable.getId() + ",\"quantity\":" + quantity + "}]";
+    }
+
+    private OrderSubmission submission(String key, Long customerId) {
+        return new OrderSubmission(key, customerId, DAY, List.of(new BulkOrderRecord.Line(vegetable.getId(), 3)));
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user("admin").roles("ADMIN"))).andReturn();
+    }
+
+    /** Client-side view of {@link SubmissionStatus}. */
+    static class Status {
+        public String key;
+        public SubmissionStatus.State state;
+        public Long orderId;
+        public String error;
+    }
+
+    /**
+     * Holds the writer's first transaction until released, then fails the first transaction begun after a
+     * rollback as if the database had gone away.
+     */
+    static class FlakyTransactionManager implements PlatformTransactionManager {
+        final CountDownLatch writerWaiting = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger outages = new AtomicInteger();
+        private final PlatformTransactionManager delegate;
+        private final AtomicBoolean first = new AtomicBoolean(true);
+        private final AtomicBoolean rolledBack = new AtomicBoolean();
+
+        FlakyTransactionManager(PlatformTransactionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            if (first.compareAndSet(true, false)) {
+                writerWaiting.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (rolledBack.compareAndSet(true, false) && outages.getAndIncrement() == 0) {
+                throw new CannotCreateTransactionException("Connection refused");
+            }
+            return delegate.getTransaction(definition);
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            delegate.commit(status);
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            delegate.rollback(status);
+            rolledBack.set(true);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.OrderTakingApplication;
+import com.example.ordertaking.benchmark.BenchmarkDataGenerator;
+import com.example.ordertaking.service.DailyRollupService;
+import com.example.ordertaking.util.CsvWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end workload against one embedded instance over real HTTP: seeds {@code load.customers},
+ * {@code load.vegetables} and {@code load.days} × {@code load.orders-per-day} orders with
+ * {@link BenchmarkDataGenerator}, then {@code load.clients} browsers log in through the form and loop
+ * over a weighted mix of the final orders report, the customer list and taking an order (form, post,
+ * the order page it redirects to). Tagged {@code load}; run with {@code mvn test -DskipLoadTests=false}.
+ * <p>
+ * Prints throughput and latency percentiles per endpoint and writes them to {@code load.report}
+ * ({@code target/load-result.csv}) for comparing builds. Sizes, mix ({@code load.mix}, e.g.
+ * {@code final=40,customers=30,order=30}), think time and durations are system properties.
+ */
+@Tag("load")
+class OrderWorkloadLoadTest {
+
+    private static final int CUSTOMERS = Integer.getInteger("load.customers", 2_000);
+    private static final int VEGETABLES = Integer.getInteger("load.vegetables", 50);
+    private static final int DAYS = Integer.getInteger("load.days", 30);
+    private static final int ORDERS_PER_DAY = Integer.getInteger("load.orders-per-day", 200);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 8);
+    private static final Duration THINK = Duration.ofMillis(Long.getLong("load.think-millis", 0));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("load.measure-seconds", 20));
+    private static final String MIX = System.getProperty("load.mix", "final=40,customers=30,order=30");
+    private static final Path REPORT = Path.of(System.getProperty("load.report", "target/load-result.csv"));
+    private static final String USERNAME = System.getProperty("load.username", "admin");
+    private static final String PASSWORD = System.getProperty("load.password", "admin123");
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern SUBMISSION_KEY = Pattern.compile("name=\"submissionKey\" value=\"([^\"]+)\"");
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    @Test
+    void mixedWorkload_shouldBeServedWithoutErrors() throws Exception {
+        var context = start();
+        try {
+            var url = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            long t = System.nanoTime();
+            var dataset = new BenchmarkDataGenerator(context.getBean(JdbcTemplate.class))
+                    .generate(CUSTOMERS, VEGETABLES, DAYS, ORDERS_PER_DAY, 5);
+            context.getBean(DailyRollupService.class).rebuildAll();
+            System.out.printf("Seeded %d customers, %d vegetables, %d orders in %d ms%n",
+                    CUSTOMERS, VEGETABLES, DAYS * ORDERS_PER_DAY, (System.nanoTime() - t) / 1_000_000);
+
+            run(url, dataset);
+            report();
+
+            assertThat(samples).containsKeys("GET /orders/final", "GET /customers");
+            assertThat(samples.values()).allSatisfy(s -> assertThat(s.errors).as("errors").isZero());
+        } finally {
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        // Command-line arguments, since builder defaults rank below application.yml
+        return new SpringApplicationBuilder(OrderTakingApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:order-workload;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--spring.thymeleaf.cache=true",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--app.session.signing-key=load-test-signing-key-0123456789abcdef");
+    }
+
+    /** Closed loop: every client picks its next action from the mix until the measurement window ends. */
+    private void run(String url, BenchmarkDataGenerator.Dataset dataset) throws Exception {
+        var actions = mix();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long until = measureFrom + MEASURE.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                long seed = c;
+                running.add(pool.submit(() -> {
+                    var browser = new Browser(url, measureFrom, new Random(seed));
+                    browser.login();
+                    while (System.nanoTime() < until) {
+                        var action = actions[browser.random.nextInt(actions.length)];
+                        switch (action) {
+                            case "final" -> browser.get("/orders/final?date=" + day(dataset, browser.random), "GET /orders/final");
+                            case "customers" -> browser.customers(dataset);
+                            case "order" -> browser.placeOrder(dataset);
+                            default -> throw new IllegalArgumentException("Unknown load.mix action: " + action);
+                        }
+                        if (!THINK.isZero()) Thread.sleep(THINK.toMillis());
+                    }
+                    return null;
+                }));
+            }
+            for (var future : running) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** {@code load.mix} as one entry per weight unit, so a uniform pick follows the weights. */
+    private static String[] mix() {
+        List<String> actions = new ArrayList<>();
+        for (var part : MIX.split(",")) {
+            var kv = part.trim().split("=");
+            for (int i = 0; i < Integer.parseInt(kv[1].trim()); i++) {
+                actions.add(kv[0].trim());
+            }
+        }
+        return actions.toArray(String[]::new);
+    }
+
+    private static LocalDate day(BenchmarkDataGenerator.Dataset dataset, Random random) {
+        return BenchmarkDataGenerator.FIRST_DAY.plusDays(random.nextInt(dataset.getDays()));
+    }
+
+    private void report() throws IOException {
+        double seconds = MEASURE.toMillis() / 1000.0;
+        Map<String, Samples> sorted = new TreeMap<>(samples);
+        System.out.printf("%-22s %8s %9s %9s %9s %9s %9s %7s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        try (var out = Files.newBufferedWriter(REPORT)) {
+            var csv = new CsvWriter(out);
+            csv.row("endpoint", "count", "per_second", "p50_ms", "p90_ms", "p99_ms", "max_ms", "errors");
+            for (var e : sorted.entrySet()) {
+                var s = e.getValue().sorted();
+                double perSecond = s.length / seconds;
+                double p50 = percentile(s, 0.50), p90 = percentile(s, 0.90), p99 = percentile(s, 0.99), max = percentile(s, 1.0);
+                System.out.printf("%-22s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                        e.getKey(), s.length, perSecond, p50, p90, p99, max, e.getValue().errors);
+                csv.row(e.getKey(), s.length, String.format("%.1f", perSecond), String.format("%.2f", p50),
+                        String.format("%.2f", p90), String.format("%.2f", p99), String.format("%.2f", max), e.getValue().errors);
+            }
+        }
+        System.out.println("Load report written to " + REPORT.toAbsolutePath());
+    }
+
+    /** Nearest-rank percentile in milliseconds of latencies in microseconds. */
+    private static double percentile(long[] sortedMicros, double p) {
+        if (sortedMicros.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sortedMicros.length);
+        return sortedMicros[Math.max(0, rank - 1)] / 1000.0;
+    }
+
+    /** Latencies of one endpoint in the measurement window, appended by every client. */
+    private static final class Samples {
+        private long[] micros = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long latencyMicros, boolean ok) {
+            if (!ok) errors++;
+            if (size == micros.length) micros = Arrays.copyOf(micros, size * 2);
+            micros[size++] = latencyMicros;
+        }
+
+        synchronized long[] sorted() {
+            var copy = Arrays.copyOf(micros, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    /** One logged-in user: its own cookie jar (session and CSRF cookies), redirects followed by hand. */
+    private final class Browser {
+        private final String url;
+        private final long measureFrom;
+        private final Random random;
+        private final HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Browser(String url, long measureFrom, Random random) {
+            this.url = url;
+            this.measureFrom = measureFrom;
+            this.random = random;
+        }
+
+        void login() throws Exception {
+            var page = send(HttpRequest.newBuilder(URI.create(url + "/login")).GET(), null, 200);
+            var login = send(form("/login", "username=" + encode(USERNAME) + "&password=" + encode(PASSWORD)
+                    + "&_csrf=" + encode(match(CSRF, page.body()))), null, 302);
+            assertThat(login.headers().firstValue("Location")).as("login redirect").hasValueSatisfying(
+                    location -> assertThat(location).doesNotContain("error"));
+        }
+
+        void customers(BenchmarkDataGenerator.Dataset dataset) throws Exception {
+            long[] ids = dataset.getCustomerIds();
+            get("/customers?after=" + (ids[random.nextInt(ids.length)] - 1), "GET /customers");
+        }
+
+        /** Opens the order form, posts it with one to five vegetables and follows the redirect. */
+        void placeOrder(BenchmarkDataGenerator.Dataset dataset) throws Exception {
+            var form = get("/orders/new", "GET /orders/new");
+            if (form == null) return;
+            var body = new StringBuilder()
+                    .append("customerId=").append(dataset.getCustomerIds()[random.nextInt(dataset.getCustomerIds().length)])
+                    .append("&orderDate=").append(day(dataset, random))
+                    .append("&submissionKey=").append(encode(match(SUBMISSION_KEY, form)))
+                    .append("&_csrf=").append(encode(match(CSRF, form)));
+            var vegetables = new LinkedHashSet<Long>();
+            int lines = 1 + random.nextInt(5);
+            while (vegetables.size() < lines) {
+                vegetables.add(dataset.getVegetableIds()[random.nextInt(dataset.getVegetableIds().length)]);
+            }
+            for (var id : vegetables) {
+                body.append("&vegetableIds=").append(id).append("&quantities=").append(1 + random.nextInt(20));
+            }
+            var posted = send(form("/orders", body.toString()), "POST /orders", 302);
+            var location = posted.headers().firstValue("Location").orElse(null);
+            if (location != null && location.contains("/orders/")) {
+                get(URI.create(url).resolve(location).getPath(), "GET /orders/{id}");
+            }
+        }
+
+        /** The page body, or null if it did not answer 200. */
+        String get(String path, String endpoint) throws Exception {
+            var response = send(HttpRequest.newBuilder(URI.create(url + path)).GET(), endpoint, 200);
+            return response.statusCode() == 200 ? response.body() : null;
+        }
+
+        private HttpRequest.Builder form(String path, String body) {
+            return HttpRequest.newBuilder(URI.create(url + path))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+
+        /** Sends and, inside the measurement window, records the latency under {@code endpoint}. */
+        private HttpResponse<String> send(HttpRequest.Builder request, String endpoint, int expectedStatus) throws Exception {
+            long start = System.nanoTime();
+            var response = client.send(request.header("Accept", "text/html").build(), HttpResponse.BodyHandlers.ofString());
+            long end = System.nanoTime();
+            if (endpoint != null && start >= measureFrom) {
+                samples.computeIfAbsent(endpoint, e -> new Samples())
+                        .add((end - start) / 1_000, response.statusCode() == expectedStatus);
+            }
+            return response;
+        }
+    }
+
+    private static String match(Pattern pattern, String html) {
+        var m = pattern.matcher(html);
+        if (!m.find()) throw new AssertionError("no " + pattern + " in page");
+        return m.group(1);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
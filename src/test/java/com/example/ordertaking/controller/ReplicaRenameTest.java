@@ -0,0 +1,105 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.OrderTakingApplication;
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.OrderHeader;
+import com.example.ordertaking.entity.OrderItem;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.VegetableRepository;
+import com.example.ordertaking.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Two instances on one database with the default settings: a customer renamed through one must show
+ * on the other's order pages, edit form and search as soon as the page version is re-read, with no entity
+ * or query result cached in between (the second-level cache stays off unless enabled).
+ */
+class ReplicaRenameTest {
+
+    @Test
+    void renameOnOneInstance_shouldShowOnTheOthersPages() throws Exception {
+        var database = "jdbc:h2:mem:replicas-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        try (var first = start(database); var second = start(database)) {
+            var c = new Customer();
+            c.setFirstName("Before");
+            c.setLastName("Rename");
+            c.setEmail("before.rename@example.com");
+            c.setAddress("1 Replica Row");
+            var customer = first.getBean(CustomerRepository.class).save(c);
+            var vegetable = first.getBean(VegetableRepository.class).save(new Vegetable("Replica radish"));
+            var order = new OrderHeader(customer, LocalDate.of(2025, 9, 1));
+            order.addItem(new OrderItem(vegetable, 2, null));
+            var orderId = first.getBean(OrderService.class).placeOrder(order).getId();
+            var firstMvc = mockMvc(first);
+            var secondMvc = mockMvc(second);
+            assertThat(page(firstMvc, "/orders/" + orderId)).contains("Before Rename");
+            assertThat(page(firstMvc, "/orders/final?date=2025-09-01")).contains("Before Rename");
+            assertThat(page(firstMvc, "/customers/" + customer.getId() + "/edit")).contains("Before");
+            assertThat(page(firstMvc, "/customers/search?q=Rename")).contains("\"firstName\":\"Before\"");
+
+            var edit = secondMvc.perform(asAdmin(post("/customers/" + customer.getId() + "/edit")
+                    .param("firstName", "After")
+                    .param("lastName", "Rename")
+                    .param("email", customer.getEmail())
+                    .param("address", customer.getAddress())
+                    .with(csrf()))).andReturn();
+            assertThat(edit.getResponse().getStatus()).isEqualTo(302);
+
+            assertThat(page(firstMvc, "/orders/" + orderId)).contains("After Rename").doesNotContain("Before Rename");
+            assertThat(page(firstMvc, "/orders/final?date=2025-09-01")).contains("After Rename");
+            assertThat(page(firstMvc, "/customers/" + customer.getId() + "/edit"))
+                    .contains("After").doesNotContain("value=\"Before\"");
+            assertThat(page(firstMvc, "/customers/search?q=Rename"))
+                    .contains("\"firstName\":\"After\"").doesNotContain("\"firstName\":\"Before\"");
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String database) {
+        // Command-line arguments, since builder defaults rank below application.yml
+        return new SpringApplicationBuilder(OrderTakingApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + database,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--app.seed-demo-data=false",
+                "--app.page-cache.version-ttl=0s",
+                "--app.order-queue.journal=target/order-submissions/" + UUID.randomUUID() + ".journal",
+                "--app.session.signing-key=replica-test-signing-key-0123456789abcdef");
+    }
+
+    private static MockMvc mockMvc(ConfigurableApplicationContext context) {
+        return MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).apply(springSecurity()).build();
+    }
+
+    private static String page(MockMvc mockMvc, String url) throws Exception {
+        var response = mockMvc.perform(asAdmin(get(url))).andReturn().getResponse();
+        assertThat(response.getStatus()).as(url).isEqualTo(200);
+        return response.getContentAsString();
+    }
+
+    private static MockHttpServletRequestBuilder asAdmin(MockHttpServletRequestBuilder request) {
+        return request.with(user("admin").roles("ADMIN"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.ordertaking.controller;
+
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.VegetableRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Second-level entity and query cache for Customer and Vegetable (opt-in), driven through the controllers. */
+@SpringBootTest(properties = "app.second-level-cache.enabled=true")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class SecondLevelCacheTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        var c = new Customer();
+        c.setFirstName("Level");
+        c.setLastName("Twocache" + System.nanoTime());
+        c.setEmail("l2." + System.nanoTime() + "@example.com");
+        c.setAddress("2 Region Road");
+        customer = customerRepository.save(c);
+    }
+
+    @Test
+    void findById_shouldBeServedFromTheRegionWithoutSql() {
+        customerRepository.findById(customer.getId()).orElseThrow();
+        long hits = regionHits("customers");
+        long statements = statistics.getPrepareStatementCount();
+
+        var again = customerRepository.findById(customer.getId()).orElseThrow();
+
+        assertThat(again.getLastName()).isEqualTo(customer.getLastName());
+        assertThat(regionHits("customers")).isEqualTo(hits + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    void update_shouldRefreshTheCachedEntityAndSearchResults() throws Exception {
+        customerRepository.findById(customer.getId()).orElseThrow();
+        search(customer.getLastName());
+        long queryHits = statistics.getQueryCacheHitCount();
+        search(customer.getLastName());
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThan(queryHits);
+
+        perform(post("/customers/" + customer.getId() + "/edit")
+                .param("firstName", "Renamed")
+                .param("lastName", customer.getLastName())
+                .param("email", customer.getEmail())
+                .param("address", customer.getAddress())
+                .with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        assertThat(customerRepository.findById(customer.getId()).orElseThrow().getFirstName()).isEqualTo("Renamed");
+        assertThat(search(customer.getLastName())).contains("\"firstName\":\"Renamed\"");
+    }
+
+    @Test
+    void delete_shouldEvictTheCachedEntity() throws Exception {
+        customerRepository.findById(customer.getId()).orElseThrow();
+        assertThat(entityManagerFactory.getCache().contains(Customer.class, customer.getId())).isTrue();
+
+        perform(post("/customers/" + customer.getId() + "/delete").with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        // READ_WRITE leaves an unreadable soft lock in the region; the lookup must miss and go to the database
+        long misses = statistics.getDomainDataRegionStatistics("customers").getMissCount();
+        assertThat(customerRepository.findById(customer.getId())).isEmpty();
+        assertThat(statistics.getDomainDataRegionStatistics("customers").getMissCount()).isEqualTo(misses + 1);
+        assertThat(search(customer.getLastName())).isEqualTo("[]");
+    }
+
+    @Test
+    void vegetables_shouldBeCachedAndRefreshedOnEdit() throws Exception {
+        var vegetable = vegetableRepository.save(new Vegetable("Salsify " + System.nanoTime()));
+        vegetableRepository.findById(vegetable.getId()).orElseThrow();
+        long hits = regionHits("vegetables");
+        vegetableRepository.findById(vegetable.getId()).orElseThrow();
+        assertThat(regionHits("vegetables")).isEqualTo(hits + 1);
+
+        perform(post("/vegetables/" + vegetable.getId() + "/edit").param("name", "Oyster plant " + vegetable.getId()).with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        assertThat(vegetableRepository.findById(vegetable.getId()).orElseThrow().getName())
+                .isEqualTo("Oyster plant " + vegetable.getId());
+    }
+
+    private long regionHits(String region) {
+        return statistics.getDomainDataRegionStatistics(region).getHitCount();
+    }
+
+    private String search(String q) throws Exception {
+        return perform(get("/customers/search").param("q", q))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user("admin").roles("ADMIN")));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.ordertaking.repository;
+
+import com.example.ordertaking.entity.OrderHeader;
+import com.example.ordertaking.entity.OrderItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrading a pre-Flyway database: the schema the old {@code ddl-auto=update} created, with data, is
+ * baselined at V1 and migrated with the MySQL scripts (H2 in MySQL mode); Hibernate then validates the
+ * mappings against the result.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pre-flyway;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.locations=classpath:db/migration/mysql",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQL8Dialect",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BaselineMigrationTest.PreFlywaySchema.class)
+class BaselineMigrationTest {
+
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private OrderRepository orderRepository;
+
+    @Test
+    void preFlywaySchema_shouldBeBaselinedAndMigratedToTheCurrentOne() {
+        assertThat(jdbc.queryForObject(
+                "select type from flyway_schema_history where version = '1'", String.class)).isEqualTo("BASELINE");
+        assertThat(jdbc.queryForObject(
+                "select count(*) from flyway_schema_history where success = false", Integer.class)).isZero();
+        assertThat(jdbc.queryForList(
+                "select index_name from information_schema.indexes where table_name in ('customers', 'orders', 'order_items')",
+                String.class))
+                .contains("idx_customers_last_name", "idx_orders_date_customer", "idx_orders_customer_date",
+                        "idx_order_items_order", "idx_order_items_vegetable");
+        assertThat(jdbc.queryForObject("select count(*) from daily_vegetable_totals", Integer.class)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from page_versions", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void newOrders_shouldContinueAfterTheExistingIds() {
+        var order = new OrderHeader(customerRepository.findAll().get(0), LocalDate.of(2024, 5, 3));
+        order.addItem(new OrderItem(vegetableRepository.findAll().get(0), 2, null));
+
+        orderRepository.saveAndFlush(order);
+
+        assertThat(order.getId()).isEqualTo(121L);
+        assertThat(order.getItems().get(0).getId()).isEqualTo(311L);
+        assertThat(orderRepository.count()).isEqualTo(2);
+    }
+
+    /**
+     * Creates the old schema before Flyway sees the database. Only pulled in by {@code @Import}: as a
+     * {@code @TestConfiguration} it would be component-scanned into every context the application class
+     * starts, next to {@code OrderExportServiceTest.CleanSchema}.
+     */
+    static class PreFlywaySchema {
+        @Bean
+        FlywayMigrationStrategy preFlywaySchema() {
+            return flyway -> {
+                new ResourceDatabasePopulator(new ClassPathResource("db/pre-flyway-mysql.sql"))
+                        .execute(flyway.getConfiguration().getDataSource());
+                flyway.migrate();
+            };
+        }
+    }
+}
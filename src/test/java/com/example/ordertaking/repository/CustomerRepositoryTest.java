@@ -0,0 +1,40 @@
+package com.example.ordertaking.repository;
+
+import com.example.ordertaking.dto.CustomerOption;
+import com.example.ordertaking.entity.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class CustomerRepositoryTest {
+
+    @Autowired private CustomerRepository customerRepository;
+
+    @Test
+    void keysetPagesAndPrefixSearch_shouldUseIdAndIndexedColumns() {
+        for (int i = 0; i < 5; i++) {
+            Customer c = new Customer();
+            c.setFirstName("First" + i);
+            c.setLastName(i % 2 == 0 ? "Smith" : "Jones");
+            c.setEmail("user" + i + "@example.com");
+            c.setAddress("X Street");
+            customerRepository.save(c);
+        }
+
+        var first = customerRepository.findByIdGreaterThanOrderByIdAsc(0L, Pageable.ofSize(2));
+        var second = customerRepository.findByIdGreaterThanOrderByIdAsc(first.get(1).getId(), Pageable.ofSize(2));
+        assertThat(second).extracting(Customer::getFirstName).containsExactly("First2", "First3");
+        var back = customerRepository.findByIdLessThanOrderByIdDesc(second.get(0).getId(), Pageable.ofSize(2));
+        assertThat(back).extracting(Customer::getFirstName).containsExactly("First1", "First0");
+
+        assertThat(customerRepository.searchByLastName("Smi%", Pageable.ofSize(10))).hasSize(3);
+        assertThat(customerRepository.searchByEmail("user4%", Pageable.ofSize(10)))
+                .extracting(CustomerOption::getLabel).containsExactly("First4 Smith (user4@example.com)");
+        // Escaped wildcards match literally
+        assertThat(customerRepository.searchByFirstName("First!_%", Pageable.ofSize(10))).isEmpty();
+    }
+}
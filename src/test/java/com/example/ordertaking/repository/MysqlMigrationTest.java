@@ -0,0 +1,39 @@
+package com.example.ordertaking.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applies the MySQL migrations to H2 in MySQL compatibility mode and lets Hibernate validate the
+ * entity mappings against them with the production dialect. Not a substitute for a real MySQL, but
+ * it catches scripts that drift from the entities or from the H2 set.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:mysql-migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.locations=classpath:db/migration/mysql",
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQL8Dialect",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MysqlMigrationTest {
+
+    @Autowired private JdbcTemplate jdbc;
+
+    @Test
+    void migrations_shouldMatchTheEntityMappings() {
+        // Context start-up already ran ddl-auto=validate; check the hot-path indexes made it too.
+        assertThat(jdbc.queryForList(
+                "select index_name from information_schema.indexes where table_name in ('orders', 'order_items')",
+                String.class))
+                .contains("idx_orders_date_customer", "idx_orders_customer_date", "idx_order_items_order", "idx_order_items_vegetable");
+        assertThat(jdbc.queryForObject("select next_val from orders_seq", Long.class)).isEqualTo(1L);
+    }
+}
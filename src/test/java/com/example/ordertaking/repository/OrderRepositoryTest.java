@@ -0,0 +1,75 @@
+package com.example.ordertaking.repository;
+
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.OrderHeader;
+import com.example.ordertaking.entity.OrderItem;
+import com.example.ordertaking.entity.Vegetable;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderRepositoryTest {
+
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void findWithItemsByOrderDate_shouldUseConstantStatementCount() {
+        Customer c = new Customer();
+        c.setFirstName("Test");
+        c.setLastName("User");
+        c.setEmail("test.user@example.com");
+        c.setAddress("X Street");
+        c = customerRepository.save(c);
+        Vegetable tomato = vegetableRepository.save(new Vegetable("Tomato"));
+        Vegetable onion = vegetableRepository.save(new Vegetable("Onion"));
+
+        LocalDate small = LocalDate.of(2025, 1, 1);
+        LocalDate large = LocalDate.of(2025, 1, 2);
+        createOrders(c, small, 3, tomato, onion);
+        createOrders(c, large, 50, tomato, onion);
+
+        assertThat(statementsToRender(small)).isEqualTo(1L);
+        assertThat(statementsToRender(large)).isEqualTo(1L);
+    }
+
+    private void createOrders(Customer c, LocalDate date, int count, Vegetable first, Vegetable second) {
+        for (int i = 0; i < count; i++) {
+            OrderHeader o = new OrderHeader(c, date);
+            o.addItem(new OrderItem(first, i + 1, o));
+            o.addItem(new OrderItem(second, 1, o));
+            orderRepository.save(o);
+        }
+    }
+
+    /** Loads the day's orders and walks everything orders/final.html reads, counting JDBC statements. */
+    private long statementsToRender(LocalDate date) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        long lines = 0;
+        for (var o : orderRepository.findWithItemsByOrderDate(date)) {
+            assertThat(o.getCustomer().getFirstName() + o.getCustomer().getLastName()).isNotBlank();
+            for (var it : o.getItems()) {
+                assertThat(it.getVegetable().getName()).isNotBlank();
+                lines++;
+            }
+        }
+        assertThat(lines).isPositive();
+        return stats.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.ordertaking.repository;
+
+import com.example.ordertaking.support.RecordingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs H2's EXPLAIN on the SQL Hibernate generates for the hot read paths and checks that each one
+ * is served by the indexes from the migrations rather than a table scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.ordertaking.support.RecordingStatementInspector")
+class QueryPlanTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 1);
+
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderItemRepository orderItemRepository;
+    @Autowired private DailyVegetableTotalRepository dailyVegetableTotalRepository;
+    @Autowired private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("insert into customers (id, first_name, last_name, email, address, created_at) " +
+                "select x, 'First', 'Last' || x, 'c' || x || '@example.com', 'Street', current_timestamp " +
+                "from system_range(1, 100)");
+        jdbc.update("insert into vegetables (id, name) select x, 'Veg ' || x from system_range(1, 20)");
+        jdbc.update("insert into orders (id, customer_id, order_date) " +
+                "select x, mod(x, 100) + 1, dateadd('DAY', mod(x, 60), cast(? as date)) from system_range(1, 3000)", DAY);
+        jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) " +
+                "select x, (x - 1) / 3 + 1, mod(x, 20) + 1, 1 from system_range(1, 9000)");
+        jdbc.update("insert into daily_vegetable_totals (order_date, vegetable_id, total_quantity) " +
+                "select o.order_date, oi.vegetable_id, sum(oi.quantity) from order_items oi " +
+                "join orders o on o.id = oi.order_id group by o.order_date, oi.vegetable_id");
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void findByOrderDate_shouldSeekTheOrderDateIndex() {
+        orderRepository.findByOrderDate(DAY);
+
+        assertThat(explain(DAY)).contains("IDX_ORDERS_DATE_CUSTOMER").doesNotContain("ORDERS.tableScan");
+    }
+
+    @Test
+    void findWithItemsByOrderDate_shouldJoinItemsThroughTheOrderIndex() {
+        orderRepository.findWithItemsByOrderDate(DAY);
+
+        assertThat(explain(DAY))
+                .contains("IDX_ORDERS_DATE_CUSTOMER", "IDX_ORDER_ITEMS_ORDER")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void liveSummary_shouldBeCoveredByTheOrderAndItemIndexes() {
+        orderItemRepository.summarizeByDate(DAY);
+
+        assertThat(explain(DAY))
+                .contains("IDX_ORDERS_DATE_CUSTOMER", "IDX_ORDER_ITEMS_ORDER")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void rollupSummary_shouldSeekThePrimaryKey() {
+        dailyVegetableTotalRepository.summarizeByDate(DAY);
+
+        assertThat(explain(DAY)).contains("PRIMARY_KEY").doesNotContain("DAILY_VEGETABLE_TOTALS.tableScan");
+    }
+
+    @Test
+    void exportRange_shouldScanTheOrderDateIndex() {
+        orderItemRepository.streamExportRows(DAY, DAY.plusDays(6)).close();
+
+        assertThat(explain(DAY, DAY.plusDays(6)))
+                .contains("IDX_ORDERS_DATE_CUSTOMER", "IDX_ORDER_ITEMS_ORDER")
+                .doesNotContain("ORDERS.tableScan", "ORDER_ITEMS.tableScan");
+    }
+
+    @Test
+    void orderHistoryPage_shouldReadTheCustomerIndexInOrder() {
+        orderRepository.findHistoryOlderThan(7L, DAY.plusDays(30), 2000L, Pageable.ofSize(51));
+
+        assertThat(explain(7L, DAY.plusDays(30), DAY.plusDays(30), 2000L))
+                .contains("IDX_ORDERS_CUSTOMER_DATE", "IDX_ORDER_ITEMS_ORDER", "index sorted")
+                .doesNotContain("tableScan");
+    }
+
+    private String explain(Object... params) {
+        return jdbc.queryForObject("explain " + RecordingStatementInspector.first(), String.class, params);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ordertaking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query latency of the analytics report over 1, 30 and 365 days of pre-aggregated buckets
+ * (50 vegetables, 500 customers each ordering every third day). The timed run belongs to the load suite;
+ * the default suite only checks the reports' shape over the same data.
+ */
+@DataJpaTest
+@Import(AnalyticsService.class)
+class AnalyticsServiceBenchmarkTest {
+
+    private static final LocalDate END = LocalDate.of(2025, 12, 31);
+    private static final int RUNS = 30;
+
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private AnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        var start = END.minusDays(364);
+        jdbc.update("insert into customers (id, first_name, last_name, email, address, created_at) " +
+                "select x, 'First', 'Last' || x, 'c' || x || '@example.com', 'Street', current_timestamp from system_range(1, 500)");
+        jdbc.update("insert into vegetables (id, name) select x, 'Veg ' || x from system_range(1, 50)");
+        jdbc.update("insert into daily_vegetable_totals (order_date, vegetable_id, total_quantity) " +
+                "select dateadd('DAY', d.x, cast(? as date)), v.x, mod(d.x * v.x, 97) + 1 " +
+                "from system_range(0, 364) d cross join system_range(1, 50) v", start);
+        jdbc.update("insert into daily_customer_totals (order_date, customer_id, total_quantity, order_count) " +
+                "select dateadd('DAY', d.x, cast(? as date)), c.x, mod(d.x + c.x, 41) + 1, 1 " +
+                "from system_range(0, 364) d cross join system_range(1, 500) c where mod(d.x + c.x, 3) = 0", start);
+    }
+
+    @Test
+    void report_shouldCoverEveryVegetableFromOneDayToOneYear() {
+        for (int days : new int[]{1, 30, 365}) {
+            var report = analyticsService.report(END.minusDays(days - 1), END, granularity(days), 50);
+            assertThat(report.getVegetables()).as("%d days", days).hasSize(50);
+        }
+    }
+
+    @Test
+    @Tag("load")
+    void report_shouldStayFastFromOneDayToOneYear() {
+        for (int days : new int[]{1, 30, 365}) {
+            var from = END.minusDays(days - 1);
+            var granularity = granularity(days);
+            long[] micros = new long[RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                long t = System.nanoTime();
+                var report = analyticsService.report(from, END, granularity, 50);
+                micros[run] = (System.nanoTime() - t) / 1000;
+                assertThat(report.getVegetables()).hasSize(50);
+            }
+            Arrays.sort(micros);
+            System.out.printf("Analytics over %3d days (%s): p50 %d us, p99 %d us%n",
+                    days, granularity, micros[RUNS / 2], micros[RUNS - 1]);
+            assertThat(micros[RUNS / 2]).isLessThan(2_000_000);
+        }
+    }
+
+    private static AnalyticsService.Granularity granularity(int days) {
+        return days > 31 ? AnalyticsService.Granularity.MONTH : AnalyticsService.Granularity.DAY;
+    }
+}
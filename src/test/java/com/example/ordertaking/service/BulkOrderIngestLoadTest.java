@@ -0,0 +1,102 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.BulkOrderResult;
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.OrderItemRepository;
+import com.example.ordertaking.repository.VegetableRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test for the bulk ingest path on H2: 10k CSV orders (30k lines) through chunked transactions.
+ * Runs outside a test transaction so every chunk really commits. Part of the load suite:
+ * {@code mvn test -DskipLoadTests=false -DskipSmallHeapTests=true -DfailIfNoTests=false -Dtest=BulkOrderIngestLoadTest}.
+ */
+@Tag("load")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BulkOrderIngestService.class, VegetableCatalog.class, OrderPageCache.class, DailyRollupService.class, LiveOrderTotals.class, OrderArchive.class, BulkOrderIngestLoadTest.Config.class})
+class BulkOrderIngestLoadTest {
+
+    private static final int ORDERS = 10_000;
+    private static final int LINES_PER_ORDER = 3;
+
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().registerModule(new JavaTimeModule());
+        }
+    }
+
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private OrderItemRepository orderItemRepository;
+    @Autowired private BulkOrderIngestService ingestService;
+    @Autowired private DailyRollupService rollupService;
+
+    @Test
+    void ingest_shouldSustainTensOfThousandsOfLinesPerMinute() {
+        List<Long> customers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Customer c = new Customer();
+            c.setFirstName("Bulk");
+            c.setLastName("Customer" + i);
+            c.setEmail("bulk" + i + "@example.com");
+            c.setAddress("Warehouse " + i);
+            customers.add(customerRepository.save(c).getId());
+        }
+        List<Long> vegetables = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            vegetables.add(vegetableRepository.save(new Vegetable("Bulk veg " + i)).getId());
+        }
+        LocalDate date = LocalDate.of(2025, 3, 1);
+
+        StringBuilder csv = new StringBuilder("ref,customerId,orderDate,vegetableId,quantity\n");
+        for (int o = 0; o < ORDERS; o++) {
+            for (int l = 0; l < LINES_PER_ORDER; l++) {
+                csv.append("R").append(o).append(',')
+                   .append(customers.get(o % customers.size())).append(',')
+                   .append(date).append(',')
+                   .append(vegetables.get((o + l) % vegetables.size())).append(',')
+                   .append(1 + (o + l) % 7).append('\n');
+            }
+        }
+        csv.append("BAD,999999,").append(date).append(',').append(vegetables.get(0)).append(",1\n");
+        csv.append("BROKEN,not-a-number\n");
+
+        Map<BulkOrderResult.Status, Integer> counts = new EnumMap<>(BulkOrderResult.Status.class);
+        var summary = ingestService.ingest(new BufferedReader(new StringReader(csv.toString())),
+                BulkOrderReader.Format.CSV, r -> counts.merge(r.getStatus(), 1, Integer::sum));
+
+        double linesPerMinute = summary.getOrderLines() * 60_000.0 / Math.max(1, summary.getElapsedMillis());
+        System.out.printf("Bulk ingest: %d orders, %d lines in %d ms (%.0f lines/min)%n",
+                summary.getCreated(), summary.getOrderLines(), summary.getElapsedMillis(), linesPerMinute);
+
+        assertThat(counts.get(BulkOrderResult.Status.CREATED)).isEqualTo(ORDERS);
+        assertThat(counts.get(BulkOrderResult.Status.REJECTED)).isEqualTo(2);
+        assertThat(summary.getOrderLines()).isEqualTo((long) ORDERS * LINES_PER_ORDER);
+        assertThat(linesPerMinute).isGreaterThan(30_000);
+        assertThat(rollupService.verify(date)).isEmpty();
+        assertThat(orderItemRepository.count()).isEqualTo((long) ORDERS * LINES_PER_ORDER);
+    }
+}
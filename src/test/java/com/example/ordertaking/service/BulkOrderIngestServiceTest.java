@@ -0,0 +1,64 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.BulkOrderResult;
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.VegetableRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({BulkOrderIngestService.class, VegetableCatalog.class, OrderPageCache.class, DailyRollupService.class, LiveOrderTotals.class, OrderArchive.class, BulkOrderIngestServiceTest.Config.class})
+class BulkOrderIngestServiceTest {
+
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().registerModule(new JavaTimeModule());
+        }
+    }
+
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private BulkOrderIngestService ingestService;
+
+    @Test
+    void ndjson_nullRecordsAndLines_shouldBeRejectedAndTheRestCreated() {
+        var c = new Customer();
+        c.setFirstName("Null");
+        c.setLastName("Lines");
+        c.setEmail("null.lines@example.com");
+        c.setAddress("1 Json Street");
+        long customerId = customerRepository.save(c).getId();
+        long vegetableId = vegetableRepository.save(new Vegetable("Null-safe kale")).getId();
+        var order = "{\"ref\":\"%s\",\"customerId\":" + customerId + ",\"orderDate\":\"2025-04-01\",\"items\":%s}\n";
+        var payload = "null\n"
+                + order.formatted("NO-ITEMS", "null")
+                + order.formatted("NULL-LINE", "[null]")
+                + order.formatted("OK", "[{\"vegetableId\":" + vegetableId + ",\"quantity\":2}]");
+
+        List<BulkOrderResult> results = new ArrayList<>();
+        var summary = ingestService.ingest(new BufferedReader(new StringReader(payload)), BulkOrderReader.Format.NDJSON, results::add);
+
+        assertThat(results).extracting(BulkOrderResult::getStatus).containsExactly(
+                BulkOrderResult.Status.REJECTED, BulkOrderResult.Status.REJECTED,
+                BulkOrderResult.Status.REJECTED, BulkOrderResult.Status.CREATED);
+        assertThat(results).extracting(BulkOrderResult::getError).containsExactly(
+                "Expected a JSON object", "At least one item is required", "Item lines must be objects", null);
+        assertThat(summary.getCreated()).isEqualTo(1);
+        assertThat(summary.getOrderLines()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.BulkOrderRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkOrderReaderTest {
+
+    @Test
+    void csv_shouldGroupConsecutiveRowsWithTheSameRef() {
+        var records = read("ref,customerId,orderDate,vegetableId,quantity\n"
+                + "A1,1,2025-01-01,2,5\n"
+                + "A1,1,2025-01-01,3,1\n"
+                + "\n"
+                + "B2,4,2025-01-02,2,7\n");
+
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getError()).isNull();
+        assertThat(records.get(0).getRef()).isEqualTo("A1");
+        assertThat(records.get(0).getLineNumber()).isEqualTo(2);
+        assertThat(records.get(0).getItems()).extracting(BulkOrderRecord.Line::getVegetableId).containsExactly(2L, 3L);
+        assertThat(records.get(1).getRef()).isEqualTo("B2");
+        assertThat(records.get(1).getLineNumber()).isEqualTo(5);
+    }
+
+    @Test
+    void csv_malformedFirstRow_shouldRejectTheWholeGroup() {
+        var records = read("A1,x,2025-01-01,2,5\n"
+                + "A1,1,2025-01-01,3,1\n"
+                + "B2,1,2025-13-01,3,1\n"
+                + "B2,1,2025-01-01,4,1\n"
+                + "C3,1,2025-01-01\n"
+                + "C3,1,2025-01-01,3,1\n"
+                + "D4,1,2025-01-01,3,1\n");
+
+        assertThat(records).extracting(BulkOrderRecord::getRef).containsExactly("A1", "B2", "C3", "D4");
+        assertThat(records.subList(0, 3)).allSatisfy(r -> {
+            assertThat(r.getError()).isNotNull();
+            assertThat(r.getItems()).isEmpty();
+        });
+        assertThat(records).extracting(BulkOrderRecord::getLineNumber).containsExactly(1L, 3L, 5L, 7L);
+        assertThat(records.get(2).getError()).startsWith("Expected 5 columns");
+        assertThat(records.get(3).getError()).isNull();
+    }
+
+    @Test
+    void csv_malformedMiddleRow_shouldRejectTheWholeGroup() {
+        var records = read("A1,1,2025-01-01,2,5\n"
+                + "A1,1,2025-01-01,3\n"
+                + "A1,1,2025-01-01,4,1\n"
+                + "B2,1,2025-01-01,2,5\n"
+                + "B2,1,2025-01-01,3,many\n"
+                + "B2,1,2025-01-01,4,1\n"
+                + "C3,1,2025-01-01,2,5\n");
+
+        assertThat(records).extracting(BulkOrderRecord::getRef).containsExactly("A1", "B2", "C3");
+        assertThat(records.get(0).getError()).contains("line 2");
+        assertThat(records.get(1).getError()).contains("line 5");
+        assertThat(records.get(2).getError()).isNull();
+        assertThat(records.get(2).getLineNumber()).isEqualTo(7);
+    }
+
+    @Test
+    void ndjson_nullLine_shouldBeRejectedWithoutStoppingTheStream() {
+        var records = read("null\n"
+                + "{\"ref\":\"A1\",\"customerId\":1,\"orderDate\":\"2025-01-01\",\"items\":[{\"vegetableId\":2,\"quantity\":5}]}\n",
+                BulkOrderReader.Format.NDJSON);
+
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getError()).isEqualTo("Expected a JSON object");
+        assertThat(records.get(0).getLineNumber()).isEqualTo(1);
+        assertThat(records.get(1).getError()).isNull();
+        assertThat(records.get(1).getLineNumber()).isEqualTo(2);
+    }
+
+    @Test
+    void ndjson_nullItems_shouldBeLeftToValidation() {
+        var records = read("{\"ref\":\"A1\",\"customerId\":1,\"orderDate\":\"2025-01-01\",\"items\":null}\n"
+                + "{\"ref\":\"B2\",\"customerId\":1,\"orderDate\":\"2025-01-01\",\"items\":[null]}\n",
+                BulkOrderReader.Format.NDJSON);
+
+        assertThat(records).extracting(BulkOrderRecord::getError).containsExactly(null, null);
+        assertThat(records.get(0).getItems()).isNull();
+        assertThat(records.get(1).getItems()).containsExactly((BulkOrderRecord.Line) null);
+    }
+
+    private static List<BulkOrderRecord> read(String csv) {
+        return read(csv, BulkOrderReader.Format.CSV);
+    }
+
+    private static List<BulkOrderRecord> read(String payload, BulkOrderReader.Format format) {
+        var objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        var reader = new BulkOrderReader(new BufferedReader(new StringReader(payload)), format, objectMapper);
+        List<BulkOrderRecord> records = new ArrayList<>();
+        reader.forEachRemaining(records::add);
+        return records;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.OrderHeader;
+import com.example.ordertaking.entity.OrderItem;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.dto.DailyBucket;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.DailyCustomerTotalRepository;
+import com.example.ordertaking.repository.OrderItemRepository;
+import com.example.ordertaking.repository.OrderRepository;
+import com.example.ordertaking.repository.VegetableRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import({OrderService.class, DailyRollupService.class, LiveOrderTotals.class, OrderArchive.class, VegetableCatalog.class, OrderPageCache.class})
+class DailyRollupServiceTest {
+
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private OrderItemRepository orderItemRepository;
+    @Autowired private DailyCustomerTotalRepository customerTotalRepository;
+    @Autowired private OrderService orderService;
+    @Autowired private DailyRollupService rollupService;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rollup_shouldTrackCreatesUpdatesAndDeletes() {
+        // Arrange
+        Customer c = new Customer();
+        c.setFirstName("Test");
+        c.setLastName("User");
+        c.setEmail("test.user@example.com");
+        c.setAddress("X Street");
+        c = customerRepository.save(c);
+
+        Vegetable tomato = vegetableRepository.save(new Vegetable("Tomato"));
+        Vegetable onion = vegetableRepository.save(new Vegetable("Onion"));
+
+        LocalDate date = LocalDate.of(2025, 1, 1);
+        LocalDate nextDay = date.plusDays(1);
+
+        // Act
+        OrderHeader o1 = new OrderHeader(c, date);
+        o1.addItem(new OrderItem(tomato, 2, o1));
+        o1.addItem(new OrderItem(onion, 3, o1));
+        orderService.placeOrder(o1);
+
+        OrderHeader o2 = new OrderHeader(c, date);
+        o2.addItem(new OrderItem(tomato, 5, o2));
+        o2 = orderService.placeOrder(o2);
+
+        // Assert
+        assertThat(rollupService.summarizeByDate(date))
+                .extracting("vegetableName", "totalQuantity")
+                .containsExactly(
+                        tuple("Onion", 3L),
+                        tuple("Tomato", 7L));
+        assertThat(rollupService.verify(date)).isEmpty();
+
+        // Moving o2 to the next day as onions shifts its quantities between dates
+        orderService.updateOrder(o2.getId(), nextDay, List.of(new OrderItem(onion, 4, null)));
+        assertThat(rollupService.verify(date)).isEmpty();
+        assertThat(rollupService.verify(nextDay)).isEmpty();
+        assertThat(rollupService.summarizeByDate(nextDay)).singleElement()
+                .extracting("totalQuantity").isEqualTo(4L);
+
+        orderService.deleteOrder(o1.getId());
+        assertThat(rollupService.summarizeByDate(date)).isEmpty();
+        assertThat(orderItemRepository.summarizeByDate(date)).isEmpty();
+
+        // A rebuild reproduces the incrementally maintained rows
+        var customerBuckets = customerTotalRepository.findBuckets(date, nextDay);
+        assertThat(customerBuckets).extracting(DailyBucket::getDate, DailyBucket::getQuantity)
+                .containsExactly(tuple(nextDay, 4L));
+        rollupService.rebuildAll();
+        assertThat(rollupService.verify(date)).isEmpty();
+        assertThat(rollupService.verify(nextDay)).isEmpty();
+        assertThat(customerTotalRepository.findBuckets(date, nextDay))
+                .usingRecursiveFieldByFieldElementComparator().isEqualTo(customerBuckets);
+    }
+
+    @Test
+    void emptiedRollupRows_shouldNotBlockDeletingTheCustomerOrVegetable() {
+        Customer c = new Customer();
+        c.setFirstName("Gone");
+        c.setLastName("Soon");
+        c.setEmail("gone.soon@example.com");
+        c.setAddress("1 Exit Lane");
+        c = customerRepository.save(c);
+        Vegetable okra = vegetableRepository.save(new Vegetable("Okra"));
+        LocalDate date = LocalDate.of(2025, 2, 1);
+
+        OrderHeader order = new OrderHeader(c, date);
+        order.addItem(new OrderItem(okra, 3, order));
+        orderService.placeOrder(order);
+        orderService.deleteOrder(order.getId());
+
+        assertThat(jdbc.queryForObject("select count(*) from daily_vegetable_totals where vegetable_id = ?", Integer.class, okra.getId())).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from daily_customer_totals where customer_id = ?", Integer.class, c.getId())).isZero();
+        customerRepository.delete(c);
+        vegetableRepository.delete(okra);
+        customerRepository.flush();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentFirstOrdersForOneDay_shouldBothBeCounted() throws Exception {
+        var tx = new TransactionTemplate(transactionManager);
+        Customer c = new Customer();
+        c.setFirstName("Rush");
+        c.setLastName("Hour");
+        c.setEmail("rush.hour@example.com");
+        c.setAddress("2 Cutoff Road");
+        var customer = customerRepository.save(c);
+        var kohlrabi = vegetableRepository.save(new Vegetable("Kohlrabi"));
+        LocalDate date = LocalDate.of(2031, 3, 3);
+
+        var firstPlaced = new CountDownLatch(1);
+        var commitFirst = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(2);
+        try {
+            var first = pool.submit(() -> tx.executeWithoutResult(status -> {
+                placeOne(customer, kohlrabi, date, 2);
+                firstPlaced.countDown();
+                await(commitFirst);
+            }));
+            await(firstPlaced);
+            // Both see no rollup row for the day yet; the second has to wait for the first's and add to it
+            var second = pool.submit(() -> tx.executeWithoutResult(status -> placeOne(customer, kohlrabi, date, 5)));
+            Thread.sleep(200);
+            commitFirst.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+
+            assertThat(jdbc.queryForObject("select total_quantity from daily_vegetable_totals where order_date = ? and vegetable_id = ?",
+                    Long.class, date, kohlrabi.getId())).isEqualTo(7L);
+            assertThat(jdbc.queryForObject("select order_count from daily_customer_totals where order_date = ? and customer_id = ?",
+                    Long.class, date, customer.getId())).isEqualTo(2L);
+        } finally {
+            pool.shutdownNow();
+            tx.executeWithoutResult(status -> {
+                orderRepository.findByOrderDate(date).forEach(o -> orderService.deleteOrder(o.getId()));
+                customerRepository.deleteById(customer.getId());
+                vegetableRepository.deleteById(kohlrabi.getId());
+            });
+        }
+    }
+
+    private void placeOne(Customer customer, Vegetable vegetable, LocalDate date, int quantity) {
+        var order = new OrderHeader(customerRepository.getReferenceById(customer.getId()), date);
+        order.addItem(new OrderItem(vegetableRepository.getReferenceById(vegetable.getId()), quantity, order));
+        orderService.placeOrder(order);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.VegetableSummary;
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.OrderHeader;
+import com.example.ordertaking.entity.OrderItem;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.OrderItemRepository;
+import com.example.ordertaking.repository.VegetableRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Moving Nov and Dec 2019 into the archive (Jan 2020 stays hot) must not change any answer: per-day
+ * summaries, rollup checks and rebuilds, and the CSV export match what order_items gave before.
+ */
+@DataJpaTest(properties = "app.archive.dir=target/order-archive/${random.uuid}")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderArchiver.class, OrderArchive.class, OrderService.class, DailyRollupService.class, LiveOrderTotals.class,
+        OrderExportService.class, VegetableCatalog.class, OrderPageCache.class})
+class OrderArchiveEquivalenceTest {
+
+    private static final LocalDate FIRST = LocalDate.of(2019, 11, 1);
+    private static final LocalDate LAST = LocalDate.of(2020, 1, 31);
+    private static final LocalDate HOT = LocalDate.of(2020, 1, 1);
+
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private OrderItemRepository orderItemRepository;
+    @Autowired private OrderService orderService;
+    @Autowired private DailyRollupService rollupService;
+    @Autowired private OrderExportService exportService;
+    @Autowired private OrderArchiver archiver;
+    @Autowired private OrderArchive archive;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void archivedMonths_shouldAnswerExactlyLikeTheOrderTables() throws Exception {
+        var customers = new ArrayList<Customer>();
+        for (int i = 0; i < 20; i++) {
+            var c = new Customer();
+            c.setFirstName("Arch" + i);
+            c.setLastName("Ive, \"Jr\"");
+            c.setEmail("archive" + i + "@example.com");
+            c.setAddress(i + " Cellar Road");
+            customers.add(customerRepository.save(c));
+        }
+        var vegetables = new ArrayList<Vegetable>();
+        for (var name : List.of("Artichoke", "Beetroot", "Cabbage", "Daikon", "Endive", "Fennel",
+                "Garlic", "Horseradish", "Jerusalem artichoke", "Kale", "Leek", "Marrow")) {
+            vegetables.add(vegetableRepository.save(new Vegetable(name)));
+        }
+        var random = new Random(2019);
+        int days = (int) (LAST.toEpochDay() - FIRST.toEpochDay()) + 1;
+        for (int n = 0; n < 400; n++) {
+            var order = new OrderHeader(customers.get(random.nextInt(customers.size())), FIRST.plusDays(random.nextInt(days)));
+            var picked = new LinkedHashSet<Vegetable>();
+            int lines = 1 + random.nextInt(5);
+            while (picked.size() < lines) picked.add(vegetables.get(random.nextInt(vegetables.size())));
+            picked.forEach(v -> order.addItem(new OrderItem(v, 1 + random.nextInt(30), null)));
+            orderService.placeOrder(order);
+        }
+
+        Map<LocalDate, List<String>> summaries = new TreeMap<>();
+        for (var date = FIRST; !date.isAfter(LAST); date = date.plusDays(1)) {
+            summaries.put(date, lines(orderItemRepository.summarizeByDate(date)));
+        }
+        var vegetableRollup = rollup("daily_vegetable_totals", "vegetable_id, total_quantity");
+        var customerRollup = rollup("daily_customer_totals", "customer_id, total_quantity, order_count");
+        var export = export(FIRST, LAST);
+        var decemberExport = export(LocalDate.of(2019, 12, 10), LocalDate.of(2020, 1, 10));
+        int coldLines = jdbc.queryForObject("select count(*) from order_items oi join orders o on o.id = oi.order_id " +
+                "where o.order_date < ?", Integer.class, HOT);
+
+        assertThat(archiver.archiveBefore(YearMonth.from(HOT))).isEqualTo(coldLines);
+
+        assertThat(archive.archivedBefore()).isEqualTo(HOT);
+        assertThat(jdbc.queryForObject("select count(*) from orders where order_date < ?", Integer.class, HOT)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from orders where order_date >= ?", Integer.class, HOT)).isPositive();
+        for (var date = FIRST; !date.isAfter(LAST); date = date.plusDays(1)) {
+            assertThat(lines(rollupService.summarizeOrders(date))).as("summary of %s", date).isEqualTo(summaries.get(date));
+            assertThat(rollupService.verify(date)).as("rollup check of %s", date).isEmpty();
+        }
+        assertThat(export(FIRST, LAST)).isEqualTo(export);
+        assertThat(export(LocalDate.of(2019, 12, 10), LocalDate.of(2020, 1, 10))).isEqualTo(decemberExport);
+
+        rollupService.rebuildAll();
+        assertThat(rollup("daily_vegetable_totals", "vegetable_id, total_quantity")).isEqualTo(vegetableRollup);
+        assertThat(rollup("daily_customer_totals", "customer_id, total_quantity, order_count")).isEqualTo(customerRollup);
+        rollupService.rebuild(LocalDate.of(2019, 12, 20), LocalDate.of(2020, 1, 5));
+        assertThat(rollup("daily_vegetable_totals", "vegetable_id, total_quantity")).isEqualTo(vegetableRollup);
+
+        // Nothing left to move; archived dates are read-only
+        assertThat(archiver.archiveBefore(YearMonth.from(HOT))).isZero();
+        var late = new OrderHeader(customers.get(0), LocalDate.of(2019, 12, 24));
+        late.addItem(new OrderItem(vegetables.get(0), 1, null));
+        assertThatThrownBy(() -> orderService.placeOrder(late)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(jdbc.queryForObject("select count(*) from orders where order_date < ?", Integer.class, HOT)).isZero();
+    }
+
+    @Test
+    void rearchivingAMonth_shouldMergeStragglersIntoItsSegment() {
+        var c = new Customer();
+        c.setFirstName("Late");
+        c.setLastName("Comer");
+        c.setEmail("late.comer@example.com");
+        c.setAddress("1 Back Door");
+        c = customerRepository.save(c);
+        var leek = vegetableRepository.save(new Vegetable("Straggler leek"));
+        var month = YearMonth.of(2018, 3);
+        jdbc.update("insert into orders (id, customer_id, order_date) values (900001, ?, ?)", c.getId(), month.atDay(5));
+        jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) values (900001, 900001, ?, 4)", leek.getId());
+        archiver.archiveBefore(month.plusMonths(1));
+
+        // Rows that reached the table after the segment was written (an instance that had not seen it yet)
+        jdbc.update("insert into orders (id, customer_id, order_date) values (900002, ?, ?)", c.getId(), month.atDay(5));
+        jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) values (900002, 900002, ?, 6)", leek.getId());
+        assertThat(archiver.archiveBefore(month.plusMonths(1))).isEqualTo(1);
+
+        assertThat(archive.vegetableTotals(month.atDay(5))).containsEntry(leek.getId(), 10L);
+    }
+
+    @Test
+    void orderWithoutLines_shouldKeepItsMonthInTheTables() {
+        var c = customerRepository.save(customer("empty.order@example.com"));
+        var kale = vegetableRepository.save(new Vegetable("Lonely kale"));
+        var month = YearMonth.of(2018, 4);
+        jdbc.update("insert into orders (id, customer_id, order_date) values (900011, ?, ?)", c.getId(), month.atDay(2));
+        jdbc.update("insert into orders (id, customer_id, order_date) values (900012, ?, ?)", c.getId(), month.atDay(3));
+        jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) values (900012, 900012, ?, 2)", kale.getId());
+        try {
+            assertThatThrownBy(() -> archiver.archiveBefore(month.plusMonths(1)))
+                    .isInstanceOf(IllegalStateException.class).hasMessageContaining("900011");
+
+            assertThat(jdbc.queryForObject("select count(*) from orders where id in (900011, 900012)", Integer.class)).isEqualTo(2);
+            assertThat(archive.segment(month)).isNull();
+        } finally {
+            jdbc.update("delete from order_items where id = 900012");
+            jdbc.update("delete from orders where id in (900011, 900012)");
+        }
+    }
+
+    @Test
+    void editCommittedWhileArchiving_shouldBeArchivedNotLost() throws Exception {
+        var c = customerRepository.save(customer("busy.editor@example.com"));
+        var chard = vegetableRepository.save(new Vegetable("Edited chard"));
+        var month = YearMonth.of(2018, 5);
+        jdbc.update("insert into orders (id, customer_id, order_date) values (900021, ?, ?)", c.getId(), month.atDay(7));
+        jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) values (900021, 900021, ?, 3)", chard.getId());
+        var updated = new CountDownLatch(1);
+        var edit = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbc.update("update order_items set quantity = 8 where id = 900021");
+            updated.countDown();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(updated.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(archiver.archiveBefore(month.plusMonths(1))).isEqualTo(1);
+
+        edit.get(5, TimeUnit.SECONDS);
+        assertThat(archive.vegetableTotals(month.atDay(7))).containsEntry(chard.getId(), 8L);
+    }
+
+    private static Customer customer(String email) {
+        var c = new Customer();
+        c.setFirstName("Edge");
+        c.setLastName("Case");
+        c.setEmail(email);
+        c.setAddress("1 Cellar Steps");
+        return c;
+    }
+
+    private static List<String> lines(List<VegetableSummary> summary) {
+        return summary.stream().map(s -> s.getVegetableName() + "=" + s.getTotalQuantity()).collect(Collectors.toList());
+    }
+
+    private List<Map<String, Object>> rollup(String table, String columns) {
+        return jdbc.queryForList("select order_date, " + columns + " from " + table +
+                " where order_date between ? and ? and total_quantity <> 0 order by 1, 2", FIRST, LAST);
+    }
+
+    private String export(LocalDate from, LocalDate to) throws Exception {
+        var out = new StringWriter();
+        exportService.exportCsv(from, to, out);
+        return out.toString();
+    }
+}
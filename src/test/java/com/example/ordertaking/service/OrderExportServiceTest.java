@@ -0,0 +1,102 @@
+package com.example.ordertaking.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports a million generated order lines. Tagged {@code small-heap}: surefire runs it in its own JVM
+ * with -Xmx128m, where materializing the result as a list would fail. Uses a file database so the
+ * data itself does not live on the heap; the schema is cleaned and re-migrated on every run.
+ */
+@Tag("small-heap")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/h2/export-test;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.clean-disabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderExportService.class, OrderArchive.class, VegetableCatalog.class})
+class OrderExportServiceTest {
+
+    private static final int ORDERS = 250_000;
+    private static final int LINES_PER_ORDER = 4;
+
+    @TestConfiguration
+    static class CleanSchema {
+        @Bean
+        FlywayMigrationStrategy cleanMigrate() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private OrderExportService exportService;
+
+    @Test
+    void exportCsv_shouldStreamAMillionLinesInConstantMemory() throws IOException {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        jdbc.update("insert into customers (id, first_name, last_name, email, address, created_at) " +
+                "select x, 'First', 'Last' || x, 'c' || x || '@example.com', 'Street ' || x, current_timestamp " +
+                "from system_range(1, 1000)");
+        jdbc.update("insert into vegetables (id, name) select x, 'Veg ' || x from system_range(1, 50)");
+        jdbc.update("insert into orders (id, customer_id, order_date) " +
+                "select x, mod(x, 1000) + 1, dateadd('DAY', mod(x, 90), cast(? as date)) from system_range(1, ?)", from, ORDERS);
+        jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) " +
+                "select x, (x - 1) / ? + 1, mod(x, 50) + 1, mod(x, 9) + 1 from system_range(1, ?)",
+                LINES_PER_ORDER, ORDERS * LINES_PER_ORDER);
+
+        long t0 = System.nanoTime();
+        var counting = new CountingOutputStream();
+        long written;
+        var memory = ManagementFactory.getMemoryMXBean();
+        try (var out = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(counting), StandardCharsets.UTF_8))) {
+            written = exportService.exportCsv(from, from.plusDays(89), out);
+        }
+
+        System.out.printf("Exported %d lines, %d gzip bytes in %d ms, heap used %d MB of max %d MB%n",
+                written, counting.count, (System.nanoTime() - t0) / 1_000_000,
+                memory.getHeapMemoryUsage().getUsed() >> 20, memory.getHeapMemoryUsage().getMax() >> 20);
+        assertThat(written).isEqualTo((long) ORDERS * LINES_PER_ORDER);
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.OrderHistoryEntry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/** Order history paging and totals, plus page latency for a customer with 20,000 orders (load suite). */
+@DataJpaTest
+@Import({OrderHistoryService.class, OrderArchive.class})
+class OrderHistoryServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 1);
+    private static final int BIG_CUSTOMER_ORDERS = 20_000;
+    private static final int RUNS = 20;
+
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private OrderHistoryService historyService;
+
+    @Test
+    void page_shouldListNewestFirstWithLineCountsAndTotals() {
+        customers(2);
+        jdbc.update("insert into vegetables (id, name) values (1, 'Leek'), (2, 'Kale')");
+        order(10, 1, DAY, new int[][]{{1, 3}, {2, 4}});
+        order(11, 1, DAY.plusDays(2), new int[][]{{1, 1}});
+        order(12, 1, DAY, new int[][]{{2, 6}});
+        order(13, 2, DAY.plusDays(5), new int[][]{{1, 9}});
+
+        var page = historyService.page(1, null, null, 10);
+
+        assertThat(page.getOrders())
+                .extracting(OrderHistoryEntry::getOrderId, OrderHistoryEntry::getOrderDate,
+                        OrderHistoryEntry::getLineCount, OrderHistoryEntry::getTotalQuantity)
+                .containsExactly(
+                        tuple(11L, DAY.plusDays(2), 1L, 1L),
+                        tuple(12L, DAY, 1L, 6L),
+                        tuple(10L, DAY, 2L, 7L));
+        assertThat(page.getNext()).isNull();
+        assertThat(page.getPrevious()).isNull();
+        assertThat(historyService.page(3, null, null, 10).getOrders()).isEmpty();
+        assertThatThrownBy(() -> historyService.page(1, "yesterday", null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void page_shouldWalkEveryOrderForwardAndBackAcrossSameDateTies() {
+        customers(1);
+        jdbc.update("insert into vegetables (id, name) values (1, 'Leek')");
+        // Five orders a day, so page boundaries fall inside a date
+        jdbc.update("insert into orders (id, customer_id, order_date) " +
+                "select x, 1, dateadd('DAY', x / 5, cast(? as date)) from system_range(1, 53)", DAY);
+        jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) select x, x, 1, x from system_range(1, 53)");
+
+        List<Long> forward = new ArrayList<>();
+        String after = null;
+        String lastPrevious;
+        int lastPageSize;
+        do {
+            var page = historyService.page(1, after, null, 7);
+            page.getOrders().forEach(o -> forward.add(o.getOrderId()));
+            lastPrevious = page.getPrevious();
+            lastPageSize = page.getOrders().size();
+            after = page.getNext();
+        } while (after != null);
+
+        List<Long> expected = jdbc.queryForList(
+                "select id from orders where customer_id = 1 order by order_date desc, id desc", Long.class);
+        assertThat(forward).isEqualTo(expected);
+
+        // Back from the last page to the first
+        List<Long> backward = new ArrayList<>();
+        String before = lastPrevious;
+        while (before != null) {
+            var page = historyService.page(1, null, before, 7);
+            backward.addAll(0, page.getOrders().stream().map(OrderHistoryEntry::getOrderId).toList());
+            before = page.getPrevious();
+        }
+        assertThat(backward).isEqualTo(expected.subList(0, expected.size() - lastPageSize));
+    }
+
+    @Test
+    @Tag("load")
+    void page_shouldTakeAboutAsLongAtTwentyThousandOrdersAsAtTwenty() {
+        customers(2);
+        jdbc.update("insert into vegetables (id, name) select x, 'Veg ' || x from system_range(1, 10)");
+        jdbc.update("insert into orders (id, customer_id, order_date) " +
+                "select x, case when x <= 20 then 2 else 1 end, dateadd('DAY', -mod(x, 3650), cast(? as date)) " +
+                "from system_range(1, ?)", DAY, BIG_CUSTOMER_ORDERS + 20);
+        jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) " +
+                "select o.x * 10 + v.x, o.x, v.x, v.x from system_range(1, ?) o cross join system_range(1, 4) v",
+                BIG_CUSTOMER_ORDERS + 20);
+
+        String deep = cursorAt(jdbc.queryForList(
+                "select id from orders where customer_id = 1 order by order_date desc, id desc", Long.class),
+                BIG_CUSTOMER_ORDERS - 100);
+        long small = p50(() -> historyService.page(2, null, null, 50));
+        long first = p50(() -> historyService.page(1, null, null, 50));
+        long deepPage = p50(() -> historyService.page(1, deep, null, 50));
+        System.out.printf("Order history page p50: 20 orders %d us, %d orders first page %d us, deep page %d us%n",
+                small, BIG_CUSTOMER_ORDERS, first, deepPage);
+
+        assertThat(historyService.page(1, deep, null, 50).getOrders()).hasSize(50)
+                .allSatisfy(o -> assertThat(o.getLineCount()).isEqualTo(4L));
+        // Loose bounds for shared CI machines: a page that scanned or sorted 20,000 orders would take far longer
+        assertThat(first).isLessThan(20_000);
+        assertThat(deepPage).isLessThan(20_000);
+    }
+
+    /** Median microseconds of {@link #RUNS} calls after as many warm-up calls. */
+    private static long p50(Runnable call) {
+        long[] micros = new long[RUNS];
+        for (int run = -RUNS; run < RUNS; run++) {
+            long t = System.nanoTime();
+            call.run();
+            if (run >= 0) micros[run] = (System.nanoTime() - t) / 1_000;
+        }
+        Arrays.sort(micros);
+        return micros[RUNS / 2];
+    }
+
+    private String cursorAt(List<Long> ids, int index) {
+        var date = jdbc.queryForObject("select order_date from orders where id = ?", LocalDate.class, ids.get(index));
+        return date + "_" + ids.get(index);
+    }
+
+    private void customers(int count) {
+        jdbc.update("insert into customers (id, first_name, last_name, email, address, created_at) " +
+                "select x, 'First', 'Last' || x, 'c' || x || '@example.com', 'Street', current_timestamp " +
+                "from system_range(1, ?)", count);
+    }
+
+    private void order(long id, long customerId, LocalDate date, int[][] lines) {
+        jdbc.update("insert into orders (id, customer_id, order_date) values (?, ?, ?)", id, customerId, date);
+        for (var line : lines) {
+            jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) values (?, ?, ?, ?)",
+                    id * 100 + line[0], id, line[0], line[1]);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.ordertaking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Caches over the test database; each test uses its own dates, since versions are committed for real. */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderPageCacheTest {
+
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void touch_shouldInvalidateOnlyThatDate() {
+        var day = LocalDate.of(2025, 1, 1);
+        var cache = cache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        var before = cache.versionOf(day);
+        cache.put("final:" + day, before, "<p>day</p>");
+        cache.put("final:" + day.plusDays(1), cache.versionOf(day.plusDays(1)), "<p>next</p>");
+
+        cache.touch(day);
+
+        assertThat(cache.versionOf(day).getEtag()).isNotEqualTo(before.getEtag());
+        assertThat(cache.get("final:" + day)).isNull();
+        assertThat(cache.get("final:" + day.plusDays(1)).getHtml()).isEqualTo("<p>next</p>");
+    }
+
+    @Test
+    void put_shouldRefuseRendersThatRacedAWrite() {
+        var day = LocalDate.of(2025, 2, 1);
+        var cache = cache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        var version = cache.versionOf(day);
+        cache.touch(day);
+
+        assertThat(cache.put("final:" + day, version, "<p>stale?</p>")).isNull();
+        assertThat(cache.get("final:" + day)).isNull();
+    }
+
+    @Test
+    void touch_shouldTakeEffectWhenTheTransactionCommits() {
+        var day = LocalDate.of(2025, 3, 1);
+        var cache = cache(DataSize.ofMegabytes(1), Duration.ZERO);
+        var before = cache.versionOf(day);
+        var tx = new TransactionTemplate(transactionManager);
+
+        tx.executeWithoutResult(status -> {
+            cache.touch(day);
+            status.setRollbackOnly();
+        });
+        assertThat(cache.versionOf(day).getEtag()).as("rolled back").isEqualTo(before.getEtag());
+
+        tx.executeWithoutResult(status -> {
+            cache.touch(day);
+            cache.touch(day, day.plusDays(1));
+            assertThat(cache.versionOf(day).getEtag()).as("not committed yet").isEqualTo(before.getEtag());
+        });
+        assertThat(cache.versionOf(day).getEtag()).isNotEqualTo(before.getEtag());
+    }
+
+    @Test
+    void writesThroughOneInstance_shouldInvalidateTheOthersPages() {
+        var day = LocalDate.of(2025, 4, 1);
+        var first = cache(DataSize.ofMegabytes(1), Duration.ZERO);
+        var second = cache(DataSize.ofMegabytes(1), Duration.ZERO);
+        var version = first.versionOf(day);
+        first.put("final:" + day, version, "<p>day</p>");
+        first.put("final:" + day.plusDays(1), first.versionOf(day.plusDays(1)), "<p>next</p>");
+        assertThat(second.versionOf(day).getEtag()).isEqualTo(version.getEtag());
+
+        second.touch(day);
+
+        assertThat(first.versionOf(day).getEtag()).isNotEqualTo(version.getEtag())
+                .isEqualTo(second.versionOf(day).getEtag());
+        assertThat(first.get("final:" + day)).isNull();
+        assertThat(first.get("final:" + day.plusDays(1))).isNotNull();
+
+        second.invalidateAll();
+
+        assertThat(first.get("final:" + day.plusDays(1))).isNull();
+    }
+
+    @Test
+    void versions_shouldBeReadAgainAfterTheTtl() throws Exception {
+        var day = LocalDate.of(2025, 5, 1);
+        var first = cache(DataSize.ofMegabytes(1), Duration.ofMillis(200));
+        var second = cache(DataSize.ofMegabytes(1), Duration.ofMillis(200));
+        var version = first.versionOf(day);
+        first.put("final:" + day, version, "<p>day</p>");
+
+        second.touch(day);
+        assertThat(first.get("final:" + day)).as("within the ttl").isNotNull();
+        Thread.sleep(250);
+
+        assertThat(first.get("final:" + day)).isNull();
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedBeyondTheByteBound() {
+        var day = LocalDate.of(2025, 6, 1);
+        // Each 1,000-char page weighs ~2 KB; the bound fits two of them
+        var cache = cache(DataSize.ofBytes(4_500), Duration.ofMinutes(1));
+        String page = "x".repeat(1_000);
+        cache.put("a", cache.versionOf(day), page);
+        cache.put("b", cache.versionOf(day), page);
+        cache.get("a");
+        cache.put("c", cache.versionOf(day), page);
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("c")).isNotNull();
+        assertThat(cache.bytes()).isLessThanOrEqualTo(4_500);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+    }
+
+    private OrderPageCache cache(DataSize maxSize, Duration versionTtl) {
+        return new OrderPageCache(maxSize, versionTtl, jdbc);
+    }
+}
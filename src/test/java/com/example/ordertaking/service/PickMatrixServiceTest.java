@@ -0,0 +1,123 @@
+package com.example.ordertaking.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Pick matrix contents and CSV, plus build / CSV latency at 5,000 customers × 200 vegetables (load suite).
+ */
+@DataJpaTest
+@Import({PickMatrixService.class, VegetableCatalog.class})
+class PickMatrixServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+    private static final int CUSTOMERS = 5_000;
+    private static final int VEGETABLES = 200;
+    private static final int RUNS = 10;
+
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PickMatrixService pickMatrixService;
+
+    @Test
+    void build_shouldGroupCustomersByAddressAndSumRepeatedVegetables() throws Exception {
+        customer(1, "Cara", "Moss", "2 Hill Road");
+        customer(2, "Abe", "Lane", "1 Mill Lane");
+        customer(3, "Bea", "Lane", "1 Mill Lane");
+        customer(4, "Dan", "Other", "9 Far Away");
+        jdbc.update("insert into vegetables (id, name) values (1, 'Turnip'), (2, 'carrot'), (3, 'Beet'), (4, 'Unused')");
+        order(10, 1, DAY, new int[][]{{1, 3}, {2, 1}});
+        order(11, 1, DAY, new int[][]{{1, 2}});
+        order(12, 2, DAY, new int[][]{{3, 5}});
+        order(13, 3, DAY, new int[][]{{2, 8}});
+        order(14, 4, DAY.plusDays(1), new int[][]{{1, 7}});
+
+        var matrix = pickMatrixService.build(DAY);
+
+        assertThat(matrix.getColumns()).extracting(PickMatrix.Column::getVegetableName)
+                .containsExactly("Beet", "carrot", "Turnip");
+        assertThat(matrix.getColumns()).extracting(PickMatrix.Column::getTotal).containsExactly(5L, 9L, 5L);
+        assertThat(matrix.getRows()).extracting(PickMatrix.Row::getCustomerName, PickMatrix.Row::isFirstAtAddress)
+                .containsExactly(
+                        tuple("Abe Lane", true),
+                        tuple("Bea Lane", false),
+                        tuple("Cara Moss", true));
+        assertThat(matrix.getRows().get(2).getCells()).containsExactly(0, 1, 5);
+        assertThat(matrix.getRows().get(2).getTotal()).isEqualTo(6);
+        assertThat(matrix.getTotal()).isEqualTo(19);
+
+        var csv = new StringWriter();
+        pickMatrixService.writeCsv(matrix, csv);
+        assertThat(csv.toString()).isEqualTo(String.join("\n",
+                "address,customer,Beet,carrot,Turnip,total",
+                "1 Mill Lane,Abe Lane,5,,,5",
+                "1 Mill Lane,Bea Lane,,8,,8",
+                "2 Hill Road,Cara Moss,,1,5,6",
+                ",Total,5,9,5,19",
+                ""));
+        assertThat(pickMatrixService.build(DAY.minusDays(1)).isEmpty()).isTrue();
+    }
+
+    @Test
+    @Tag("load")
+    void build_shouldStayFastAtFiveThousandCustomersByTwoHundredVegetables() throws Exception {
+        jdbc.update("insert into customers (id, first_name, last_name, email, address, created_at) " +
+                "select x, 'First', 'Last' || x, 'c' || x || '@example.com', 'Street ' || mod(x, 1000), current_timestamp " +
+                "from system_range(1, ?)", CUSTOMERS);
+        jdbc.update("insert into vegetables (id, name) select x, 'Veg ' || x from system_range(1, ?)", VEGETABLES);
+        jdbc.update("insert into orders (id, customer_id, order_date) select x, x, ? from system_range(1, ?)", DAY, CUSTOMERS);
+        // A quarter of the grid is filled: 250,000 order lines
+        jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) " +
+                "select c.x * 1000 + v.x, c.x, v.x, mod(c.x * v.x, 9) + 1 " +
+                "from system_range(1, ?) c cross join system_range(1, ?) v where mod(c.x + v.x, 4) = 0",
+                CUSTOMERS, VEGETABLES);
+
+        long[] buildMillis = new long[RUNS];
+        long[] csvMillis = new long[RUNS];
+        int csvLength = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long t = System.nanoTime();
+            var matrix = pickMatrixService.build(DAY);
+            buildMillis[run] = (System.nanoTime() - t) / 1_000_000;
+            assertThat(matrix.getRowCount()).isEqualTo(CUSTOMERS);
+            assertThat(matrix.getColumns()).hasSize(VEGETABLES);
+
+            t = System.nanoTime();
+            var csv = new StringWriter(8 * 1024 * 1024);
+            pickMatrixService.writeCsv(matrix, csv);
+            csvMillis[run] = (System.nanoTime() - t) / 1_000_000;
+            csvLength = csv.getBuffer().length();
+        }
+        Arrays.sort(buildMillis);
+        Arrays.sort(csvMillis);
+        System.out.printf("Pick matrix %d x %d: build p50 %d ms (max %d), CSV p50 %d ms (max %d), %d KB%n",
+                CUSTOMERS, VEGETABLES, buildMillis[RUNS / 2], buildMillis[RUNS - 1],
+                csvMillis[RUNS / 2], csvMillis[RUNS - 1], csvLength / 1024);
+        // Loose bounds for shared CI machines
+        assertThat(buildMillis[RUNS / 2]).isLessThan(5_000);
+        assertThat(csvMillis[RUNS / 2]).isLessThan(2_000);
+    }
+
+    private void customer(long id, String firstName, String lastName, String address) {
+        jdbc.update("insert into customers (id, first_name, last_name, email, address, created_at) values (?, ?, ?, ?, ?, current_timestamp)",
+                id, firstName, lastName, firstName.toLowerCase() + "@example.com", address);
+    }
+
+    private void order(long id, long customerId, LocalDate date, int[][] lines) {
+        jdbc.update("insert into orders (id, customer_id, order_date) values (?, ?, ?)", id, customerId, date);
+        for (var line : lines) {
+            jdbc.update("insert into order_items (id, order_id, vegetable_id, quantity) values (?, ?, ?, ?)",
+                    id * 100 + line[0], id, line[0], line[1]);
+        }
+    }
+}
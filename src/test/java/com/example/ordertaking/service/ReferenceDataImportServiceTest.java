@@ -0,0 +1,158 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.BulkImportResult;
+import com.example.ordertaking.entity.Customer;
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.CustomerRepository;
+import com.example.ordertaking.repository.VegetableRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Bulk customer / vegetable import on H2, plus a 100,000-row timing run in the load suite. Runs outside a
+ * test transaction so every chunk really commits.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReferenceDataImportService.class, VegetableCatalog.class, ReferenceDataImportServiceTest.Config.class})
+class ReferenceDataImportServiceTest {
+
+    private static final int LOAD_CUSTOMERS = 100_000;
+
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().registerModule(new JavaTimeModule());
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+    }
+
+    @Autowired private ReferenceDataImportService importService;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private VegetableCatalog catalog;
+
+    @Test
+    void importCustomers_shouldStoreValidRowsAndReportTheRest() {
+        String run = "r" + System.nanoTime();
+        var existing = new Customer();
+        existing.setFirstName("Already");
+        existing.setLastName("Here");
+        existing.setEmail(run + ".existing@example.com");
+        existing.setAddress("1 Old Road");
+        customerRepository.save(existing);
+        var csv = String.join("\n",
+                "firstName,lastName,email,address",
+                "Ada,Field," + run + ".ada@example.com,\"4 Orchard Way, Hilltown\"",
+                "Old,Timer," + run.toUpperCase() + ".EXISTING@example.com,2 Old Road",
+                "Ada,Again," + run + ".ADA@example.com,5 Orchard Way",
+                "Bad,Email,not-an-email,3 Road",
+                "Too,Few," + run + ".few@example.com",
+                "Open,Quote," + run + ".quote@example.com,\"6 Lane",
+                "\"Bo \"\"Ben\"\"\",Baker," + run + ".bo@example.com,7 Mill Street");
+        List<BulkImportResult> results = new ArrayList<>();
+
+        var summary = importService.importCustomers(reader(csv), BulkImportReader.Format.CSV, results::add);
+
+        assertThat(summary.getCreated()).isEqualTo(2);
+        assertThat(summary.getRejected()).isEqualTo(5);
+        assertThat(summary.getFailed()).isZero();
+        assertThat(results).extracting(BulkImportResult::getLineNumber, BulkImportResult::getStatus)
+                .containsExactly(
+                        tuple(3L, BulkImportResult.Status.REJECTED),
+                        tuple(4L, BulkImportResult.Status.REJECTED),
+                        tuple(5L, BulkImportResult.Status.REJECTED),
+                        tuple(6L, BulkImportResult.Status.REJECTED),
+                        tuple(7L, BulkImportResult.Status.REJECTED));
+        assertThat(results.get(0).getError()).isEqualTo("Email already exists");
+        assertThat(results.get(1).getError()).isEqualTo("Email already exists");
+        assertThat(results.get(2).getError()).startsWith("email: ");
+        assertThat(customerRepository.findAll())
+                .filteredOn(c -> c.getEmail().startsWith(run + "."))
+                .extracting(Customer::getFirstName, Customer::getAddress)
+                .containsExactlyInAnyOrder(
+                        tuple("Already", "1 Old Road"),
+                        tuple("Ada", "4 Orchard Way, Hilltown"),
+                        tuple("Bo \"Ben\"", "7 Mill Street"));
+    }
+
+    @Test
+    void importVegetables_shouldDedupeNamesIgnoringCaseAndRefreshTheCatalog() {
+        String run = "Veg" + System.nanoTime();
+        vegetableRepository.save(new Vegetable(run + " Leek"));
+        catalog.findAll();
+        var ndjson = String.join("\n",
+                "{\"name\":\"" + run + " LEEK\"}",
+                "{\"name\":\"" + run + " Salsify\"}",
+                "{\"name\":\"" + run + " salsify\"}",
+                "{\"name\":\"\"}",
+                "{\"name\":",
+                "{\"name\":\"" + run + " Celeriac\"}");
+        List<BulkImportResult> results = new ArrayList<>();
+
+        var summary = importService.importVegetables(reader(ndjson), BulkImportReader.Format.NDJSON, results::add);
+
+        assertThat(summary.getCreated()).isEqualTo(2);
+        assertThat(results).extracting(BulkImportResult::getLineNumber).containsExactly(1L, 3L, 4L, 5L);
+        assertThat(results.get(0).getError()).isEqualTo("Vegetable already exists");
+        assertThat(results.get(1).getError()).isEqualTo("Vegetable already exists");
+        assertThat(results.get(2).getError()).startsWith("name: ");
+        assertThat(results.get(3).getError()).startsWith("Malformed JSON");
+        assertThat(catalog.findAll()).extracting(Vegetable::getName)
+                .contains(run + " Salsify", run + " Celeriac")
+                .doesNotContain(run + " salsify");
+    }
+
+    @Test
+    @Tag("load")
+    void importCustomers_shouldLoadOneHundredThousandRowsInSeconds() {
+        String run = "load" + System.nanoTime();
+        var csv = new StringBuilder(LOAD_CUSTOMERS * 64).append("firstName,lastName,email,address\n");
+        for (int i = 0; i < LOAD_CUSTOMERS; i++) {
+            csv.append("First").append(i).append(",Last").append(i).append(',')
+                    .append(run).append('.').append(i).append("@example.com,")
+                    .append("\"").append(i).append(" Import Street, Region\"\n");
+        }
+        // Every tenth row repeats an earlier email in upper case
+        for (int i = 0; i < LOAD_CUSTOMERS; i += 10) {
+            csv.append("Dup,Row,").append(run.toUpperCase()).append('.').append(i).append("@EXAMPLE.COM,Nowhere\n");
+        }
+        long before = customerRepository.count();
+
+        var summary = importService.importCustomers(reader(csv.toString()), BulkImportReader.Format.CSV, r -> {});
+
+        System.out.printf("Customer import: %d created, %d rejected in %d ms (%.0f rows/s)%n",
+                summary.getCreated(), summary.getRejected(), summary.getElapsedMillis(),
+                (summary.getCreated() + summary.getRejected()) * 1000.0 / Math.max(1, summary.getElapsedMillis()));
+        assertThat(summary.getCreated()).isEqualTo(LOAD_CUSTOMERS);
+        assertThat(summary.getRejected()).isEqualTo(LOAD_CUSTOMERS / 10);
+        assertThat(customerRepository.count()).isEqualTo(before + LOAD_CUSTOMERS);
+        // Loose bound for shared CI machines; a laptop does this in a few seconds
+        assertThat(summary.getElapsedMillis()).isLessThan(60_000);
+    }
+
+    private static BufferedReader reader(String payload) {
+        return new BufferedReader(new StringReader(payload));
+    }
+}
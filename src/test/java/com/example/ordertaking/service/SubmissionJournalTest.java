@@ -0,0 +1,97 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.dto.BulkOrderRecord;
+import com.example.ordertaking.dto.OrderSubmission;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubmissionJournalTest {
+
+    private static final int SUBMITTERS = 8;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void concurrentSubmitters_shouldShareOneForceAndAllBeReplayed(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("orders.journal");
+        var firstForceStarted = new CountDownLatch(1);
+        var releaseFirstForce = new CountDownLatch(1);
+        var forces = new AtomicInteger();
+        var journal = new SubmissionJournal(file, objectMapper) {
+            @Override
+            void force() throws IOException {
+                if (forces.incrementAndGet() == 1) {
+                    firstForceStarted.countDown();
+                    await(releaseFirstForce);
+                }
+                super.force();
+            }
+        };
+        journal.open();
+        ExecutorService pool = Executors.newFixedThreadPool(SUBMITTERS);
+        try {
+            List<Future<?>> acks = new ArrayList<>();
+            acks.add(pool.submit(() -> accept(journal, "first")));
+            await(firstForceStarted);
+            for (int i = 1; i < SUBMITTERS; i++) {
+                var key = "waiting-" + i;
+                acks.add(pool.submit(() -> accept(journal, key)));
+            }
+            // Every later submitter has appended and is waiting behind the first force
+            var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (Files.readAllLines(file).size() < SUBMITTERS) {
+                assertThat(System.nanoTime()).as("all submitters appended in time").isLessThan(deadline);
+                Thread.sleep(10);
+            }
+            assertThat(acks).noneMatch(Future::isDone);
+
+            releaseFirstForce.countDown();
+            for (var ack : acks) {
+                ack.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+            journal.close();
+        }
+        assertThat(forces).as("one force for the first submitter, one for the group behind it").hasValue(2);
+
+        var reopened = new SubmissionJournal(file, objectMapper);
+        try {
+            assertThat(reopened.open()).extracting(OrderSubmission::getKey).hasSize(SUBMITTERS).contains("first", "waiting-1");
+        } finally {
+            reopened.close();
+        }
+    }
+
+    private static Void accept(SubmissionJournal journal, String key) throws IOException {
+        journal.accepted(new OrderSubmission(key, 1L, LocalDate.of(2025, 6, 2), List.of(new BulkOrderRecord.Line(2L, 3))));
+        return null;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ordertaking.service;
+
+import com.example.ordertaking.entity.Vegetable;
+import com.example.ordertaking.repository.VegetableRepository;
+import com.example.ordertaking.support.JdbcRoundTripCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "app.catalog.max-entries=2")
+@Import({VegetableCatalog.class, JdbcRoundTripCounter.class})
+class VegetableCatalogTest {
+
+    @Autowired private VegetableRepository vegetableRepository;
+    @Autowired private VegetableCatalog catalog;
+    @Autowired private JdbcRoundTripCounter roundTrips;
+
+    @Test
+    void catalog_shouldServeRepeatReadsFromMemoryUntilInvalidated() {
+        Long tomato = vegetableRepository.save(new Vegetable("Tomato")).getId();
+        Long onion = vegetableRepository.save(new Vegetable("Onion")).getId();
+
+        assertThat(catalog.findAll()).hasSize(2);
+        roundTrips.reset();
+        assertThat(catalog.findAll()).hasSize(2);
+        assertThat(catalog.findAllById(List.of(tomato, onion))).containsOnlyKeys(tomato, onion);
+        assertThat(roundTrips.get()).isZero();
+        assertThat(catalog.stats().getHits()).isEqualTo(3);
+        assertThat(catalog.stats().getMisses()).isEqualTo(1);
+
+        Long potato = vegetableRepository.save(new Vegetable("Potato")).getId();
+        catalog.invalidate();
+        assertThat(catalog.stats().getInvalidations()).isEqualTo(1);
+        // Over the bound: the full list is read through and not retained
+        assertThat(catalog.findAll()).hasSize(3);
+        assertThat(catalog.stats().getSize()).isZero();
+        assertThat(catalog.findAllById(List.of(tomato, onion, potato))).hasSize(3);
+        assertThat(catalog.stats().getEvictions()).isEqualTo(1);
+        assertThat(catalog.stats().getSize()).isEqualTo(2);
+    }
+}
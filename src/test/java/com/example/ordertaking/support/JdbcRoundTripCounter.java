@@ -0,0 +1,80 @@
+package com.example.ordertaking.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps the application {@link DataSource} and counts statement executions, i.e. JDBC round trips.
+ * A batch counts once. Sequence fetches are also counted on their own, since how often an order needs one
+ * depends on where it falls in the pooled block rather than on the code path. Register with
+ * {@code @Import(JdbcRoundTripCounter.class)}.
+ */
+public class JdbcRoundTripCounter implements BeanPostProcessor {
+
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final AtomicLong sequenceFetches = new AtomicLong();
+
+    public long get() {
+        return roundTrips.get();
+    }
+
+    /** The part of {@link #get()} that fetched the next block of a sequence. */
+    public long sequenceFetches() {
+        return sequenceFetches.get();
+    }
+
+    public void reset() {
+        roundTrips.set(0);
+        sequenceFetches.set(0);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource) {
+            return proxy(DataSource.class, bean, null);
+        }
+        return bean;
+    }
+
+    private <T> T proxy(Class<T> type, Object target, String sql) {
+        InvocationHandler handler = (p, method, args) -> {
+            String name = method.getName();
+            if (target instanceof Statement && name.startsWith("execute")) {
+                roundTrips.incrementAndGet();
+                if (isSequenceFetch(sql)) sequenceFetches.incrementAndGet();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection && type == DataSource.class) {
+                return proxy(Connection.class, result, null);
+            }
+            if (result instanceof Statement && type == Connection.class) {
+                return proxy(statementType(result), result, args != null && args[0] instanceof String ? (String) args[0] : null);
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static boolean isSequenceFetch(String sql) {
+        return sql != null && sql.toLowerCase(java.util.Locale.ROOT).contains("next value for");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S extends Statement> Class<S> statementType(Object statement) {
+        if (statement instanceof java.sql.CallableStatement) return (Class<S>) java.sql.CallableStatement.class;
+        if (statement instanceof java.sql.PreparedStatement) return (Class<S>) java.sql.PreparedStatement.class;
+        return (Class<S>) Statement.class;
+    }
+}
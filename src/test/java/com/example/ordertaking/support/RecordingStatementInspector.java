@@ -0,0 +1,34 @@
+package com.example.ordertaking.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL string Hibernate prepares, so tests can inspect the statements behind a
+ * repository method. Register with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector=<this class>}.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /** The first statement Hibernate prepared since {@link #clear()}, i.e. the query itself rather than follow-up loads. */
+    public static String first() {
+        if (STATEMENTS.isEmpty()) {
+            throw new IllegalStateException("No statement recorded");
+        }
+        return STATEMENTS.get(0);
+    }
+}
@@ -0,0 +1,16 @@
+-- A database as the original ddl-auto=update left it (Hibernate's DDL for the first entities, with
+-- engine=InnoDB), holding a few rows. BaselineMigrationTest baselines it at V1 and migrates it.
+create table customers (id bigint not null auto_increment, address longtext not null, created_at datetime not null, email varchar(255) not null, first_name varchar(255) not null, last_name varchar(255) not null, primary key (id)) engine=InnoDB;
+create table order_items (id bigint not null auto_increment, quantity integer not null, order_id bigint not null, vegetable_id bigint not null, primary key (id)) engine=InnoDB;
+create table orders (id bigint not null auto_increment, order_date date not null, customer_id bigint not null, primary key (id)) engine=InnoDB;
+create table vegetables (id bigint not null auto_increment, name varchar(255) not null, primary key (id)) engine=InnoDB;
+alter table customers add constraint UK_rfbvkrffamfql7cjmen8v976v unique (email);
+alter table vegetables add constraint UK_cnsep9kbqc5eymbys02ushq3b unique (name);
+alter table order_items add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders (id);
+alter table order_items add constraint FK35krd00nm2b865dwx4qsyntyn foreign key (vegetable_id) references vegetables (id);
+alter table orders add constraint FKpxtb8awmi0dk6smoh2vp1litg foreign key (customer_id) references customers (id);
+
+insert into customers (address, created_at, email, first_name, last_name) values ('1 Old Road', '2024-05-01 08:00:00', 'old.customer@example.com', 'Old', 'Customer');
+insert into vegetables (name) values ('Old leek');
+insert into orders (id, order_date, customer_id) values (120, '2024-05-02', 1);
+insert into order_items (id, quantity, order_id, vegetable_id) values (310, 4, 120, 1);